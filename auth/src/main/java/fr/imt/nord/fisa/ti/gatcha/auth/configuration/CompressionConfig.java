@@ -0,0 +1,13 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.configuration;
+
+import fr.imt.nord.fisa.ti.gatcha.common.web.CompressionFilter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Active la compression gzip des réponses (auth ne scanne pas le module common).
+ */
+@Configuration
+@Import(CompressionFilter.class)
+public class CompressionConfig {
+}
@@ -0,0 +1,32 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dimensionne le pool de connexions MongoDB : avec les threads virtuels, les requêtes simultanées
+ * ne sont plus bornées par les threads Tomcat et c'est le pool qui limite l'accès à MongoDB.
+ * L'attente d'une connexion est bornée ({@code mongo.pool.max-wait}) pour échouer vite plutôt
+ * que d'accumuler des threads en attente.
+ */
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoClientSettingsBuilderCustomizer(
+            @Value("${mongo.pool.max-size:200}") int maxSize,
+            @Value("${mongo.pool.min-size:10}") int minSize,
+            @Value("${mongo.pool.max-connecting:4}") int maxConnecting,
+            @Value("${mongo.pool.max-wait:2s}") Duration maxWait) {
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxSize)
+                .minSize(minSize)
+                .maxConnecting(maxConnecting)
+                .maxWaitTime(maxWait.toMillis(), TimeUnit.MILLISECONDS));
+    }
+}
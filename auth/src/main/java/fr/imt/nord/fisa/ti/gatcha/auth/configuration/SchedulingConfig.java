@@ -0,0 +1,12 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les tâches planifiées (flush des prolongations de tokens, etc.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
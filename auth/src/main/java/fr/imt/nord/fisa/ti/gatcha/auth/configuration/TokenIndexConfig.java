@@ -0,0 +1,66 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.configuration;
+
+import fr.imt.nord.fisa.ti.gatcha.auth.model.RevokedToken;
+import fr.imt.nord.fisa.ti.gatcha.auth.model.Token;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.time.Duration;
+
+/**
+ * Création explicite des index des collections {@code tokens} et {@code revoked_tokens} au démarrage
+ * (l'auto-création des index Spring Data est désactivée par défaut).
+ * <p>
+ * L'index TTL sur {@code expiryDate} laisse MongoDB supprimer les tokens expirés que plus
+ * personne ne présente. Il ne supprime pas de token dont une prolongation est en attente
+ * dans {@link fr.imt.nord.fisa.ti.gatcha.auth.service.TokenExpiryWriter} : une prolongation
+ * n'est différée que si l'expiration stockée est encore loin dans le futur.
+ */
+@Slf4j
+@Configuration
+@AllArgsConstructor
+@ConditionalOnProperty(name = "auth.token.ttl-index.enabled", havingValue = "true", matchIfMissing = true)
+public class TokenIndexConfig {
+
+    static final String TTL_INDEX_NAME = "expiryDate_ttl";
+    static final String TOKEN_INDEX_NAME = "token_unique";
+    static final String REVOCATION_TTL_INDEX_NAME = "expiresAt_ttl";
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createTokenIndexes() {
+        IndexOperations tokenIndexOps = mongoTemplate.indexOps(Token.class);
+        ensureIndex(tokenIndexOps, TOKEN_INDEX_NAME, new Index()
+                .on("token", Sort.Direction.ASC)
+                .unique());
+        ensureIndex(tokenIndexOps, TTL_INDEX_NAME, new Index()
+                .on("expiryDate", Sort.Direction.ASC)
+                .expire(Duration.ZERO));
+        ensureIndex(mongoTemplate.indexOps(RevokedToken.class), REVOCATION_TTL_INDEX_NAME, new Index()
+                .on("expiresAt", Sort.Direction.ASC)
+                .expire(Duration.ZERO));
+    }
+
+    /**
+     * Chaque index est créé indépendamment : l'échec de l'un (doublons existants pour l'index
+     * unique, index existant avec d'autres options) n'empêche ni la création des autres ni le
+     * démarrage du service.
+     */
+    private static void ensureIndex(IndexOperations indexOps, String name, Index index) {
+        try {
+            indexOps.createIndex(index.named(name));
+            log.info("Token index ensured: {}", name);
+        } catch (RuntimeException e) {
+            log.error("Failed to create token index {}: {}", name, e.getMessage());
+        }
+    }
+}
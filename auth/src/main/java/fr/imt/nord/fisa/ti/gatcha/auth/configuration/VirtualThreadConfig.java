@@ -0,0 +1,13 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.configuration;
+
+import fr.imt.nord.fisa.ti.gatcha.common.monitoring.VirtualThreadPinningMonitor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Active la détection du pinning des threads virtuels (auth ne scanne pas le module common).
+ */
+@Configuration
+@Import(VirtualThreadPinningMonitor.class)
+public class VirtualThreadConfig {
+}
@@ -1,23 +1,35 @@
 package fr.imt.nord.fisa.ti.gatcha.auth.controller;
 
+import fr.imt.nord.fisa.ti.gatcha.auth.dto.token.InputBatchVerifyDTO;
+import fr.imt.nord.fisa.ti.gatcha.auth.dto.token.TokenVerdictDTO;
 import fr.imt.nord.fisa.ti.gatcha.auth.exception.TokenExpiredException;
 import fr.imt.nord.fisa.ti.gatcha.auth.exception.TokenNotFoundException;
+import fr.imt.nord.fisa.ti.gatcha.auth.service.SignedTokenService;
 import fr.imt.nord.fisa.ti.gatcha.auth.service.TokenService;
+import fr.imt.nord.fisa.ti.gatcha.common.dto.TokenRevocation;
 import fr.imt.nord.fisa.ti.gatcha.common.dto.TokenVerifyResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/tokens")
 @AllArgsConstructor
@@ -25,6 +37,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class TokenController {
 
     private final TokenService tokenService;
+    private final SignedTokenService signedTokenService;
 
     @Operation(
             summary = "Vérification de token via Authorization header",
@@ -54,4 +67,66 @@ public class TokenController {
         String token = authHeader.substring(7); // Enlever "Bearer "
         return tokenService.verifyToken(token);
     }
+
+    @Operation(
+            summary = "Vérification d'un lot de tokens",
+            description = "Vérifie plusieurs tokens en un seul appel (au plus " + InputBatchVerifyDTO.MAX_TOKENS + "). Retourne un verdict par token, dans l'ordre de la requête, et prolonge d'1 heure les tokens valides."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Verdicts par token",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = TokenVerdictDTO.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Liste de tokens vide, trop longue ou contenant un token vide"
+            )
+    })
+    @PostMapping("/verify/batch")
+    public List<TokenVerdictDTO> verifyTokens(@Valid @RequestBody InputBatchVerifyDTO inputBatchVerifyDTO) {
+        return tokenService.verifyTokens(inputBatchVerifyDTO.getTokens());
+    }
+
+    @Operation(
+            summary = "Révocation de token",
+            description = "Révoque le token passé dans le header Authorization: Bearer <token> (déconnexion). Un token signé reste révoqué jusqu'à son expiration.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Token révoqué"
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Token expiré, invalide ou manquant"
+            )
+    })
+    @PostMapping("/revoke")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revokeToken(
+            @Parameter(hidden = true)
+            @RequestHeader(value = "Authorization", required = false) String authHeader) throws TokenExpiredException, TokenNotFoundException {
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new TokenNotFoundException("Token manquant ou format invalide. Utilisez: Authorization: Bearer <token>");
+        }
+
+        tokenService.revokeToken(authHeader.substring(7));
+    }
+
+    @Operation(
+            summary = "Liste des tokens signés révoqués",
+            description = "Retourne les tokens signés révoqués et pas encore expirés. Récupérée périodiquement par les services qui vérifient les tokens signés localement."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Révocations actives",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = TokenRevocation.class)))
+    )
+    @GetMapping("/revocations")
+    public List<TokenRevocation> revocations() {
+        return signedTokenService.activeRevocations();
+    }
 }
@@ -4,6 +4,7 @@ import fr.imt.nord.fisa.ti.gatcha.auth.dto.user.InputLoginDTO;
 import fr.imt.nord.fisa.ti.gatcha.auth.dto.user.InputRegisterDTO;
 import fr.imt.nord.fisa.ti.gatcha.auth.dto.user.OutputLoginDTO;
 import fr.imt.nord.fisa.ti.gatcha.auth.exception.InvalidCredentialsException;
+import fr.imt.nord.fisa.ti.gatcha.auth.exception.LoginThrottledException;
 import fr.imt.nord.fisa.ti.gatcha.auth.exception.UserAlreadyExistsException;
 import fr.imt.nord.fisa.ti.gatcha.auth.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +13,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -41,14 +43,23 @@ public class UserController {
                     responseCode = "401",
                     description = "Identifiants invalides"
             ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Trop de tentatives échouées, réessayer après le délai indiqué par Retry-After"
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Données de requête invalides"
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Service saturé, réessayer après le délai indiqué par Retry-After"
             )
     })
     @PostMapping("/login")
-    public OutputLoginDTO login(@Valid @RequestBody InputLoginDTO userLoginDTO) throws InvalidCredentialsException {
-        return userService.login(userLoginDTO);
+    public OutputLoginDTO login(@Valid @RequestBody InputLoginDTO userLoginDTO, HttpServletRequest request)
+            throws InvalidCredentialsException, LoginThrottledException {
+        return userService.login(userLoginDTO, request.getRemoteAddr());
     }
 
     @Operation(
@@ -68,6 +79,10 @@ public class UserController {
             @ApiResponse(
                     responseCode = "400",
                     description = "Données de requête invalides"
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Service saturé, réessayer après le délai indiqué par Retry-After"
             )
     })
     @PostMapping("/register")
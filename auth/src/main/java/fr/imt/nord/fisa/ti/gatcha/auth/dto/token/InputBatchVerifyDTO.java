@@ -0,0 +1,23 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.dto.token;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Schema(description = "Requête de vérification d'un lot de tokens")
+public class InputBatchVerifyDTO {
+
+    public static final int MAX_TOKENS = 500;
+
+    @NotEmpty(message = "Tokens cannot be empty")
+    @Size(max = MAX_TOKENS, message = "At most " + MAX_TOKENS + " tokens per batch")
+    @Schema(description = "Tokens d'authentification à vérifier", required = true)
+    private List<@NotBlank(message = "Token cannot be blank") String> tokens;
+}
@@ -0,0 +1,27 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.dto.token;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Résultat de la vérification d'un token d'un lot")
+public class TokenVerdictDTO {
+
+    @Schema(description = "Token vérifié, tel qu'envoyé dans la requête")
+    private String token;
+
+    @Schema(description = "true si le token est valide", example = "true")
+    private boolean status;
+
+    @Schema(description = "Utilisateur associé au token, si valide", example = "john")
+    private String username;
+
+    @Schema(description = "Message de statut", example = "Token valid")
+    private String message;
+}
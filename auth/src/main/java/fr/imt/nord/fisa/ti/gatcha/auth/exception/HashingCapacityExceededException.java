@@ -0,0 +1,16 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception levée lorsque le pool de hachage BCrypt est saturé.
+ */
+@Getter
+public class HashingCapacityExceededException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public HashingCapacityExceededException(long retryAfterSeconds) {
+        super("Authentication service is busy. Please retry later.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
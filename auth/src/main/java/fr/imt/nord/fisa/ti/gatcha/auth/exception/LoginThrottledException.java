@@ -0,0 +1,17 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception levée lorsqu'une tentative de connexion est refusée par le limiteur
+ * (trop d'échecs récents pour ce username ou cette adresse).
+ */
+@Getter
+public class LoginThrottledException extends Exception {
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        super("Too many failed login attempts. Please retry later.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -2,8 +2,10 @@ package fr.imt.nord.fisa.ti.gatcha.auth.exception.handler;
 
 import fr.imt.nord.fisa.ti.gatcha.auth.dto.error.ErrorResponseDTO;
 import fr.imt.nord.fisa.ti.gatcha.auth.exception.InvalidCredentialsException;
+import fr.imt.nord.fisa.ti.gatcha.auth.exception.LoginThrottledException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -32,4 +34,23 @@ public class AuthenticationExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
     }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ErrorResponseDTO> handleLoginThrottled(
+            LoginThrottledException ex,
+            HttpServletRequest request) {
+
+        log.warn("Login throttled at {}: retry after {}s", request.getRequestURI(), ex.getRetryAfterSeconds());
+
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too Many Requests",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
 }
@@ -0,0 +1,44 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.exception.handler;
+
+import fr.imt.nord.fisa.ti.gatcha.auth.dto.error.ErrorResponseDTO;
+import fr.imt.nord.fisa.ti.gatcha.auth.exception.HashingCapacityExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Handler pour les refus liés à la saturation du service.
+ * <p>
+ * Ces exceptions sont des RuntimeException : ce handler doit passer avant le catch-all
+ * de {@link GlobalExceptionHandler}.
+ */
+@Slf4j
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CapacityExceptionHandler {
+
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<ErrorResponseDTO> handleHashingCapacityExceeded(
+            HashingCapacityExceededException ex,
+            HttpServletRequest request) {
+
+        log.warn("Hashing capacity exceeded at {}", request.getRequestURI());
+
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+}
@@ -0,0 +1,26 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Token signé révoqué. Le document n'est utile que jusqu'à l'expiration du token
+ * (index TTL sur {@code expiresAt}, voir TokenIndexConfig).
+ */
+@Document(collection = "revoked_tokens")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    @Id
+    private String tokenId;
+
+    private Instant expiresAt;
+}
@@ -17,11 +17,23 @@ public class Token {
     @Id
     private UUID id;
 
+    /**
+     * Empreinte SHA-256 du token opaque remis au client, ou le token lui-même pour
+     * l'ancien format (voir {@link fr.imt.nord.fisa.ti.gatcha.auth.service.TokenGenerator}).
+     */
     @Indexed(unique = true)
     private String token;
 
-    @DocumentReference
+    /**
+     * Référence vers l'utilisateur, chargée uniquement à l'accès : la vérification d'un token
+     * se contente de {@link #username}, dénormalisé dans le document.
+     */
+    @DocumentReference(lazy = true)
     private User user;
 
+    private UUID userId;
+
+    private String username;
+
     private LocalDateTime expiryDate;
 }
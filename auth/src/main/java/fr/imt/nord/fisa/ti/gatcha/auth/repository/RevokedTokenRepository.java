@@ -0,0 +1,13 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.repository;
+
+import fr.imt.nord.fisa.ti.gatcha.auth.model.RevokedToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+}
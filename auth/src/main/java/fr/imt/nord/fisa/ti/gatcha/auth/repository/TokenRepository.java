@@ -2,12 +2,22 @@ package fr.imt.nord.fisa.ti.gatcha.auth.repository;
 
 import fr.imt.nord.fisa.ti.gatcha.auth.model.Token;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface TokenRepository extends MongoRepository<Token, UUID> {
     Optional<Token> findByToken(String token);
+
+    List<Token> findByTokenIn(Collection<String> tokens);
+
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$set': { 'userId': ?1, 'username': ?2 } }")
+    void updateOwnerById(UUID id, UUID userId, String username);
 }
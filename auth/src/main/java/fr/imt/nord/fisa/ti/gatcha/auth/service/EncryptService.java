@@ -1,24 +1,130 @@
 package fr.imt.nord.fisa.ti.gatcha.auth.service;
 
+import fr.imt.nord.fisa.ti.gatcha.auth.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hachage et vérification BCrypt.
+ * <p>
+ * Les calculs BCrypt sont coûteux en CPU : ils sont exécutés sur un pool dédié et borné
+ * plutôt que sur les threads Tomcat, pour qu'un pic de connexions ne prive pas les autres
+ * endpoints (notamment {@code /tokens/verify}) de CPU. Au-delà de la file d'attente,
+ * la requête échoue immédiatement avec {@link HashingCapacityExceededException} (503).
+ * <p>
+ * Le coût BCrypt est fixé par {@code auth.hashing.bcrypt.strength}, identique sur toutes les
+ * répliques. La calibration ({@code auth.hashing.bcrypt.calibrate=true}) mesure au démarrage le
+ * coût qui fait durer un hachage environ {@code auth.hashing.bcrypt.target-time} sur la machine
+ * courante, sans descendre sous le coût configuré ; elle sert à choisir la valeur à fixer, pas à
+ * tourner en production sur plusieurs répliques.
+ */
+@Slf4j
 @Service
 public class EncryptService {
 
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    static final int CALIBRATED_MIN_STRENGTH = 10;
+    static final int CALIBRATED_MAX_STRENGTH = 16;
+    private static final int CALIBRATION_STRENGTH = 8;
+    private static final int CALIBRATION_ROUNDS = 3;
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    @Getter
+    private final int strength;
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Counter rejected;
+
+    public EncryptService(
+            MeterRegistry meterRegistry,
+            @Value("${auth.hashing.pool-size:0}") int poolSize,
+            @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.hashing.retry-after-seconds:1}") long retryAfterSeconds,
+            @Value("${auth.hashing.bcrypt.strength:10}") int strength,
+            @Value("${auth.hashing.bcrypt.calibrate:false}") boolean calibrate,
+            @Value("${auth.hashing.bcrypt.target-time:250ms}") Duration targetTime) {
+        this.strength = calibrate ? Math.max(strength, calibrate(targetTime)) : strength;
+        this.passwordEncoder = new BCryptPasswordEncoder(this.strength);
+
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        this.encodeTimer = Timer.builder("auth.hashing.latency")
+                .description("Durée d'un calcul BCrypt (hors attente dans la file)")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchTimer = Timer.builder("auth.hashing.latency")
+                .description("Durée d'un calcul BCrypt (hors attente dans la file)")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.hashing.rejected")
+                .description("Calculs BCrypt refusés car la file d'attente est pleine")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Calculs BCrypt en attente d'un thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Calculs BCrypt en cours")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.bcrypt.strength", this, service -> service.strength)
+                .description("Coût BCrypt utilisé pour les nouveaux hachages")
+                .register(meterRegistry);
+
+        log.info("EncryptService initialized (bcrypt strength: {}, threads: {}, queue capacity: {})",
+                this.strength, threads, queueCapacity);
+        if (calibrate) {
+            log.warn("BCrypt strength calibrated to {} for a target of {} on this machine: pin it with "
+                    + "auth.hashing.bcrypt.strength={} and disable calibration", this.strength, targetTime, this.strength);
+        }
+    }
 
     /**
      * Encrypte (hachage) une valeur en utilisant BCrypt.
      *
      * @param rawValue valeur en clair (mot de passe, token, etc.)
      * @return valeur hachée
+     * @throws HashingCapacityExceededException si le pool de hachage est saturé
      */
     public String encrypt(String rawValue) {
         if (rawValue == null) {
             throw new IllegalArgumentException("Raw value cannot be null");
         }
-        return passwordEncoder.encode(rawValue);
+        return execute(encodeTimer, () -> passwordEncoder.encode(rawValue));
     }
 
     /**
@@ -27,8 +133,81 @@ public class EncryptService {
      * @param rawValue       valeur en clair
      * @param encryptedValue valeur hachée
      * @return \`true\` si ça matche, sinon \`false\`
+     * @throws HashingCapacityExceededException si le pool de hachage est saturé
      */
     public boolean matches(String rawValue, String encryptedValue) {
-        return passwordEncoder.matches(rawValue, encryptedValue);
+        return execute(matchTimer, () -> passwordEncoder.matches(rawValue, encryptedValue));
+    }
+
+    /**
+     * Indique si une valeur hachée a été produite avec un coût inférieur au coût courant
+     * et doit être recalculée à la prochaine occasion (connexion réussie). Un hash plus
+     * coûteux est conservé : le coût ne baisse jamais par rehash.
+     *
+     * @param encryptedValue valeur hachée stockée
+     * @return \`true\` si le coût stocké est inférieur au coût courant
+     */
+    public boolean needsRehash(String encryptedValue) {
+        if (encryptedValue == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encryptedValue);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+    /**
+     * Choisit le coût dont la durée de hachage est la plus proche de la cible : chaque
+     * incrément double le temps de calcul, on mesure donc un coût bas et on extrapole.
+     */
+    static int calibrate(Duration targetTime) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(CALIBRATION_STRENGTH);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double doublings = Math.log((double) targetTime.toNanos() / Math.max(best, 1)) / Math.log(2);
+        int calibrated = CALIBRATION_STRENGTH + (int) Math.round(doublings);
+        return Math.clamp(calibrated, CALIBRATED_MIN_STRENGTH, CALIBRATED_MAX_STRENGTH);
+    }
+
+    /**
+     * Exécute un calcul sur le pool de hachage et attend son résultat.
+     */
+    <T> T execute(Timer timer, Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Hashing pool saturated ({} queued), rejecting request", executor.getQueue().size());
+            throw new HashingCapacityExceededException(retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
     }
 }
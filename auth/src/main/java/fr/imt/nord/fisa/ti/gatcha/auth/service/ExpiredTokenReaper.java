@@ -0,0 +1,104 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.service;
+
+import fr.imt.nord.fisa.ti.gatcha.auth.model.Token;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Suppression planifiée des tokens expirés, par lots bornés.
+ * <p>
+ * Complète l'index TTL (dont le moniteur MongoDB ne passe qu'une fois par minute et sans
+ * limite de débit) : chaque passe supprime au plus {@code max-batches} lots de
+ * {@code batch-size} tokens, pour ne pas charger la base d'un coup après une longue coupure.
+ * Désactivé par défaut.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auth.token.reaper.enabled", havingValue = "true")
+public class ExpiredTokenReaper {
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final Counter deleted;
+    private final Timer runTimer;
+
+    public ExpiredTokenReaper(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${auth.token.reaper.batch-size:500}") int batchSize,
+            @Value("${auth.token.reaper.max-batches:20}") int maxBatches) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+
+        this.deleted = Counter.builder("auth.token.reaper.deleted")
+                .description("Tokens expirés supprimés par le reaper")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("auth.token.reaper.run")
+                .description("Durée d'une passe du reaper")
+                .register(meterRegistry);
+
+        log.info("ExpiredTokenReaper initialized (batch size: {}, max batches: {})", batchSize, maxBatches);
+    }
+
+    /**
+     * Supprime les tokens expirés, lot par lot, jusqu'à épuisement ou {@code max-batches} lots.
+     */
+    @Scheduled(fixedDelayString = "${auth.token.reaper.interval-ms:300000}")
+    public void reap() {
+        Timer.Sample sample = Timer.start();
+        try {
+            long total = reapBatches();
+            if (total > 0) {
+                log.info("Reaped {} expired tokens", total);
+            }
+        } catch (RuntimeException e) {
+            log.error("Expired token reaping failed: {}", e.getMessage());
+        } finally {
+            sample.stop(runTimer);
+        }
+    }
+
+    private long reapBatches() {
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Query expired = Query.query(Criteria.where("expiryDate").lt(now)).limit(batchSize);
+            expired.fields().include("id");
+            List<UUID> ids = mongoTemplate.find(expired, Token.class).stream()
+                    .map(Token::getId)
+                    .toList();
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            // Le filtre sur l'expiration est répété : un token prolongé entre-temps est conservé
+            long removed = mongoTemplate.remove(
+                    Query.query(Criteria.where("id").in(ids).and("expiryDate").lt(now)),
+                    Token.class
+            ).getDeletedCount();
+            deleted.increment(removed);
+            total += removed;
+
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,282 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.service;
+
+import fr.imt.nord.fisa.ti.gatcha.auth.exception.LoginThrottledException;
+import fr.imt.nord.fisa.ti.gatcha.common.cache.ExpiringCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Limiteur des tentatives de connexion, par username et par adresse cliente.
+ * <p>
+ * Les échecs sont comptés sur une fenêtre glissante. Au-delà de la limite, la clé est
+ * verrouillée pour une durée qui double à chaque nouveau verrouillage (bornée par
+ * {@code lockout.max}). Une tentative verrouillée est refusée avant tout calcul BCrypt.
+ * Une connexion réussie remet à zéro le compteur du username.
+ * <p>
+ * {@link #checkAllowed} réserve la tentative : les tentatives en cours comptent comme des échecs
+ * potentiels, ce qui empêche une rafale parallèle de dépasser la limite avant que le premier
+ * échec soit enregistré. La réservation est convertie en échec par {@link #recordFailure},
+ * libérée par {@link #recordSuccess} ou {@link #release}.
+ * <p>
+ * Les clés (usernames et adresses, fournis par le client) sont gardées dans un cache borné à
+ * {@code max-tracked} entrées, évincées par ancienneté d'usage : une rafale de clés uniques ne
+ * fait pas croître la mémoire, et l'adresse qui l'émet, sollicitée à chaque tentative, reste suivie.
+ */
+@Slf4j
+@Service
+public class LoginThrottleService {
+
+    private static final String USERNAME = "username";
+    private static final String ADDRESS = "address";
+    private static final long IN_FLIGHT_RETRY_AFTER_SECONDS = 1;
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxFailuresPerUsername;
+    private final int maxFailuresPerAddress;
+    private final long lockoutBaseNanos;
+    private final long lockoutMaxNanos;
+    private final LongSupplier clock;
+
+    private final ExpiringCache<String, AttemptWindow> usernames;
+    private final ExpiringCache<String, AttemptWindow> addresses;
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public LoginThrottleService(
+            MeterRegistry meterRegistry,
+            @Value("${auth.login.throttle.enabled:true}") boolean enabled,
+            @Value("${auth.login.throttle.window:1m}") Duration window,
+            @Value("${auth.login.throttle.max-failures-per-username:5}") int maxFailuresPerUsername,
+            @Value("${auth.login.throttle.max-failures-per-address:20}") int maxFailuresPerAddress,
+            @Value("${auth.login.throttle.lockout.base:30s}") Duration lockoutBase,
+            @Value("${auth.login.throttle.lockout.max:15m}") Duration lockoutMax,
+            @Value("${auth.login.throttle.max-tracked:100000}") int maxTracked) {
+        this(meterRegistry, enabled, window, maxFailuresPerUsername, maxFailuresPerAddress,
+                lockoutBase, lockoutMax, maxTracked, System::nanoTime);
+    }
+
+    LoginThrottleService(MeterRegistry meterRegistry, boolean enabled, Duration window,
+                         int maxFailuresPerUsername, int maxFailuresPerAddress,
+                         Duration lockoutBase, Duration lockoutMax, int maxTracked, LongSupplier clock) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.maxFailuresPerAddress = maxFailuresPerAddress;
+        this.lockoutBaseNanos = lockoutBase.toNanos();
+        this.lockoutMaxNanos = lockoutMax.toNanos();
+        this.clock = clock;
+
+        // Une clé est oubliée (y compris son nombre de verrouillages) après une période sans
+        // tentative couvrant le verrouillage maximal puis une fenêtre complète
+        Duration idle = lockoutMax.plus(window);
+        this.usernames = new ExpiringCache<>(maxTracked, idle, clock);
+        this.addresses = new ExpiringCache<>(maxTracked, idle, clock);
+
+        registerMeters(usernames, USERNAME, "Usernames suivis par le limiteur de connexion");
+        registerMeters(addresses, ADDRESS, "Adresses suivies par le limiteur de connexion");
+
+        log.info("LoginThrottleService initialized (enabled: {}, window: {}, max failures: {}/username, {}/address, max tracked: {})",
+                enabled, window, maxFailuresPerUsername, maxFailuresPerAddress, maxTracked);
+    }
+
+    /**
+     * Réserve une tentative, ou la refuse si le username ou l'adresse est verrouillé, ou si les
+     * échecs récents et les tentatives en cours atteignent déjà la limite.
+     * La réservation doit être soldée par {@link #recordFailure}, {@link #recordSuccess} ou {@link #release}.
+     *
+     * @throws LoginThrottledException avec le délai avant la prochaine tentative possible
+     */
+    public void checkAllowed(String username, String clientAddress) throws LoginThrottledException {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long usernameRefusal = reserve(usernames, username, maxFailuresPerUsername, now);
+        long addressRefusal = usernameRefusal > 0 ? 0 : reserve(addresses, clientAddress, maxFailuresPerAddress, now);
+        if (addressRefusal > 0) {
+            release(usernames, username);
+        }
+        long remaining = Math.max(usernameRefusal, addressRefusal);
+        if (remaining > 0) {
+            String key = usernameRefusal > 0 ? USERNAME : ADDRESS;
+            counter("auth.login.throttle.rejected", key).increment();
+            log.warn("Login throttled for user: {} from {} ({})", username, clientAddress, key);
+            throw new LoginThrottledException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining)));
+        }
+    }
+
+    /**
+     * Convertit la réservation de la tentative en échec.
+     */
+    public void recordFailure(String username, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        recordFailure(usernames, username, maxFailuresPerUsername, USERNAME, now);
+        recordFailure(addresses, clientAddress, maxFailuresPerAddress, ADDRESS, now);
+    }
+
+    /**
+     * Libère la réservation de la tentative et remet à zéro le compteur du username.
+     */
+    public void recordSuccess(String username, String clientAddress) {
+        release(addresses, clientAddress);
+        if (username != null) {
+            usernames.invalidate(username);
+        }
+    }
+
+    /**
+     * Libère la réservation d'une tentative qui n'a abouti ni à un succès ni à un échec
+     * d'authentification (erreur technique, service saturé).
+     */
+    public void release(String username, String clientAddress) {
+        release(usernames, username);
+        release(addresses, clientAddress);
+    }
+
+    /**
+     * Oublie les clés sans tentative récente.
+     */
+    @Scheduled(fixedDelayString = "${auth.login.throttle.purge-interval-ms:60000}")
+    public void purgeIdle() {
+        usernames.purgeExpired();
+        addresses.purgeExpired();
+    }
+
+    /**
+     * @return 0 si la tentative est réservée, sinon le délai avant la prochaine tentative possible (ns)
+     */
+    private long reserve(ExpiringCache<String, AttemptWindow> windows, String key, int limit, long now) {
+        if (key == null) {
+            return 0;
+        }
+        return windows.getOrCreate(key, k -> new AttemptWindow()).reserve(now, limit);
+    }
+
+    private void release(ExpiringCache<String, AttemptWindow> windows, String key) {
+        if (key == null) {
+            return;
+        }
+        AttemptWindow attempts = windows.get(key);
+        if (attempts != null) {
+            attempts.release();
+        }
+    }
+
+    private void recordFailure(ExpiringCache<String, AttemptWindow> windows, String key, int limit, String keyType, long now) {
+        if (key == null) {
+            return;
+        }
+        AttemptWindow attempts = windows.getOrCreate(key, k -> new AttemptWindow());
+        if (attempts.recordFailure(now, limit)) {
+            counter("auth.login.throttle.lockouts", keyType).increment();
+            log.warn("Login locked out for {} {} ({} lockouts)", keyType, key, attempts.lockouts);
+        }
+    }
+
+    private void registerMeters(ExpiringCache<String, AttemptWindow> windows, String keyType, String description) {
+        Gauge.builder("auth.login.throttle.tracked", windows, ExpiringCache::size)
+                .tag("key", keyType)
+                .description(description)
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.login.throttle.evictions", windows, ExpiringCache::evictionCount)
+                .tag("key", keyType)
+                .description("Clés oubliées par le limiteur (taille maximale atteinte ou inactivité)")
+                .register(meterRegistry);
+    }
+
+    private Counter counter(String name, String keyType) {
+        return Counter.builder(name).tag("key", keyType).register(meterRegistry);
+    }
+
+    /**
+     * Échecs récents, tentatives en cours et verrouillage d'une clé.
+     */
+    private final class AttemptWindow {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<Long> failures = new ArrayDeque<>();
+        private int inFlight;
+        private int lockouts;
+        private long lockedUntil;
+
+        /**
+         * @return 0 si la tentative est réservée, sinon le délai avant la prochaine tentative possible (ns)
+         */
+        long reserve(long now, int limit) {
+            lock.lock();
+            try {
+                long remainingLockout = lockedUntil - now;
+                if (remainingLockout > 0) {
+                    return remainingLockout;
+                }
+                evictOld(now);
+                if (failures.size() + inFlight >= limit) {
+                    // Les tentatives en cours se terminent en un calcul BCrypt
+                    return TimeUnit.SECONDS.toNanos(IN_FLIGHT_RETRY_AFTER_SECONDS);
+                }
+                inFlight++;
+                return 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release() {
+            lock.lock();
+            try {
+                inFlight = Math.max(0, inFlight - 1);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return true si cet échec déclenche un verrouillage
+         */
+        boolean recordFailure(long now, int limit) {
+            lock.lock();
+            try {
+                inFlight = Math.max(0, inFlight - 1);
+                evictOld(now);
+                failures.addLast(now);
+                if (failures.size() < limit) {
+                    return false;
+                }
+                long duration = lockoutBaseNanos;
+                for (int i = 0; i < lockouts && duration < lockoutMaxNanos; i++) {
+                    duration *= 2;
+                }
+                lockedUntil = now + Math.min(duration, lockoutMaxNanos);
+                lockouts++;
+                failures.clear();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void evictOld(long now) {
+            while (!failures.isEmpty() && now - failures.peekFirst() > windowNanos) {
+                failures.pollFirst();
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.service;
+
+import fr.imt.nord.fisa.ti.gatcha.auth.dto.token.TokenVerdictDTO;
+import fr.imt.nord.fisa.ti.gatcha.auth.exception.TokenExpiredException;
+import fr.imt.nord.fisa.ti.gatcha.auth.model.RevokedToken;
+import fr.imt.nord.fisa.ti.gatcha.auth.model.User;
+import fr.imt.nord.fisa.ti.gatcha.auth.repository.RevokedTokenRepository;
+import fr.imt.nord.fisa.ti.gatcha.common.dto.TokenRevocation;
+import fr.imt.nord.fisa.ti.gatcha.common.dto.TokenVerifyResponse;
+import fr.imt.nord.fisa.ti.gatcha.common.security.SignedTokenClaims;
+import fr.imt.nord.fisa.ti.gatcha.common.security.SignedTokenCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Émission et vérification des tokens signés ({@code auth.token.mode=signed}).
+ * <p>
+ * Un token signé porte le username et son expiration : les services le vérifient localement
+ * avec la clé partagée (HMAC) ou la clé publique (Ed25519), sans appeler auth. Son expiration
+ * est fixe ({@code auth.token.signed.ttl}), elle n'est pas prolongée à chaque vérification.
+ * La révocation avant expiration passe par la collection {@code revoked_tokens}, que les
+ * services récupèrent périodiquement via {@code GET /tokens/revocations}.
+ */
+@Slf4j
+@Service
+public class SignedTokenService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final SignedTokenCodec codec;
+
+    public SignedTokenService(
+            RevokedTokenRepository revokedTokenRepository,
+            @Value("${auth.token.mode:opaque}") String mode,
+            @Value("${auth.token.signed.ttl:1h}") Duration ttl,
+            @Value("${auth.token.signing.algorithm:HMAC}") String algorithm,
+            @Value("${auth.token.signing.secret:}") String secret,
+            @Value("${auth.token.signing.private-key:}") String privateKey,
+            @Value("${auth.token.signing.public-key:}") String publicKey) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.enabled = "signed".equalsIgnoreCase(mode);
+        this.ttl = ttl;
+        this.codec = enabled ? SignedTokenCodec.fromConfig(algorithm, secret, privateKey, publicKey) : null;
+        if (codec != null && !codec.canSign()) {
+            throw new IllegalStateException("Signed token mode requires a signing key");
+        }
+        log.info("SignedTokenService initialized (enabled: {}, codec: {}, ttl: {})", enabled, codec, ttl);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Émet un token signé pour l'utilisateur.
+     */
+    public String issue(User user) {
+        Instant expiresAt = Instant.now().plus(ttl).truncatedTo(ChronoUnit.SECONDS);
+        String token = codec.sign(new SignedTokenClaims(UUID.randomUUID().toString(), user.getUsername(), expiresAt));
+        log.info("Signed token issued for user: {}, expires at: {}", user.getUsername(), expiresAt);
+        return token;
+    }
+
+    /**
+     * Vérifie un token signé : signature, expiration et liste de révocation.
+     *
+     * @throws TokenExpiredException si le token est invalide, expiré ou révoqué
+     */
+    public TokenVerifyResponse verify(String tokenStr) throws TokenExpiredException {
+        SignedTokenClaims claims = decode(tokenStr);
+        if (revokedTokenRepository.existsById(claims.tokenId())) {
+            log.warn("Revoked signed token presented for user: {}", claims.username());
+            throw new TokenExpiredException();
+        }
+
+        TokenVerifyResponse response = new TokenVerifyResponse();
+        response.setStatus(true);
+        response.setUsername(claims.username());
+        response.setMessage("Token valid");
+        return response;
+    }
+
+    /**
+     * Vérifie un lot de tokens signés : les signatures et expirations sont contrôlées localement,
+     * puis la révocation des tokens valides est vérifiée en une seule requête.
+     *
+     * @param tokenStrs les tokens signés à vérifier
+     * @return un verdict par token distinct, indexé par token
+     */
+    public Map<String, TokenVerdictDTO> verifyAll(Collection<String> tokenStrs) {
+        Map<String, TokenVerdictDTO> verdicts = new HashMap<>();
+        Map<String, SignedTokenClaims> decoded = new HashMap<>();
+        for (String tokenStr : tokenStrs) {
+            if (verdicts.containsKey(tokenStr) || decoded.containsKey(tokenStr)) {
+                continue;
+            }
+            try {
+                decoded.put(tokenStr, decode(tokenStr));
+            } catch (TokenExpiredException e) {
+                verdicts.put(tokenStr, new TokenVerdictDTO(tokenStr, false, null, e.getMessage()));
+            }
+        }
+
+        Set<String> revokedIds = new HashSet<>();
+        if (!decoded.isEmpty()) {
+            Set<String> tokenIds = new HashSet<>();
+            decoded.values().forEach(claims -> tokenIds.add(claims.tokenId()));
+            revokedTokenRepository.findAllById(tokenIds).forEach(revoked -> revokedIds.add(revoked.getTokenId()));
+        }
+
+        decoded.forEach((tokenStr, claims) -> {
+            if (revokedIds.contains(claims.tokenId())) {
+                log.warn("Revoked signed token presented for user: {}", claims.username());
+                verdicts.put(tokenStr, new TokenVerdictDTO(tokenStr, false, null, new TokenExpiredException().getMessage()));
+            } else {
+                verdicts.put(tokenStr, new TokenVerdictDTO(tokenStr, true, claims.username(), "Token valid"));
+            }
+        });
+        return verdicts;
+    }
+
+    /**
+     * Révoque un token signé jusqu'à son expiration.
+     *
+     * @throws TokenExpiredException si le token est invalide ou déjà expiré
+     */
+    public void revoke(String tokenStr) throws TokenExpiredException {
+        SignedTokenClaims claims = decode(tokenStr);
+        revokedTokenRepository.save(new RevokedToken(claims.tokenId(), claims.expiresAt()));
+        log.info("Signed token revoked for user: {}", claims.username());
+    }
+
+    /**
+     * Retourne les révocations encore utiles (tokens pas encore expirés).
+     */
+    public List<TokenRevocation> activeRevocations() {
+        return revokedTokenRepository.findByExpiresAtAfter(Instant.now()).stream()
+                .map(revoked -> new TokenRevocation(revoked.getTokenId(), revoked.getExpiresAt()))
+                .toList();
+    }
+
+    private SignedTokenClaims decode(String tokenStr) throws TokenExpiredException {
+        if (codec == null) {
+            throw new TokenExpiredException("Signed tokens are not enabled");
+        }
+        Optional<SignedTokenClaims> claims = codec.verify(tokenStr, Instant.now());
+        if (claims.isEmpty()) {
+            log.warn("Invalid or expired signed token");
+            throw new TokenExpiredException();
+        }
+        return claims.get();
+    }
+}
@@ -0,0 +1,219 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.service;
+
+import fr.imt.nord.fisa.ti.gatcha.auth.model.Token;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Écriture des prolongations d'expiration des tokens.
+ * <p>
+ * En mode write-behind, les prolongations sont gardées en mémoire puis envoyées à MongoDB
+ * en un seul bulk update ({@code $max}) à intervalle régulier, au lieu d'un {@code save}
+ * complet du document à chaque vérification.
+ * <p>
+ * Si l'expiration stockée en base a plus de {@code max-lag} de retard sur la nouvelle
+ * expiration, la prolongation est écrite immédiatement.
+ */
+@Slf4j
+@Service
+public class TokenExpiryWriter {
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean writeBehind;
+    private final Duration maxLag;
+    private final Map<UUID, PendingExtension> pending = new ConcurrentHashMap<>();
+
+    private final DistributionSummary flushSize;
+    private final Timer flushLag;
+    private final Counter directWrites;
+    private final Counter flushFailures;
+
+    public TokenExpiryWriter(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${auth.token.expiry.write-behind.enabled:true}") boolean writeBehind,
+            @Value("${auth.token.expiry.write-behind.max-lag:5m}") Duration maxLag) {
+        this.mongoTemplate = mongoTemplate;
+        this.writeBehind = writeBehind;
+        this.maxLag = maxLag;
+
+        this.flushSize = DistributionSummary.builder("auth.token.expiry.flush.size")
+                .description("Nombre de prolongations envoyées par flush")
+                .register(meterRegistry);
+        this.flushLag = Timer.builder("auth.token.expiry.flush.lag")
+                .description("Délai entre la plus ancienne prolongation en attente et son écriture")
+                .register(meterRegistry);
+        this.directWrites = Counter.builder("auth.token.expiry.direct.writes")
+                .description("Prolongations écrites immédiatement (write-through ou max-lag dépassé)")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("auth.token.expiry.flush.failures")
+                .description("Flushs en échec (les prolongations sont conservées pour le prochain flush)")
+                .register(meterRegistry);
+        meterRegistry.gauge("auth.token.expiry.pending", pending, Map::size);
+
+        log.info("TokenExpiryWriter initialized (write-behind: {}, max lag: {})", writeBehind, maxLag);
+    }
+
+    /**
+     * Enregistre la prolongation d'un token.
+     *
+     * @param token     le token tel que connu en base (son expiration est celle actuellement stockée,
+     *                  elle est mise à jour si la prolongation est écrite immédiatement)
+     * @param newExpiry la nouvelle date d'expiration
+     */
+    public void extend(Token token, LocalDateTime newExpiry) {
+        if (mustWriteNow(token, newExpiry)) {
+            writeNow(token.getId(), newExpiry);
+            token.setExpiryDate(newExpiry);
+            return;
+        }
+        pending.merge(token.getId(), new PendingExtension(newExpiry, System.nanoTime()), PendingExtension::merge);
+    }
+
+    /**
+     * Enregistre la même prolongation pour plusieurs tokens. Les prolongations qui ne peuvent
+     * pas être différées sont écrites ensemble, en un seul bulk update.
+     *
+     * @param tokens    les tokens tels que connus en base
+     * @param newExpiry la nouvelle date d'expiration
+     */
+    public void extendAll(Collection<Token> tokens, LocalDateTime newExpiry) {
+        List<Token> immediate = new ArrayList<>();
+        for (Token token : tokens) {
+            if (mustWriteNow(token, newExpiry)) {
+                immediate.add(token);
+            } else {
+                pending.merge(token.getId(), new PendingExtension(newExpiry, System.nanoTime()), PendingExtension::merge);
+            }
+        }
+        if (immediate.isEmpty()) {
+            return;
+        }
+
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Token.class);
+        for (Token token : immediate) {
+            operations.updateOne(byId(token.getId()), maxExpiry(newExpiry));
+        }
+        operations.execute();
+        for (Token token : immediate) {
+            pending.remove(token.getId());
+            token.setExpiryDate(newExpiry);
+        }
+        directWrites.increment(immediate.size());
+    }
+
+    /**
+     * Retourne la prolongation en attente d'écriture pour un token, s'il y en a une.
+     */
+    public Optional<LocalDateTime> pendingExpiry(UUID tokenId) {
+        PendingExtension extension = pending.get(tokenId);
+        return extension != null ? Optional.of(extension.expiry()) : Optional.empty();
+    }
+
+    /**
+     * Oublie la prolongation en attente d'un token (token supprimé).
+     */
+    public void discard(UUID tokenId) {
+        pending.remove(tokenId);
+    }
+
+    /**
+     * Envoie toutes les prolongations en attente en un seul bulk update.
+     */
+    @Scheduled(fixedDelayString = "${auth.token.expiry.write-behind.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, PendingExtension> batch = new HashMap<>();
+        for (UUID tokenId : pending.keySet()) {
+            PendingExtension extension = pending.remove(tokenId);
+            if (extension != null) {
+                batch.put(tokenId, extension);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Token.class);
+        long oldest = Long.MAX_VALUE;
+        for (Map.Entry<UUID, PendingExtension> entry : batch.entrySet()) {
+            operations.updateOne(byId(entry.getKey()), maxExpiry(entry.getValue().expiry()));
+            oldest = Math.min(oldest, entry.getValue().recordedAt());
+        }
+
+        try {
+            operations.execute();
+            flushSize.record(batch.size());
+            flushLag.record(System.nanoTime() - oldest, TimeUnit.NANOSECONDS);
+            log.debug("Flushed {} token expiry extensions", batch.size());
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            log.error("Failed to flush {} token expiry extensions: {}", batch.size(), e.getMessage());
+            batch.forEach((tokenId, extension) -> pending.merge(tokenId, extension, PendingExtension::merge));
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private boolean mustWriteNow(Token token, LocalDateTime newExpiry) {
+        LocalDateTime stored = token.getExpiryDate();
+        return !writeBehind || stored == null || Duration.between(stored, newExpiry).compareTo(maxLag) > 0;
+    }
+
+    private void writeNow(UUID tokenId, LocalDateTime newExpiry) {
+        mongoTemplate.updateFirst(byId(tokenId), maxExpiry(newExpiry), Token.class);
+        pending.remove(tokenId);
+        directWrites.increment();
+    }
+
+    private static Query byId(UUID tokenId) {
+        return Query.query(Criteria.where("id").is(tokenId));
+    }
+
+    private static Update maxExpiry(LocalDateTime expiry) {
+        return new Update().max("expiryDate", expiry);
+    }
+
+    /**
+     * Prolongation en attente : la date la plus lointaine gagne, l'horodatage le plus ancien
+     * est conservé pour mesurer le retard d'écriture.
+     */
+    private record PendingExtension(LocalDateTime expiry, long recordedAt) {
+        PendingExtension merge(PendingExtension other) {
+            return new PendingExtension(
+                    expiry.isAfter(other.expiry) ? expiry : other.expiry,
+                    Math.min(recordedAt, other.recordedAt)
+            );
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.service;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Génération des tokens opaques et calcul de leur empreinte de recherche.
+ * <p>
+ * Un token est une suite de {@value #TOKEN_BYTES} octets aléatoires ({@link SecureRandom})
+ * encodée en base64url sans padding (43 caractères). Seule son empreinte SHA-256 est stockée
+ * en base : un token aléatoire de 256 bits n'a pas besoin d'un hachage lent comme BCrypt.
+ * <p>
+ * Les tokens de l'ancien format (hash BCrypt renvoyé tel quel au client) sont stockés en clair
+ * et reconnus à leur préfixe {@code $2}, absent de l'alphabet base64url.
+ */
+@Component
+public class TokenGenerator {
+
+    static final int TOKEN_BYTES = 32;
+    private static final String LEGACY_PREFIX = "$2";
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+    /**
+     * Génère un nouveau token opaque, à remettre au client.
+     */
+    public String generate() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        return encoder.encodeToString(bytes);
+    }
+
+    /**
+     * Retourne la valeur sous laquelle le token est stocké en base : l'empreinte SHA-256 (hex)
+     * pour un token opaque, le token lui-même pour un token de l'ancien format.
+     *
+     * @param token le token présenté par le client
+     * @return la clé de recherche en base
+     */
+    public String lookupKey(String token) {
+        if (token.startsWith(LEGACY_PREFIX)) {
+            return token;
+        }
+        return digest(token);
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,18 +1,27 @@
 package fr.imt.nord.fisa.ti.gatcha.auth.service;
 
+import fr.imt.nord.fisa.ti.gatcha.auth.dto.token.TokenVerdictDTO;
 import fr.imt.nord.fisa.ti.gatcha.auth.exception.TokenExpiredException;
 import fr.imt.nord.fisa.ti.gatcha.auth.exception.TokenNotFoundException;
 import fr.imt.nord.fisa.ti.gatcha.auth.model.Token;
 import fr.imt.nord.fisa.ti.gatcha.auth.model.User;
 import fr.imt.nord.fisa.ti.gatcha.auth.repository.TokenRepository;
 import fr.imt.nord.fisa.ti.gatcha.common.dto.TokenVerifyResponse;
+import fr.imt.nord.fisa.ti.gatcha.common.security.SignedTokenCodec;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -20,44 +29,46 @@ import java.util.UUID;
 @Service
 public class TokenService {
     private final TokenRepository tokenRepository;
-    private final EncryptService encryptService;
+    private final TokenGenerator tokenGenerator;
+    private final TokenExpiryWriter tokenExpiryWriter;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final SignedTokenService signedTokenService;
 
     /**
-     * Génère un token au format : username-date(YYYY/MM/DD)-heure(HH:mm:ss)
-     * puis l'encrypte et le sauvegarde en base avec une expiration d'1 heure.
+     * Génère un token opaque aléatoire et sauvegarde son empreinte en base
+     * avec une expiration d'1 heure.
+     * En mode signé, émet un token signé (rien n'est stocké en base).
      *
      * @param user L'utilisateur pour lequel générer le token
-     * @return Le token encrypté
+     * @return Le token à remettre au client
      */
     public String generateToken(User user) {
         log.info("Generating token for user: {}", user.getUsername());
 
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime expiryDate = now.plusHours(1);
-
-        String dateStr = now.format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
-        String timeStr = now.format(DateTimeFormatter.ofPattern("HH:mm:ss"));
-        String rawToken = user.getUsername() + "-" + dateStr + "-" + timeStr;
-
-        log.debug("Raw token format: {}", rawToken);
+        if (signedTokenService.isEnabled()) {
+            return signedTokenService.issue(user);
+        }
 
-        String encryptedToken = encryptService.encrypt(rawToken);
+        LocalDateTime expiryDate = LocalDateTime.now().plusHours(1);
+        String tokenStr = tokenGenerator.generate();
 
         Token token = new Token();
         token.setId(UUID.randomUUID());
-        token.setToken(encryptedToken);
+        token.setToken(tokenGenerator.lookupKey(tokenStr));
         token.setUser(user);
+        token.setUserId(user.getId());
+        token.setUsername(user.getUsername());
         token.setExpiryDate(expiryDate);
         tokenRepository.save(token);
 
         log.info("Token generated successfully for user: {}, expires at: {}", user.getUsername(), expiryDate);
 
-        return encryptedToken;
+        return tokenStr;
     }
 
     /**
      * Vérifie si un token est valide et non expiré.
-     * Si valide, met à jour la date d'expiration à maintenant + 1 heure.
+     * Si valide, prolonge la date d'expiration à maintenant + 1 heure via {@link TokenExpiryWriter}.
      *
      * @param tokenStr Le token à vérifier
      * @return TokenVerifyResponse contenant le statut, le username et un message
@@ -67,7 +78,13 @@ public class TokenService {
     public TokenVerifyResponse verifyToken(String tokenStr) throws TokenNotFoundException, TokenExpiredException {
         log.debug("Verifying token");
 
-        Optional<Token> tokenOptional = tokenRepository.findByToken(tokenStr);
+        if (SignedTokenCodec.isSignedToken(tokenStr)) {
+            return signedTokenService.verify(tokenStr);
+        }
+
+        String lookupKey = tokenGenerator.lookupKey(tokenStr);
+        Optional<Token> cached = verifiedTokenCache.get(lookupKey);
+        Optional<Token> tokenOptional = cached.isPresent() ? cached : tokenRepository.findByToken(lookupKey);
 
         if (tokenOptional.isEmpty()) {
             log.warn("Token not found in database");
@@ -75,29 +92,209 @@ public class TokenService {
         }
 
         Token token = tokenOptional.get();
+        if (!denormalizeOwner(token)) {
+            // Propriétaire supprimé ou introuvable : le token ne peut plus être attribué à personne
+            verifiedTokenCache.invalidate(lookupKey);
+            tokenExpiryWriter.discard(token.getId());
+            tokenRepository.delete(token);
+            throw new TokenNotFoundException();
+        }
         LocalDateTime now = LocalDateTime.now();
 
+        LocalDateTime expiryDate = effectiveExpiry(token);
+
         // Vérifier si le token est expiré
-        if (token.getExpiryDate().isBefore(now)) {
-            log.warn("Token expired for user: {}, expired at: {}", token.getUser().getUsername(), token.getExpiryDate());
+        if (expiryDate.isBefore(now)) {
+            log.warn("Token expired for user: {}, expired at: {}", token.getUsername(), expiryDate);
             // Token expiré, le supprimer de la base
+            verifiedTokenCache.invalidate(lookupKey);
+            tokenExpiryWriter.discard(token.getId());
             tokenRepository.delete(token);
             throw new TokenExpiredException();
         }
 
-        // Token valide, mettre à jour l'expiration
+        // Token valide, prolonger l'expiration
         LocalDateTime newExpiryDate = now.plusHours(1);
-        token.setExpiryDate(newExpiryDate);
-        tokenRepository.save(token);
+        tokenExpiryWriter.extend(token, newExpiryDate);
+        // Le cache garde l'expiration connue en base : il est rafraîchi si la prolongation vient d'y être écrite
+        if (cached.isEmpty() || newExpiryDate.equals(token.getExpiryDate())) {
+            verifiedTokenCache.put(lookupKey, token, newExpiryDate);
+        }
 
-        log.info("Token verified successfully for user: {}, new expiry: {}", token.getUser().getUsername(), newExpiryDate);
+        log.info("Token verified successfully for user: {}, new expiry: {}", token.getUsername(), newExpiryDate);
 
         // Construire et retourner le DTO
         TokenVerifyResponse outputVerifyDTO = new TokenVerifyResponse();
         outputVerifyDTO.setStatus(true);
-        outputVerifyDTO.setUsername(token.getUser().getUsername());
+        outputVerifyDTO.setUsername(token.getUsername());
         outputVerifyDTO.setMessage("Token valid");
 
         return outputVerifyDTO;
     }
+
+    /**
+     * Vérifie un lot de tokens : une seule requête {@code $in} pour les tokens absents du cache,
+     * une seule suppression pour les tokens expirés et un seul bulk update pour les prolongations
+     * qui ne peuvent pas être différées. Les tokens signés sont vérifiés localement, avec une seule
+     * requête sur la liste de révocation.
+     *
+     * @param tokenStrs Les tokens à vérifier
+     * @return Un verdict par token, dans l'ordre de la requête
+     */
+    public List<TokenVerdictDTO> verifyTokens(List<String> tokenStrs) {
+        log.debug("Verifying batch of {} tokens", tokenStrs.size());
+
+        Map<String, String> lookupKeys = new HashMap<>();
+        Map<String, Token> found = new HashMap<>();
+        Set<String> cachedKeys = new HashSet<>();
+        List<String> signedTokens = new ArrayList<>();
+        for (String tokenStr : tokenStrs) {
+            if (SignedTokenCodec.isSignedToken(tokenStr)) {
+                signedTokens.add(tokenStr);
+                continue;
+            }
+            String lookupKey = tokenGenerator.lookupKey(tokenStr);
+            lookupKeys.put(tokenStr, lookupKey);
+            verifiedTokenCache.get(lookupKey).ifPresent(token -> {
+                found.put(lookupKey, token);
+                cachedKeys.add(lookupKey);
+            });
+        }
+
+        Set<String> missing = new HashSet<>(lookupKeys.values());
+        missing.removeAll(found.keySet());
+        if (!missing.isEmpty()) {
+            tokenRepository.findByTokenIn(missing).forEach(token -> found.put(token.getToken(), token));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime newExpiryDate = now.plusHours(1);
+        Map<UUID, Token> valid = new HashMap<>();
+        Map<UUID, Token> expired = new HashMap<>();
+        Set<UUID> orphaned = new HashSet<>();
+        for (Iterator<Map.Entry<String, Token>> it = found.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Token> entry = it.next();
+            Token token = entry.getValue();
+            if (!denormalizeOwner(token)) {
+                // Répondu comme un token inconnu, puis supprimé avec les tokens expirés
+                it.remove();
+                verifiedTokenCache.invalidate(entry.getKey());
+                tokenExpiryWriter.discard(token.getId());
+                orphaned.add(token.getId());
+            } else if (effectiveExpiry(token).isBefore(now)) {
+                verifiedTokenCache.invalidate(entry.getKey());
+                tokenExpiryWriter.discard(token.getId());
+                expired.put(token.getId(), token);
+            } else {
+                valid.put(token.getId(), token);
+            }
+        }
+
+        if (!expired.isEmpty() || !orphaned.isEmpty()) {
+            Set<UUID> toDelete = new HashSet<>(expired.keySet());
+            toDelete.addAll(orphaned);
+            tokenRepository.deleteAllById(toDelete);
+        }
+        if (!valid.isEmpty()) {
+            tokenExpiryWriter.extendAll(valid.values(), newExpiryDate);
+            found.forEach((lookupKey, token) -> {
+                if (valid.containsKey(token.getId())
+                        && (!cachedKeys.contains(lookupKey) || newExpiryDate.equals(token.getExpiryDate()))) {
+                    verifiedTokenCache.put(lookupKey, token, newExpiryDate);
+                }
+            });
+        }
+
+        Map<String, TokenVerdictDTO> signedVerdicts = signedTokens.isEmpty()
+                ? Map.of()
+                : signedTokenService.verifyAll(signedTokens);
+
+        log.info("Batch verification: {} tokens, {} valid, {} expired", tokenStrs.size(), valid.size(), expired.size());
+
+        List<TokenVerdictDTO> verdicts = new ArrayList<>(tokenStrs.size());
+        for (String tokenStr : tokenStrs) {
+            if (SignedTokenCodec.isSignedToken(tokenStr)) {
+                verdicts.add(signedVerdicts.get(tokenStr));
+                continue;
+            }
+            Token token = found.get(lookupKeys.get(tokenStr));
+            if (token == null) {
+                verdicts.add(new TokenVerdictDTO(tokenStr, false, null, new TokenNotFoundException().getMessage()));
+            } else if (expired.containsKey(token.getId())) {
+                verdicts.add(new TokenVerdictDTO(tokenStr, false, null, new TokenExpiredException().getMessage()));
+            } else {
+                verdicts.add(new TokenVerdictDTO(tokenStr, true, token.getUsername(), "Token valid"));
+            }
+        }
+        return verdicts;
+    }
+
+    /**
+     * Révoque un token : un token opaque est supprimé de la base, un token signé est ajouté
+     * à la liste de révocation jusqu'à son expiration.
+     *
+     * @param tokenStr Le token à révoquer
+     * @throws TokenNotFoundException si le token opaque n'existe pas en base
+     * @throws TokenExpiredException  si le token signé est invalide ou déjà expiré
+     */
+    public void revokeToken(String tokenStr) throws TokenNotFoundException, TokenExpiredException {
+        if (SignedTokenCodec.isSignedToken(tokenStr)) {
+            signedTokenService.revoke(tokenStr);
+            return;
+        }
+
+        String lookupKey = tokenGenerator.lookupKey(tokenStr);
+        Token token = tokenRepository.findByToken(lookupKey).orElseThrow(TokenNotFoundException::new);
+        verifiedTokenCache.invalidate(lookupKey);
+        tokenExpiryWriter.discard(token.getId());
+        tokenRepository.delete(token);
+        log.info("Token revoked for user: {}", token.getUsername());
+    }
+
+    /**
+     * L'expiration en base peut être en retard sur une prolongation pas encore écrite.
+     */
+    private LocalDateTime effectiveExpiry(Token token) {
+        return tokenExpiryWriter.pendingExpiry(token.getId())
+                .filter(pending -> pending.isAfter(token.getExpiryDate()))
+                .orElse(token.getExpiryDate());
+    }
+
+    /**
+     * Migre un token créé avant la dénormalisation du propriétaire : le username et l'id de
+     * l'utilisateur sont lus une dernière fois via la référence puis recopiés dans le document.
+     *
+     * @return {@code false} si le propriétaire n'existe plus ou si sa référence ne peut pas être résolue
+     */
+    private boolean denormalizeOwner(Token token) {
+        if (token.getUsername() != null) {
+            return true;
+        }
+        User user = resolveOwner(token);
+        if (user == null) {
+            log.warn("Token {} has no resolvable owner, treating it as invalid", token.getId());
+            return false;
+        }
+        token.setUserId(user.getId());
+        token.setUsername(user.getUsername());
+        tokenRepository.updateOwnerById(token.getId(), user.getId(), user.getUsername());
+        log.debug("Token {} migrated with denormalized owner {}", token.getId(), user.getUsername());
+        return true;
+    }
+
+    /**
+     * La référence est paresseuse : un utilisateur supprimé donne un proxy dont les accesseurs
+     * retournent {@code null}, une référence illisible lève une exception à la résolution.
+     */
+    private static User resolveOwner(Token token) {
+        try {
+            User user = token.getUser();
+            if (user == null || user.getId() == null || user.getUsername() == null) {
+                return null;
+            }
+            return user;
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
 }
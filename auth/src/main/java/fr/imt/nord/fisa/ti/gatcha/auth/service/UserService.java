@@ -3,7 +3,9 @@ package fr.imt.nord.fisa.ti.gatcha.auth.service;
 import fr.imt.nord.fisa.ti.gatcha.auth.dto.user.InputLoginDTO;
 import fr.imt.nord.fisa.ti.gatcha.auth.dto.user.InputRegisterDTO;
 import fr.imt.nord.fisa.ti.gatcha.auth.dto.user.OutputLoginDTO;
+import fr.imt.nord.fisa.ti.gatcha.auth.exception.HashingCapacityExceededException;
 import fr.imt.nord.fisa.ti.gatcha.auth.exception.InvalidCredentialsException;
+import fr.imt.nord.fisa.ti.gatcha.auth.exception.LoginThrottledException;
 import fr.imt.nord.fisa.ti.gatcha.auth.exception.UserAlreadyExistsException;
 import fr.imt.nord.fisa.ti.gatcha.auth.model.User;
 import fr.imt.nord.fisa.ti.gatcha.auth.repository.UserRepository;
@@ -21,21 +23,54 @@ public class UserService {
     private final UserRepository userRepository;
     private final TokenService tokenService;
     private final EncryptService encryptService;
+    private final LoginThrottleService loginThrottleService;
 
     /**
      * Authentifie un utilisateur et génère un token.
      *
      * @param inputLoginDTO DTO contenant username et password
+     * @param clientAddress adresse du client, pour la limitation des tentatives
      * @return OutputLoginDTO contenant le token généré
      * @throws InvalidCredentialsException si les identifiants sont invalides
+     * @throws LoginThrottledException     si trop de tentatives ont échoué récemment
      */
-    public OutputLoginDTO login(InputLoginDTO inputLoginDTO) throws InvalidCredentialsException {
+    public OutputLoginDTO login(InputLoginDTO inputLoginDTO, String clientAddress)
+            throws InvalidCredentialsException, LoginThrottledException {
         log.info("Login attempt for user: {}", inputLoginDTO.getUsername());
 
+        // Réservation de la tentative avant toute lecture en base et tout calcul BCrypt
+        loginThrottleService.checkAllowed(inputLoginDTO.getUsername(), clientAddress);
+
+        User user;
+        try {
+            user = authenticate(inputLoginDTO, clientAddress);
+        } catch (RuntimeException e) {
+            // Ni succès ni échec d'authentification (base indisponible, pool de hachage saturé)
+            loginThrottleService.release(inputLoginDTO.getUsername(), clientAddress);
+            throw e;
+        }
+
+        log.info("User authenticated successfully: {}", user.getUsername());
+        loginThrottleService.recordSuccess(inputLoginDTO.getUsername(), clientAddress);
+
+        rehashIfNeeded(user, inputLoginDTO.getPassword());
+
+        String token = tokenService.generateToken(user);
+        OutputLoginDTO outputLoginDTO = new OutputLoginDTO();
+        outputLoginDTO.setToken(token);
+        outputLoginDTO.setMessage("Login successful");
+        return outputLoginDTO;
+    }
+
+    /**
+     * Vérifie le username et le mot de passe ; un échec est enregistré auprès du limiteur.
+     */
+    private User authenticate(InputLoginDTO inputLoginDTO, String clientAddress) throws InvalidCredentialsException {
         Optional<User> userOptional = userRepository.findByUsername(inputLoginDTO.getUsername());
 
         if (userOptional.isEmpty()) {
             log.warn("Login failed: user not found - {}", inputLoginDTO.getUsername());
+            loginThrottleService.recordFailure(inputLoginDTO.getUsername(), clientAddress);
             throw new InvalidCredentialsException("Invalid username or password");
         }
 
@@ -43,16 +78,10 @@ public class UserService {
 
         if (!encryptService.matches(inputLoginDTO.getPassword(), user.getPassword())) {
             log.warn("Login failed: invalid password for user - {}", inputLoginDTO.getUsername());
+            loginThrottleService.recordFailure(inputLoginDTO.getUsername(), clientAddress);
             throw new InvalidCredentialsException("Invalid username or password");
         }
-
-        log.info("User authenticated successfully: {}", user.getUsername());
-
-        String token = tokenService.generateToken(user);
-        OutputLoginDTO outputLoginDTO = new OutputLoginDTO();
-        outputLoginDTO.setToken(token);
-        outputLoginDTO.setMessage("Login successful");
-        return outputLoginDTO;
+        return user;
     }
 
     /**
@@ -87,4 +116,21 @@ public class UserService {
         return outputLoginDTO;
     }
 
+    /**
+     * Recalcule le hash du mot de passe s'il a été produit avec un coût BCrypt inférieur
+     * au coût courant. Le mot de passe en clair n'est disponible qu'à la connexion.
+     * Un échec n'empêche pas la connexion : le rehash sera retenté à la suivante.
+     */
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!encryptService.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(encryptService.encrypt(rawPassword));
+            userRepository.save(user);
+            log.info("Password rehashed with current BCrypt cost for user: {}", user.getUsername());
+        } catch (HashingCapacityExceededException e) {
+            log.warn("Password rehash skipped for user {}: hashing pool saturated", user.getUsername());
+        }
+    }
 }
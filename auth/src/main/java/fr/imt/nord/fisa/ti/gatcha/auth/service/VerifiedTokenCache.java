@@ -0,0 +1,108 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.service;
+
+import fr.imt.nord.fisa.ti.gatcha.auth.model.Token;
+import fr.imt.nord.fisa.ti.gatcha.common.cache.ExpiringCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cache mémoire des tokens déjà vérifiés.
+ * <p>
+ * Une vérification répétée du même token est servie sans aller-retour MongoDB. Une entrée
+ * ne vit jamais au-delà de l'expiration connue du token ni au-delà du TTL configuré, et elle
+ * est invalidée dès que le token est supprimé.
+ * <p>
+ * Le cache ne conserve qu'un instantané immuable ({@link VerifiedToken}) : chaque lecture
+ * reçoit sa propre copie du {@link Token}, qu'elle peut modifier sans effet sur les
+ * requêtes concurrentes.
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private final boolean enabled;
+    private final ExpiringCache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(
+            MeterRegistry meterRegistry,
+            @Value("${auth.token.cache.enabled:true}") boolean enabled,
+            @Value("${auth.token.cache.max-size:10000}") int maxSize,
+            @Value("${auth.token.cache.ttl:30s}") Duration ttl) {
+        this.enabled = enabled;
+        this.cache = new ExpiringCache<>(maxSize, ttl);
+
+        FunctionCounter.builder("auth.token.cache.hits", cache, ExpiringCache::hitCount)
+                .description("Vérifications servies depuis le cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.token.cache.misses", cache, ExpiringCache::missCount)
+                .description("Vérifications nécessitant une lecture MongoDB")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.token.cache.evictions", cache, ExpiringCache::evictionCount)
+                .description("Entrées évincées (taille maximale ou expiration)")
+                .register(meterRegistry);
+        Gauge.builder("auth.token.cache.size", cache, ExpiringCache::size)
+                .description("Nombre de tokens en cache")
+                .register(meterRegistry);
+
+        log.info("VerifiedTokenCache initialized (enabled: {}, max size: {}, ttl: {})", enabled, maxSize, ttl);
+    }
+
+    public Optional<Token> get(String tokenStr) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.get(tokenStr)).map(verified -> verified.toToken(tokenStr));
+    }
+
+    /**
+     * Met en cache un instantané du token vérifié, sans dépasser sa date d'expiration.
+     */
+    public void put(String tokenStr, Token token, LocalDateTime expiryDate) {
+        if (!enabled) {
+            return;
+        }
+        cache.put(tokenStr, VerifiedToken.of(token), Duration.between(LocalDateTime.now(), expiryDate));
+    }
+
+    public void invalidate(String tokenStr) {
+        cache.invalidate(tokenStr);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.token.cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        int removed = cache.purgeExpired();
+        if (removed > 0) {
+            log.debug("Purged {} expired tokens from cache", removed);
+        }
+    }
+
+    /**
+     * Instantané d'un token vérifié : identifiant, propriétaire et expiration connue en base.
+     */
+    record VerifiedToken(UUID id, UUID userId, String username, LocalDateTime expiryDate) {
+
+        static VerifiedToken of(Token token) {
+            return new VerifiedToken(token.getId(), token.getUserId(), token.getUsername(), token.getExpiryDate());
+        }
+
+        Token toToken(String tokenStr) {
+            Token token = new Token();
+            token.setId(id);
+            token.setToken(tokenStr);
+            token.setUserId(userId);
+            token.setUsername(username);
+            token.setExpiryDate(expiryDate);
+            return token;
+        }
+    }
+}
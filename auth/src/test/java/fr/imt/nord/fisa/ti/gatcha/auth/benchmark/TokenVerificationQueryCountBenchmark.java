@@ -0,0 +1,114 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.benchmark;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import fr.imt.nord.fisa.ti.gatcha.auth.model.Token;
+import fr.imt.nord.fisa.ti.gatcha.auth.model.User;
+import fr.imt.nord.fisa.ti.gatcha.auth.repository.TokenRepository;
+import fr.imt.nord.fisa.ti.gatcha.auth.repository.UserRepository;
+import fr.imt.nord.fisa.ti.gatcha.auth.service.TokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compte les requêtes de lecture MongoDB émises par une vérification de token.
+ * <p>
+ * Nécessite une base MongoDB réelle (par exemple {@code docker compose -f auth/docker-compose.yml up})
+ * et les variables {@code MONGO_USERNAME} / {@code MONGO_PASSWORD} :
+ * <pre>
+ * MONGO_BENCHMARK=true ./gradlew test --tests '*TokenVerificationQueryCountBenchmark'
+ * </pre>
+ * Le cache des tokens vérifiés est désactivé pour que chaque vérification aille en base.
+ */
+@EnabledIfEnvironmentVariable(named = "MONGO_BENCHMARK", matches = "true")
+@SpringBootTest(properties = {
+        "auth.token.cache.enabled=false",
+        "auth.token.expiry.write-behind.enabled=true"
+})
+class TokenVerificationQueryCountBenchmark {
+
+    private static final Set<String> READ_COMMANDS = Set.of("find", "aggregate", "getMore");
+    private static final AtomicInteger READS = new AtomicInteger();
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Token token;
+
+    @TestConfiguration
+    static class QueryCounterConfig {
+        @Bean
+        MongoClientSettingsBuilderCustomizer queryCounter() {
+            return builder -> builder.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if (READ_COMMANDS.contains(event.getCommandName())) {
+                        READS.incrementAndGet();
+                    }
+                }
+            });
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (token != null) {
+            tokenRepository.deleteById(token.getId());
+        }
+        if (user != null) {
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    void verifyToken_QueriesPerVerification_ShouldDropFromTwoToOne() throws Exception {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("benchmark-" + user.getId());
+        user.setPassword("unused");
+        userRepository.save(user);
+
+        // Document au format historique : seule la référence vers l'utilisateur est stockée
+        token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setToken("$2a$10$benchmark-" + token.getId());
+        token.setUser(user);
+        token.setExpiryDate(LocalDateTime.now().plusMinutes(50));
+        tokenRepository.save(token);
+
+        int legacyReads = countReads(token.getToken());
+        int migratedReads = countReads(token.getToken());
+
+        System.out.printf("Reads per verification: legacy document = %d, denormalized document = %d%n",
+                legacyReads, migratedReads);
+
+        assertEquals(2, legacyReads);
+        assertEquals(1, migratedReads);
+    }
+
+    private int countReads(String tokenStr) throws Exception {
+        READS.set(0);
+        tokenService.verifyToken(tokenStr);
+        return READS.get();
+    }
+}
@@ -0,0 +1,70 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.configuration;
+
+import fr.imt.nord.fisa.ti.gatcha.auth.model.RevokedToken;
+import fr.imt.nord.fisa.ti.gatcha.auth.model.Token;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenIndexConfigTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations tokenIndexOps;
+
+    @Mock
+    private IndexOperations revokedTokenIndexOps;
+
+    @Test
+    void createTokenIndexes_WhenUniqueIndexFails_ShouldStillCreateTtlIndexes() {
+        when(mongoTemplate.indexOps(Token.class)).thenReturn(tokenIndexOps);
+        when(mongoTemplate.indexOps(RevokedToken.class)).thenReturn(revokedTokenIndexOps);
+        when(tokenIndexOps.createIndex(argThat(index -> hasName(index, TokenIndexConfig.TOKEN_INDEX_NAME))))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        new TokenIndexConfig(mongoTemplate).createTokenIndexes();
+
+        ArgumentCaptor<IndexDefinition> tokenIndexes = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(tokenIndexOps, times(2)).createIndex(tokenIndexes.capture());
+        assertEquals(List.of(TokenIndexConfig.TOKEN_INDEX_NAME, TokenIndexConfig.TTL_INDEX_NAME),
+                tokenIndexes.getAllValues().stream().map(TokenIndexConfigTest::name).toList());
+        verify(revokedTokenIndexOps).createIndex(argThat(index -> hasName(index, TokenIndexConfig.REVOCATION_TTL_INDEX_NAME)));
+    }
+
+    @Test
+    void createTokenIndexes_WhenEveryIndexFails_ShouldNotThrow() {
+        when(mongoTemplate.indexOps(Token.class)).thenReturn(tokenIndexOps);
+        when(mongoTemplate.indexOps(RevokedToken.class)).thenReturn(revokedTokenIndexOps);
+        when(tokenIndexOps.createIndex(any())).thenThrow(new IllegalStateException("boom"));
+        when(revokedTokenIndexOps.createIndex(any())).thenThrow(new IllegalStateException("boom"));
+
+        new TokenIndexConfig(mongoTemplate).createTokenIndexes();
+
+        verify(tokenIndexOps, times(2)).createIndex(any());
+        verify(revokedTokenIndexOps).createIndex(any());
+    }
+
+    private static boolean hasName(IndexDefinition index, String name) {
+        return index != null && name.equals(name(index));
+    }
+
+    private static String name(IndexDefinition index) {
+        return index.getIndexOptions().getString("name");
+    }
+}
@@ -1,10 +1,13 @@
 package fr.imt.nord.fisa.ti.gatcha.auth.controller;
 
+import fr.imt.nord.fisa.ti.gatcha.auth.exception.HashingCapacityExceededException;
 import fr.imt.nord.fisa.ti.gatcha.auth.model.Token;
 import fr.imt.nord.fisa.ti.gatcha.auth.model.User;
 import fr.imt.nord.fisa.ti.gatcha.auth.repository.TokenRepository;
 import fr.imt.nord.fisa.ti.gatcha.auth.repository.UserRepository;
 import fr.imt.nord.fisa.ti.gatcha.auth.service.EncryptService;
+import fr.imt.nord.fisa.ti.gatcha.auth.service.TokenExpiryWriter;
+import fr.imt.nord.fisa.ti.gatcha.auth.service.TokenGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -22,10 +25,11 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@org.springframework.boot.test.context.SpringBootTest
+@org.springframework.boot.test.context.SpringBootTest(properties = "auth.token.ttl-index.enabled=false")
 @org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig
 class AuthIntegrationTest {
 
@@ -34,6 +38,9 @@ class AuthIntegrationTest {
     @Autowired
     private WebApplicationContext wac;
 
+    @Autowired
+    private TokenGenerator tokenGenerator;
+
     @MockitoBean
     private UserRepository userRepository;
 
@@ -43,10 +50,13 @@ class AuthIntegrationTest {
     @MockitoBean
     private EncryptService encryptService;
 
+    @MockitoBean
+    private TokenExpiryWriter tokenExpiryWriter;
+
     @BeforeEach
     void setUp() {
         this.mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
-        Mockito.reset(userRepository, tokenRepository, encryptService);
+        Mockito.reset(userRepository, tokenRepository, encryptService, tokenExpiryWriter);
     }
 
     @Test
@@ -89,11 +99,11 @@ class AuthIntegrationTest {
 
         Token token = new Token();
         token.setId(UUID.randomUUID());
-        token.setToken(tokenString);
+        token.setToken(tokenGenerator.lookupKey(tokenString));
         token.setUser(user);
         token.setExpiryDate(LocalDateTime.now().minusMinutes(1));
 
-        Mockito.when(tokenRepository.findByToken(tokenString))
+        Mockito.when(tokenRepository.findByToken(tokenGenerator.lookupKey(tokenString)))
                 .thenReturn(Optional.of(token));
 
         mockMvc.perform(get("/tokens/verify")
@@ -102,6 +112,25 @@ class AuthIntegrationTest {
                 .andExpect(jsonPath("$.status").value(401));
     }
 
+    @Test
+    void login_WhenHashingPoolSaturated_ShouldReturn503WithRetryAfter() throws Exception {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("carol");
+        user.setPassword("hash");
+
+        Mockito.when(userRepository.findByUsername("carol")).thenReturn(Optional.of(user));
+        Mockito.when(encryptService.matches(Mockito.anyString(), Mockito.anyString()))
+                .thenThrow(new HashingCapacityExceededException(2));
+
+        mockMvc.perform(post("/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"carol\",\"password\":\"pwd\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.status").value(503));
+    }
+
     @Test
     void register_WhenNewUser_ShouldReturn200() throws Exception {
         Mockito.when(userRepository.findByUsername("alice"))
@@ -118,7 +147,7 @@ class AuthIntegrationTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"username\":\"alice\",\"password\":\"pwd\"}"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.token").value("encrypted-token"))
+                .andExpect(jsonPath("$.token").isNotEmpty())
                 .andExpect(jsonPath("$.message").exists());
     }
 
@@ -149,7 +178,7 @@ class AuthIntegrationTest {
 
     @Test
     void verifyToken_WithNonExistentToken_ShouldReturn401() throws Exception {
-        Mockito.when(tokenRepository.findByToken("nope"))
+        Mockito.when(tokenRepository.findByToken(tokenGenerator.lookupKey("nope")))
                 .thenReturn(Optional.empty());
 
         mockMvc.perform(get("/tokens/verify")
@@ -169,12 +198,10 @@ class AuthIntegrationTest {
         Token token = new Token();
         token.setId(UUID.randomUUID());
         token.setUser(user);
-        token.setToken(tokenString);
+        token.setToken(tokenGenerator.lookupKey(tokenString));
         token.setExpiryDate(LocalDateTime.now().plusMinutes(10));
 
-        Mockito.when(tokenRepository.findByToken(tokenString)).thenReturn(Optional.of(token));
-        Mockito.when(tokenRepository.save(Mockito.any(Token.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(tokenRepository.findByToken(tokenGenerator.lookupKey(tokenString))).thenReturn(Optional.of(token));
 
         mockMvc.perform(get("/tokens/verify")
                         .header("Authorization", "Bearer " + tokenString))
@@ -184,9 +211,9 @@ class AuthIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Token valid"));
 
         // expiry must be extended
-        org.mockito.ArgumentCaptor<Token> captor = org.mockito.ArgumentCaptor.forClass(Token.class);
-        Mockito.verify(tokenRepository).save(captor.capture());
-        assertTrue(captor.getValue().getExpiryDate().isAfter(LocalDateTime.now().plusMinutes(55)));
+        org.mockito.ArgumentCaptor<LocalDateTime> captor = org.mockito.ArgumentCaptor.forClass(LocalDateTime.class);
+        Mockito.verify(tokenExpiryWriter).extend(Mockito.eq(token), captor.capture());
+        assertTrue(captor.getValue().isAfter(LocalDateTime.now().plusMinutes(55)));
     }
 
     @Test
@@ -244,10 +271,10 @@ class AuthIntegrationTest {
         Token token = new Token();
         token.setId(UUID.randomUUID());
         token.setUser(user);
-        token.setToken(tokenString);
+        token.setToken(tokenGenerator.lookupKey(tokenString));
         token.setExpiryDate(LocalDateTime.now().plusMinutes(10));
 
-        Mockito.when(tokenRepository.findByToken(tokenString)).thenReturn(Optional.of(token));
+        Mockito.when(tokenRepository.findByToken(tokenGenerator.lookupKey(tokenString))).thenReturn(Optional.of(token));
         Mockito.when(tokenRepository.save(Mockito.any(Token.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -259,4 +286,38 @@ class AuthIntegrationTest {
                 .andExpect(jsonPath("$.username").value("bob"))
                 .andExpect(jsonPath("$.message").value("Token valid"));
     }
+
+    @Test
+    void verifyTokens_ShouldReturnOneVerdictPerToken() throws Exception {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("bob");
+
+        Token token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setUser(user);
+        token.setUsername("bob");
+        token.setToken(tokenGenerator.lookupKey("valid-batch"));
+        token.setExpiryDate(LocalDateTime.now().plusMinutes(10));
+
+        Mockito.when(tokenRepository.findByTokenIn(Mockito.any())).thenReturn(java.util.List.of(token));
+
+        mockMvc.perform(post("/tokens/verify/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tokens\":[\"valid-batch\",\"unknown\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].token").value("valid-batch"))
+                .andExpect(jsonPath("$[0].status").value(true))
+                .andExpect(jsonPath("$[0].username").value("bob"))
+                .andExpect(jsonPath("$[1].status").value(false));
+    }
+
+    @Test
+    void verifyTokens_WithEmptyList_ShouldReturn400() throws Exception {
+        mockMvc.perform(post("/tokens/verify/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tokens\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
 }
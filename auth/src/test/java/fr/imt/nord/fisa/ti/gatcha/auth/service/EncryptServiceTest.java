@@ -1,12 +1,21 @@
 package fr.imt.nord.fisa.ti.gatcha.auth.service;
 
+import fr.imt.nord.fisa.ti.gatcha.auth.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class EncryptServiceTest {
 
-    private final EncryptService encryptService = new EncryptService();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EncryptService encryptService = new EncryptService(meterRegistry, 2, 16, 1, 4, false, Duration.ZERO);
 
     @Test
     void encrypt_WithNull_ShouldThrowIllegalArgumentException() {
@@ -38,4 +47,75 @@ class EncryptServiceTest {
     void matches_WithNullRaw_ShouldReturnFalse() {
         assertFalse(encryptService.matches(null, encryptService.encrypt("a")));
     }
+
+    @Test
+    void encrypt_ShouldRecordHashLatency() {
+        encryptService.encrypt("a");
+
+        assertEquals(1, meterRegistry.get("auth.hashing.latency").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void execute_WhenPoolAndQueueAreFull_ShouldFailFast() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        EncryptService saturated = new EncryptService(registry, 1, 1, 3, 4, false, Duration.ZERO);
+        Timer timer = registry.timer("test.hashing");
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Un calcul occupe l'unique thread, un second occupe l'unique place de la file
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> saturated.execute(timer, () -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> saturated.execute(timer, () -> true));
+        while (registry.get("auth.hashing.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        HashingCapacityExceededException ex = assertThrows(
+                HashingCapacityExceededException.class,
+                () -> saturated.matches("a", "$2a$10$irrelevant")
+        );
+
+        assertEquals(3, ex.getRetryAfterSeconds());
+        assertEquals(1.0, registry.get("auth.hashing.rejected").counter().count());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void encrypt_ShouldUseConfiguredStrength() {
+        assertTrue(encryptService.encrypt("a").startsWith("$2a$04$"));
+        assertEquals(4, encryptService.getStrength());
+    }
+
+    @Test
+    void needsRehash_ShouldOnlyDetectLowerCost() {
+        EncryptService stronger = new EncryptService(new SimpleMeterRegistry(), 1, 1, 1, 5, false, Duration.ZERO);
+        String weakHash = encryptService.encrypt("a");
+
+        assertFalse(encryptService.needsRehash(weakHash));
+        assertTrue(stronger.needsRehash(weakHash));
+        assertFalse(encryptService.needsRehash(stronger.encrypt("a")));
+        assertFalse(encryptService.needsRehash(null));
+        assertFalse(encryptService.needsRehash("not-a-bcrypt-hash"));
+    }
+
+    @Test
+    void constructor_WithCalibration_ShouldNeverGoBelowConfiguredStrength() {
+        EncryptService calibrated = new EncryptService(new SimpleMeterRegistry(), 1, 1, 1,
+                EncryptService.CALIBRATED_MIN_STRENGTH + 1, true, Duration.ofNanos(1));
+
+        assertEquals(EncryptService.CALIBRATED_MIN_STRENGTH + 1, calibrated.getStrength());
+    }
+
+    @Test
+    void calibrate_ShouldStayWithinBounds() {
+        assertEquals(EncryptService.CALIBRATED_MIN_STRENGTH, EncryptService.calibrate(Duration.ofNanos(1)));
+        assertEquals(EncryptService.CALIBRATED_MAX_STRENGTH, EncryptService.calibrate(Duration.ofDays(1)));
+    }
 }
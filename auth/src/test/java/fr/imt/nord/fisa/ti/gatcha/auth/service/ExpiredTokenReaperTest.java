@@ -0,0 +1,84 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.service;
+
+import com.mongodb.client.result.DeleteResult;
+import fr.imt.nord.fisa.ti.gatcha.auth.model.Token;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpiredTokenReaperTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private List<Token> tokens(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            Token token = new Token();
+            token.setId(UUID.randomUUID());
+            return token;
+        }).toList();
+    }
+
+    @Test
+    void reap_ShouldDeleteInBatchesUntilNoExpiredTokenLeft() {
+        ExpiredTokenReaper reaper = new ExpiredTokenReaper(mongoTemplate, meterRegistry, 2, 10);
+        when(mongoTemplate.find(any(Query.class), eq(Token.class)))
+                .thenReturn(tokens(2))
+                .thenReturn(tokens(1));
+        when(mongoTemplate.remove(any(Query.class), eq(Token.class)))
+                .thenReturn(DeleteResult.acknowledged(2))
+                .thenReturn(DeleteResult.acknowledged(1));
+
+        reaper.reap();
+
+        verify(mongoTemplate, times(2)).find(any(Query.class), eq(Token.class));
+        verify(mongoTemplate, times(2)).remove(any(Query.class), eq(Token.class));
+        assertEquals(3.0, meterRegistry.get("auth.token.reaper.deleted").counter().count());
+        assertEquals(1, meterRegistry.get("auth.token.reaper.run").timer().count());
+    }
+
+    @Test
+    void reap_ShouldStopAfterMaxBatches() {
+        ExpiredTokenReaper reaper = new ExpiredTokenReaper(mongoTemplate, meterRegistry, 2, 3);
+        when(mongoTemplate.find(any(Query.class), eq(Token.class))).thenAnswer(invocation -> tokens(2));
+        when(mongoTemplate.remove(any(Query.class), eq(Token.class))).thenReturn(DeleteResult.acknowledged(2));
+
+        reaper.reap();
+
+        verify(mongoTemplate, times(3)).remove(any(Query.class), eq(Token.class));
+        assertEquals(6.0, meterRegistry.get("auth.token.reaper.deleted").counter().count());
+    }
+
+    @Test
+    void reap_WithNothingExpired_ShouldNotDelete() {
+        ExpiredTokenReaper reaper = new ExpiredTokenReaper(mongoTemplate, meterRegistry, 2, 3);
+        when(mongoTemplate.find(any(Query.class), eq(Token.class))).thenReturn(List.of());
+
+        reaper.reap();
+
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(Token.class));
+        assertEquals(0.0, meterRegistry.get("auth.token.reaper.deleted").counter().count());
+    }
+}
@@ -0,0 +1,227 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.service;
+
+import fr.imt.nord.fisa.ti.gatcha.auth.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleServiceTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private LoginThrottleService throttle;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        throttle = new LoginThrottleService(meterRegistry, true, Duration.ofMinutes(1), 3, 5,
+                Duration.ofSeconds(30), Duration.ofMinutes(2), 100, clock::get);
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void checkAllowed_BelowLimit_ShouldAllow() {
+        throttle.recordFailure("john", "10.0.0.1");
+        throttle.recordFailure("john", "10.0.0.1");
+
+        assertDoesNotThrow(() -> throttle.checkAllowed("john", "10.0.0.1"));
+    }
+
+    @Test
+    void checkAllowed_AfterTooManyUsernameFailures_ShouldLockWithRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("john", "10.0.0." + i);
+        }
+
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+                () -> throttle.checkAllowed("john", "10.0.0.9"));
+
+        assertEquals(30, ex.getRetryAfterSeconds());
+        assertDoesNotThrow(() -> throttle.checkAllowed("alice", "10.0.0.9"));
+        assertEquals(1.0, meterRegistry.get("auth.login.throttle.rejected").tag("key", "username").counter().count());
+        assertEquals(1.0, meterRegistry.get("auth.login.throttle.lockouts").tag("key", "username").counter().count());
+    }
+
+    @Test
+    void checkAllowed_AfterTooManyAddressFailures_ShouldLockAddressForAllUsernames() {
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("user" + i, "10.0.0.1");
+        }
+
+        assertThrows(LoginThrottledException.class, () -> throttle.checkAllowed("someone-else", "10.0.0.1"));
+        assertDoesNotThrow(() -> throttle.checkAllowed("someone-else", "10.0.0.2"));
+    }
+
+    @Test
+    void failures_OutsideWindow_ShouldNotCount() {
+        throttle.recordFailure("john", "10.0.0.1");
+        throttle.recordFailure("john", "10.0.0.1");
+        advance(Duration.ofSeconds(61));
+        throttle.recordFailure("john", "10.0.0.1");
+
+        assertDoesNotThrow(() -> throttle.checkAllowed("john", "10.0.0.1"));
+    }
+
+    @Test
+    void lockout_ShouldDoubleOnEachLockAndBeCapped() throws Exception {
+        long[] expected = {30, 60, 120, 120};
+        for (long seconds : expected) {
+            for (int i = 0; i < 3; i++) {
+                throttle.recordFailure("john", null);
+            }
+            LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+                    () -> throttle.checkAllowed("john", null));
+            assertEquals(seconds, ex.getRetryAfterSeconds());
+            advance(Duration.ofSeconds(seconds));
+            throttle.checkAllowed("john", null);
+        }
+    }
+
+    @Test
+    void recordSuccess_ShouldResetUsernameFailures() {
+        throttle.recordFailure("john", "10.0.0.1");
+        throttle.recordFailure("john", "10.0.0.1");
+        throttle.recordSuccess("john", "10.0.0.1");
+        throttle.recordFailure("john", "10.0.0.1");
+
+        assertDoesNotThrow(() -> throttle.checkAllowed("john", "10.0.0.1"));
+    }
+
+    @Test
+    void checkAllowed_ParallelBurst_ShouldNotExceedLimitBeforeFailuresAreRecorded() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            throttle.checkAllowed("john", "10.0.0." + i);
+        }
+
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+                () -> throttle.checkAllowed("john", "10.0.0.9"));
+        assertEquals(1, ex.getRetryAfterSeconds());
+
+        // Les tentatives en cours échouent : le verrouillage prend le relais
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("john", "10.0.0." + i);
+        }
+        assertEquals(30, assertThrows(LoginThrottledException.class,
+                () -> throttle.checkAllowed("john", "10.0.0.9")).getRetryAfterSeconds());
+    }
+
+    @Test
+    void checkAllowed_ConcurrentCallers_ShouldReserveAtMostLimit() throws Exception {
+        int callers = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    throttle.checkAllowed("john", null);
+                    allowed.incrementAndGet();
+                } catch (LoginThrottledException e) {
+                    // refusée
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(3, allowed.get());
+    }
+
+    @Test
+    void recordSuccess_ShouldReleaseAddressReservation() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            throttle.checkAllowed("user" + i, "10.0.0.1");
+        }
+        assertThrows(LoginThrottledException.class, () -> throttle.checkAllowed("user9", "10.0.0.1"));
+
+        throttle.recordSuccess("user0", "10.0.0.1");
+
+        assertDoesNotThrow(() -> throttle.checkAllowed("user9", "10.0.0.1"));
+    }
+
+    @Test
+    void release_ShouldFreeReservationWithoutCountingFailure() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            throttle.checkAllowed("john", null);
+        }
+        throttle.release("john", null);
+        throttle.checkAllowed("john", null);
+        throttle.release("john", null);
+        throttle.release("john", null);
+        throttle.release("john", null);
+
+        for (int i = 0; i < 2; i++) {
+            throttle.recordFailure("john", null);
+        }
+        assertDoesNotThrow(() -> throttle.checkAllowed("john", null));
+    }
+
+    @Test
+    void checkAllowed_WithAddressLimitReached_ShouldNotKeepUsernameReservation() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("user" + i, "10.0.0.1");
+        }
+        for (int i = 0; i < 5; i++) {
+            assertThrows(LoginThrottledException.class, () -> throttle.checkAllowed("john", "10.0.0.1"));
+        }
+
+        assertDoesNotThrow(() -> throttle.checkAllowed("john", "10.0.0.2"));
+    }
+
+    @Test
+    void trackedKeys_ShouldBeCappedUnderUniqueUsernameFlood() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LoginThrottleService capped = new LoginThrottleService(registry, true, Duration.ofMinutes(1), 3, 1_000_000,
+                Duration.ofSeconds(30), Duration.ofMinutes(2), 10, clock::get);
+        for (int i = 0; i < 1_000; i++) {
+            capped.recordFailure("user" + i, "10.0.0.1");
+        }
+
+        assertEquals(10.0, registry.get("auth.login.throttle.tracked").tag("key", "username").gauge().value());
+        assertEquals(990.0, registry.get("auth.login.throttle.evictions").tag("key", "username").functionCounter().count());
+        assertEquals(1.0, registry.get("auth.login.throttle.tracked").tag("key", "address").gauge().value());
+    }
+
+    @Test
+    void purgeIdle_ShouldForgetKeysWithoutRecentFailure() {
+        throttle.recordFailure("john", "10.0.0.1");
+        advance(Duration.ofMinutes(3));
+
+        throttle.purgeIdle();
+
+        assertEquals(0.0, meterRegistry.get("auth.login.throttle.tracked").tag("key", "username").gauge().value());
+        assertEquals(0.0, meterRegistry.get("auth.login.throttle.tracked").tag("key", "address").gauge().value());
+    }
+
+    @Test
+    void disabled_ShouldNeverThrottle() {
+        LoginThrottleService disabled = new LoginThrottleService(new SimpleMeterRegistry(), false,
+                Duration.ofMinutes(1), 1, 1, Duration.ofSeconds(30), Duration.ofMinutes(2), 100, clock::get);
+        disabled.recordFailure("john", "10.0.0.1");
+        disabled.recordFailure("john", "10.0.0.1");
+
+        assertDoesNotThrow(() -> disabled.checkAllowed("john", "10.0.0.1"));
+    }
+}
@@ -0,0 +1,176 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.service;
+
+import fr.imt.nord.fisa.ti.gatcha.auth.dto.token.TokenVerdictDTO;
+import fr.imt.nord.fisa.ti.gatcha.auth.exception.TokenExpiredException;
+import fr.imt.nord.fisa.ti.gatcha.auth.model.RevokedToken;
+import fr.imt.nord.fisa.ti.gatcha.auth.model.User;
+import fr.imt.nord.fisa.ti.gatcha.auth.repository.RevokedTokenRepository;
+import fr.imt.nord.fisa.ti.gatcha.common.dto.TokenRevocation;
+import fr.imt.nord.fisa.ti.gatcha.common.dto.TokenVerifyResponse;
+import fr.imt.nord.fisa.ti.gatcha.common.security.SignedTokenClaims;
+import fr.imt.nord.fisa.ti.gatcha.common.security.SignedTokenCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SignedTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("testuser");
+    }
+
+    private SignedTokenService hmacService() {
+        return new SignedTokenService(revokedTokenRepository, "signed", Duration.ofHours(1), "HMAC", SECRET, "", "");
+    }
+
+    @Test
+    void issue_ThenVerify_ShouldReturnUsernameWithoutDatabaseTokenLookup() throws Exception {
+        SignedTokenService service = hmacService();
+
+        String token = service.issue(user);
+        TokenVerifyResponse response = service.verify(token);
+
+        assertTrue(SignedTokenCodec.isSignedToken(token));
+        assertTrue(response.isStatus());
+        assertEquals("testuser", response.getUsername());
+        verify(revokedTokenRepository).existsById(any());
+    }
+
+    @Test
+    void verify_WithTamperedToken_ShouldThrow() {
+        SignedTokenService service = hmacService();
+        String token = service.issue(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(TokenExpiredException.class, () -> service.verify(tampered));
+    }
+
+    @Test
+    void verify_WithExpiredToken_ShouldThrow() {
+        SignedTokenService service = hmacService();
+        SignedTokenCodec codec = SignedTokenCodec.hmac(new byte[32]);
+        String expired = codec.sign(new SignedTokenClaims("id", "testuser", Instant.now().minusSeconds(1)));
+
+        assertThrows(TokenExpiredException.class, () -> service.verify(expired));
+    }
+
+    @Test
+    void verify_WithRevokedToken_ShouldThrow() {
+        SignedTokenService service = hmacService();
+        String token = service.issue(user);
+        when(revokedTokenRepository.existsById(any())).thenReturn(true);
+
+        assertThrows(TokenExpiredException.class, () -> service.verify(token));
+    }
+
+    @Test
+    void verifyAll_ShouldCheckRevocationsInOneQuery() {
+        SignedTokenService service = hmacService();
+        SignedTokenCodec codec = SignedTokenCodec.hmac(new byte[32]);
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        String valid = codec.sign(new SignedTokenClaims("valid-id", "testuser", expiresAt));
+        String revoked = codec.sign(new SignedTokenClaims("revoked-id", "other", expiresAt));
+        String expired = codec.sign(new SignedTokenClaims("expired-id", "testuser", Instant.now().minusSeconds(1)));
+        when(revokedTokenRepository.findAllById(Set.of("valid-id", "revoked-id")))
+                .thenReturn(List.of(new RevokedToken("revoked-id", expiresAt)));
+
+        Map<String, TokenVerdictDTO> verdicts = service.verifyAll(List.of(valid, revoked, expired, valid));
+
+        assertEquals(3, verdicts.size());
+        assertTrue(verdicts.get(valid).isStatus());
+        assertEquals("testuser", verdicts.get(valid).getUsername());
+        assertFalse(verdicts.get(revoked).isStatus());
+        assertNull(verdicts.get(revoked).getUsername());
+        assertFalse(verdicts.get(expired).isStatus());
+        verify(revokedTokenRepository, times(1)).findAllById(any());
+        verify(revokedTokenRepository, never()).existsById(any());
+    }
+
+    @Test
+    void verifyAll_WithOnlyInvalidTokens_ShouldNotQueryRevocations() {
+        SignedTokenService service = hmacService();
+
+        Map<String, TokenVerdictDTO> verdicts = service.verifyAll(List.of("st1.a.b"));
+
+        assertFalse(verdicts.get("st1.a.b").isStatus());
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    void revoke_ShouldStoreTokenIdUntilExpiry() throws Exception {
+        SignedTokenService service = hmacService();
+        String token = service.issue(user);
+
+        service.revoke(token);
+
+        ArgumentCaptor<RevokedToken> captor = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(captor.capture());
+        assertNotNull(captor.getValue().getTokenId());
+        assertTrue(captor.getValue().getExpiresAt().isAfter(Instant.now().plus(Duration.ofMinutes(59))));
+    }
+
+    @Test
+    void activeRevocations_ShouldMapRepositoryResult() {
+        SignedTokenService service = hmacService();
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of(new RevokedToken("id", expiresAt)));
+
+        List<TokenRevocation> revocations = service.activeRevocations();
+
+        assertEquals(1, revocations.size());
+        assertEquals("id", revocations.get(0).getTokenId());
+        assertEquals(expiresAt, revocations.get(0).getExpiresAt());
+    }
+
+    @Test
+    void ed25519_ShouldSignWithPrivateKeyAndVerifyWithPublicKeyOnly() throws Exception {
+        KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        String privateKey = Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded());
+        String publicKey = Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+        SignedTokenService service = new SignedTokenService(
+                revokedTokenRepository, "signed", Duration.ofHours(1), "ED25519", "", privateKey, publicKey);
+
+        String token = service.issue(user);
+        SignedTokenCodec verifier = SignedTokenCodec.fromConfig("ED25519", "", "", publicKey);
+
+        assertFalse(verifier.canSign());
+        assertEquals("testuser", verifier.verify(token, Instant.now()).orElseThrow().username());
+    }
+
+    @Test
+    void constructor_InOpaqueMode_ShouldNotRequireKeys() {
+        SignedTokenService service = new SignedTokenService(
+                revokedTokenRepository, "opaque", Duration.ofHours(1), "HMAC", "", "", "");
+
+        assertFalse(service.isEnabled());
+        assertThrows(TokenExpiredException.class, () -> service.verify("st1.a.b"));
+    }
+}
@@ -0,0 +1,159 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.service;
+
+import fr.imt.nord.fisa.ti.gatcha.auth.model.Token;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenExpiryWriterTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private Token token(LocalDateTime storedExpiry) {
+        Token token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setToken("token");
+        token.setExpiryDate(storedExpiry);
+        return token;
+    }
+
+    @Test
+    void extend_WithSmallLag_ShouldDeferWriteUntilFlush() {
+        TokenExpiryWriter writer = new TokenExpiryWriter(mongoTemplate, meterRegistry, true, Duration.ofMinutes(5));
+        LocalDateTime newExpiry = LocalDateTime.now().plusHours(1);
+        Token token = token(newExpiry.minusMinutes(1));
+
+        writer.extend(token, newExpiry);
+
+        verifyNoInteractions(mongoTemplate);
+        assertEquals(newExpiry, writer.pendingExpiry(token.getId()).orElseThrow());
+
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Token.class)).thenReturn(bulkOperations);
+        writer.flush();
+
+        verify(bulkOperations).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations).execute();
+        assertTrue(writer.pendingExpiry(token.getId()).isEmpty());
+        assertEquals(1, meterRegistry.get("auth.token.expiry.flush.size").summary().count());
+    }
+
+    @Test
+    void extend_SeveralTimes_ShouldKeepLatestExpiryAndFlushOnce() {
+        TokenExpiryWriter writer = new TokenExpiryWriter(mongoTemplate, meterRegistry, true, Duration.ofMinutes(5));
+        LocalDateTime now = LocalDateTime.now();
+        Token token = token(now.plusMinutes(59));
+
+        writer.extend(token, now.plusMinutes(60));
+        writer.extend(token, now.plusMinutes(61));
+        writer.extend(token, now.plusMinutes(60).plusSeconds(30));
+
+        assertEquals(now.plusMinutes(61), writer.pendingExpiry(token.getId()).orElseThrow());
+
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Token.class)).thenReturn(bulkOperations);
+        writer.flush();
+
+        verify(bulkOperations, times(1)).updateOne(any(Query.class), any(Update.class));
+    }
+
+    @Test
+    void extend_WhenStoredExpiryLagsTooMuch_ShouldWriteImmediately() {
+        TokenExpiryWriter writer = new TokenExpiryWriter(mongoTemplate, meterRegistry, true, Duration.ofMinutes(5));
+        LocalDateTime newExpiry = LocalDateTime.now().plusHours(1);
+        Token token = token(newExpiry.minusMinutes(30));
+
+        writer.extend(token, newExpiry);
+
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(Token.class));
+        assertTrue(writer.pendingExpiry(token.getId()).isEmpty());
+    }
+
+    @Test
+    void extend_WithWriteBehindDisabled_ShouldWriteImmediately() {
+        TokenExpiryWriter writer = new TokenExpiryWriter(mongoTemplate, meterRegistry, false, Duration.ofMinutes(5));
+        LocalDateTime newExpiry = LocalDateTime.now().plusHours(1);
+        Token token = token(newExpiry.minusSeconds(10));
+
+        writer.extend(token, newExpiry);
+
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(Token.class));
+        assertTrue(writer.pendingExpiry(token.getId()).isEmpty());
+    }
+
+    @Test
+    void flush_WhenBulkWriteFails_ShouldKeepPendingExtensions() {
+        TokenExpiryWriter writer = new TokenExpiryWriter(mongoTemplate, meterRegistry, true, Duration.ofMinutes(5));
+        LocalDateTime newExpiry = LocalDateTime.now().plusHours(1);
+        Token token = token(newExpiry.minusMinutes(1));
+        writer.extend(token, newExpiry);
+
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Token.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("mongo down"));
+
+        writer.flush();
+
+        assertEquals(newExpiry, writer.pendingExpiry(token.getId()).orElseThrow());
+        assertEquals(1.0, meterRegistry.get("auth.token.expiry.flush.failures").counter().count());
+    }
+
+    @Test
+    void discard_ShouldForgetPendingExtension() {
+        TokenExpiryWriter writer = new TokenExpiryWriter(mongoTemplate, meterRegistry, true, Duration.ofMinutes(5));
+        LocalDateTime newExpiry = LocalDateTime.now().plusHours(1);
+        Token token = token(newExpiry.minusMinutes(1));
+        writer.extend(token, newExpiry);
+
+        writer.discard(token.getId());
+        writer.flush();
+
+        assertTrue(writer.pendingExpiry(token.getId()).isEmpty());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void extendAll_ShouldDeferSmallLagsAndWriteOthersInOneBulk() {
+        TokenExpiryWriter writer = new TokenExpiryWriter(mongoTemplate, meterRegistry, true, Duration.ofMinutes(5));
+        LocalDateTime newExpiry = LocalDateTime.now().plusHours(1);
+        Token deferred = token(newExpiry.minusMinutes(1));
+        Token lagging1 = token(newExpiry.minusMinutes(30));
+        Token lagging2 = token(newExpiry.minusMinutes(40));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Token.class)).thenReturn(bulkOperations);
+
+        writer.extendAll(List.of(deferred, lagging1, lagging2), newExpiry);
+
+        verify(bulkOperations, times(2)).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations, times(1)).execute();
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(Token.class));
+        assertEquals(newExpiry, writer.pendingExpiry(deferred.getId()).orElseThrow());
+        assertEquals(newExpiry, lagging1.getExpiryDate());
+        assertEquals(2.0, meterRegistry.get("auth.token.expiry.direct.writes").counter().count());
+    }
+}
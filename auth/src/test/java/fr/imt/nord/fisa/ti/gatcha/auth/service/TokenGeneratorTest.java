@@ -0,0 +1,55 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenGeneratorTest {
+
+    private final TokenGenerator tokenGenerator = new TokenGenerator();
+
+    @Test
+    void generate_ShouldReturnFixedLengthUrlSafeTokens() {
+        String token = tokenGenerator.generate();
+
+        assertEquals(43, token.length());
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void generate_ShouldReturnDistinctTokens() {
+        Set<String> tokens = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            tokens.add(tokenGenerator.generate());
+        }
+        assertEquals(1000, tokens.size());
+    }
+
+    @Test
+    void lookupKey_WithOpaqueToken_ShouldReturnStableSha256Hex() {
+        String token = tokenGenerator.generate();
+
+        String key = tokenGenerator.lookupKey(token);
+
+        assertEquals(64, key.length());
+        assertTrue(key.matches("[0-9a-f]+"));
+        assertEquals(key, tokenGenerator.lookupKey(token));
+        assertNotEquals(key, tokenGenerator.lookupKey(tokenGenerator.generate()));
+    }
+
+    @Test
+    void lookupKey_WithKnownValue_ShouldMatchSha256() {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                tokenGenerator.lookupKey("abc"));
+    }
+
+    @Test
+    void lookupKey_WithLegacyBcryptToken_ShouldReturnTokenAsIs() {
+        String legacy = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+        assertEquals(legacy, tokenGenerator.lookupKey(legacy));
+    }
+}
@@ -1,5 +1,6 @@
 package fr.imt.nord.fisa.ti.gatcha.auth.service;
 
+import fr.imt.nord.fisa.ti.gatcha.auth.dto.token.TokenVerdictDTO;
 import fr.imt.nord.fisa.ti.gatcha.auth.model.Token;
 import fr.imt.nord.fisa.ti.gatcha.auth.model.User;
 import fr.imt.nord.fisa.ti.gatcha.auth.repository.TokenRepository;
@@ -10,14 +11,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,8 +33,17 @@ class TokenServiceTest {
     @Mock
     private TokenRepository tokenRepository;
 
+    @Spy
+    private TokenGenerator tokenGenerator = new TokenGenerator();
+
+    @Mock
+    private TokenExpiryWriter tokenExpiryWriter;
+
     @Mock
-    private EncryptService encryptService;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private SignedTokenService signedTokenService;
 
     @InjectMocks
     private TokenService tokenService;
@@ -43,21 +59,23 @@ class TokenServiceTest {
     }
 
     @Test
-    void generateToken_ShouldCreateTokenWithCorrectFormat() {
-        String expectedEncryptedToken = "$2a$10$encrypted_token";
-        when(encryptService.encrypt(any(String.class))).thenReturn(expectedEncryptedToken);
+    void generateToken_ShouldReturnOpaqueTokenAndStoreOnlyItsDigest() {
         when(tokenRepository.save(any(Token.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         String actualToken = tokenService.generateToken(testUser);
 
-        assertEquals(expectedEncryptedToken, actualToken);
+        assertTrue(actualToken.matches("[A-Za-z0-9_-]{43}"));
 
         ArgumentCaptor<Token> tokenCaptor = ArgumentCaptor.forClass(Token.class);
         verify(tokenRepository).save(tokenCaptor.capture());
 
         Token savedToken = tokenCaptor.getValue();
-        assertEquals(expectedEncryptedToken, savedToken.getToken());
+        assertNotEquals(actualToken, savedToken.getToken());
+        assertEquals(tokenGenerator.lookupKey(actualToken), savedToken.getToken());
+        assertEquals(64, savedToken.getToken().length());
         assertEquals(testUser, savedToken.getUser());
+        assertEquals(testUser.getId(), savedToken.getUserId());
+        assertEquals("testuser", savedToken.getUsername());
         assertNotNull(savedToken.getExpiryDate());
 
         LocalDateTime now = LocalDateTime.now();
@@ -66,6 +84,34 @@ class TokenServiceTest {
         assertTrue(expiryDate.isBefore(now.plusMinutes(61)));
     }
 
+    @Test
+    void generateToken_ShouldNotReuseTokens() {
+        when(tokenRepository.save(any(Token.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertNotEquals(tokenService.generateToken(testUser), tokenService.generateToken(testUser));
+    }
+
+    @Test
+    void verifyToken_WithOpaqueToken_ShouldLookUpByDigest() throws Exception {
+        String tokenString = tokenGenerator.generate();
+        String digest = tokenGenerator.lookupKey(tokenString);
+        Token token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setToken(digest);
+        token.setUserId(testUser.getId());
+        token.setUsername("testuser");
+        token.setExpiryDate(LocalDateTime.now().plusMinutes(30));
+
+        when(tokenRepository.findByToken(digest)).thenReturn(Optional.of(token));
+
+        TokenVerifyResponse result = tokenService.verifyToken(tokenString);
+
+        assertTrue(result.isStatus());
+        assertEquals("testuser", result.getUsername());
+        verify(tokenRepository, never()).findByToken(tokenString);
+        verify(verifiedTokenCache).put(eq(digest), eq(token), any(LocalDateTime.class));
+    }
+
     @Test
     void verifyToken_WithValidToken_ShouldReturnDTOAndUpdateExpiry() throws Exception {
         String tokenString = "$2a$10$valid_token";
@@ -76,7 +122,6 @@ class TokenServiceTest {
         token.setExpiryDate(LocalDateTime.now().plusMinutes(30));
 
         when(tokenRepository.findByToken(tokenString)).thenReturn(Optional.of(token));
-        when(tokenRepository.save(any(Token.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         TokenVerifyResponse result = tokenService.verifyToken(tokenString);
 
@@ -85,7 +130,8 @@ class TokenServiceTest {
         assertEquals("testuser", result.getUsername());
         assertEquals("Token valid", result.getMessage());
 
-        verify(tokenRepository).save(any(Token.class));
+        verify(tokenExpiryWriter).extend(eq(token), any(LocalDateTime.class));
+        verify(tokenRepository, never()).save(any(Token.class));
     }
 
     @Test
@@ -106,6 +152,7 @@ class TokenServiceTest {
         );
 
         verify(tokenRepository).delete(token);
+        verify(tokenExpiryWriter).discard(token.getId());
     }
 
     @Test
@@ -131,7 +178,6 @@ class TokenServiceTest {
         token.setExpiryDate(LocalDateTime.now().plusMinutes(5));
 
         when(tokenRepository.findByToken(tokenString)).thenReturn(Optional.of(token));
-        when(tokenRepository.save(any(Token.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         LocalDateTime beforeCall = LocalDateTime.now();
 
@@ -139,16 +185,16 @@ class TokenServiceTest {
 
         LocalDateTime afterCall = LocalDateTime.now();
 
-        ArgumentCaptor<Token> tokenCaptor = ArgumentCaptor.forClass(Token.class);
-        verify(tokenRepository).save(tokenCaptor.capture());
+        ArgumentCaptor<LocalDateTime> expiryCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(tokenExpiryWriter).extend(eq(token), expiryCaptor.capture());
 
-        Token saved = tokenCaptor.getValue();
-        assertNotNull(saved.getExpiryDate());
+        LocalDateTime newExpiry = expiryCaptor.getValue();
+        assertNotNull(newExpiry);
 
         LocalDateTime minExpected = beforeCall.plusMinutes(59);
         LocalDateTime maxExpected = afterCall.plusMinutes(61);
-        assertTrue(saved.getExpiryDate().isAfter(minExpected));
-        assertTrue(saved.getExpiryDate().isBefore(maxExpected));
+        assertTrue(newExpiry.isAfter(minExpected));
+        assertTrue(newExpiry.isBefore(maxExpected));
 
         verify(tokenRepository, never()).delete(any(Token.class));
     }
@@ -163,24 +209,342 @@ class TokenServiceTest {
         token.setExpiryDate(LocalDateTime.now().plusSeconds(5));
 
         when(tokenRepository.findByToken(tokenString)).thenReturn(Optional.of(token));
-        when(tokenRepository.save(any(Token.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         TokenVerifyResponse result = tokenService.verifyToken(tokenString);
 
         assertTrue(result.isStatus());
-        verify(tokenRepository).save(any(Token.class));
+        verify(tokenExpiryWriter).extend(eq(token), any(LocalDateTime.class));
         verify(tokenRepository, never()).delete(any(Token.class));
     }
 
+    @Test
+    void verifyToken_WithCachedToken_ShouldNotQueryDatabase() throws Exception {
+        String tokenString = "$2a$10$cached_token";
+        Token token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setToken(tokenString);
+        token.setUser(testUser);
+        token.setExpiryDate(LocalDateTime.now().plusMinutes(40));
+
+        when(verifiedTokenCache.get(tokenString)).thenReturn(Optional.of(token));
+
+        TokenVerifyResponse result = tokenService.verifyToken(tokenString);
+
+        assertTrue(result.isStatus());
+        assertEquals("testuser", result.getUsername());
+        verify(tokenRepository, never()).findByToken(any());
+        verify(tokenExpiryWriter).extend(eq(token), any(LocalDateTime.class));
+        verify(verifiedTokenCache, never()).put(any(), any(), any());
+    }
+
+    @Test
+    void verifyToken_WithCachedTokenWrittenThrough_ShouldRefreshCache() throws Exception {
+        String tokenString = "$2a$10$cached_written_token";
+        Token token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setToken(tokenString);
+        token.setUsername("testuser");
+        token.setExpiryDate(LocalDateTime.now().minusMinutes(50).plusHours(1));
+
+        when(verifiedTokenCache.get(tokenString)).thenReturn(Optional.of(token));
+        doAnswer(invocation -> {
+            invocation.<Token>getArgument(0).setExpiryDate(invocation.getArgument(1));
+            return null;
+        }).when(tokenExpiryWriter).extend(any(Token.class), any(LocalDateTime.class));
+
+        tokenService.verifyToken(tokenString);
+
+        verify(verifiedTokenCache).put(eq(tokenString), eq(token), eq(token.getExpiryDate()));
+    }
+
+    @Test
+    void verifyToken_WithUncachedValidToken_ShouldPopulateCache() throws Exception {
+        String tokenString = "$2a$10$uncached_token";
+        Token token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setToken(tokenString);
+        token.setUser(testUser);
+        token.setExpiryDate(LocalDateTime.now().plusMinutes(40));
+
+        when(tokenRepository.findByToken(tokenString)).thenReturn(Optional.of(token));
+
+        tokenService.verifyToken(tokenString);
+
+        verify(verifiedTokenCache).put(eq(tokenString), eq(token), any(LocalDateTime.class));
+    }
+
+    @Test
+    void verifyToken_WithCachedExpiredToken_ShouldInvalidateCacheAndDelete() {
+        String tokenString = "$2a$10$cached_expired_token";
+        Token token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setToken(tokenString);
+        token.setUser(testUser);
+        token.setExpiryDate(LocalDateTime.now().minusSeconds(1));
+
+        when(verifiedTokenCache.get(tokenString)).thenReturn(Optional.of(token));
+
+        assertThrows(
+                fr.imt.nord.fisa.ti.gatcha.auth.exception.TokenExpiredException.class,
+                () -> tokenService.verifyToken(tokenString)
+        );
+
+        verify(verifiedTokenCache).invalidate(tokenString);
+        verify(tokenRepository).delete(token);
+    }
+
+    @Test
+    void verifyToken_WithDenormalizedOwner_ShouldNotResolveUserReference() throws Exception {
+        String tokenString = "$2a$10$denormalized_token";
+        Token token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setToken(tokenString);
+        token.setUserId(testUser.getId());
+        token.setUsername("testuser");
+        token.setExpiryDate(LocalDateTime.now().plusMinutes(30));
+
+        when(tokenRepository.findByToken(tokenString)).thenReturn(Optional.of(token));
+
+        TokenVerifyResponse result = tokenService.verifyToken(tokenString);
+
+        assertEquals("testuser", result.getUsername());
+        assertNull(token.getUser());
+        verify(tokenRepository, never()).updateOwnerById(any(), any(), any());
+    }
+
+    @Test
+    void verifyToken_WithLegacyToken_ShouldMigrateOwnerOnFirstRead() throws Exception {
+        String tokenString = "$2a$10$legacy_token";
+        Token token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setToken(tokenString);
+        token.setUser(testUser);
+        token.setExpiryDate(LocalDateTime.now().plusMinutes(30));
+
+        when(tokenRepository.findByToken(tokenString)).thenReturn(Optional.of(token));
+
+        TokenVerifyResponse result = tokenService.verifyToken(tokenString);
+
+        assertEquals("testuser", result.getUsername());
+        assertEquals("testuser", token.getUsername());
+        assertEquals(testUser.getId(), token.getUserId());
+        verify(tokenRepository).updateOwnerById(token.getId(), testUser.getId(), "testuser");
+    }
+
+    @Test
+    void verifyToken_WithLegacyTokenWithoutOwner_ShouldDeleteAndThrowNotFound() {
+        String tokenString = "$2a$10$orphan_token";
+        Token token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setToken(tokenString);
+        token.setExpiryDate(LocalDateTime.now().plusMinutes(30));
+
+        when(tokenRepository.findByToken(tokenString)).thenReturn(Optional.of(token));
+
+        assertThrows(
+                fr.imt.nord.fisa.ti.gatcha.auth.exception.TokenNotFoundException.class,
+                () -> tokenService.verifyToken(tokenString)
+        );
+
+        verify(verifiedTokenCache).invalidate(tokenString);
+        verify(tokenExpiryWriter).discard(token.getId());
+        verify(tokenRepository).delete(token);
+        verify(tokenRepository, never()).updateOwnerById(any(), any(), any());
+        verify(tokenExpiryWriter, never()).extend(any(), any());
+    }
+
+    @Test
+    void verifyToken_WithLegacyTokenWhoseOwnerWasDeleted_ShouldDeleteAndThrowNotFound() {
+        String tokenString = "$2a$10$deleted_owner_token";
+        Token token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setToken(tokenString);
+        // Proxy paresseux d'un utilisateur supprimé : les accesseurs retournent null
+        token.setUser(new User());
+        token.setExpiryDate(LocalDateTime.now().plusMinutes(30));
+
+        when(tokenRepository.findByToken(tokenString)).thenReturn(Optional.of(token));
+
+        assertThrows(
+                fr.imt.nord.fisa.ti.gatcha.auth.exception.TokenNotFoundException.class,
+                () -> tokenService.verifyToken(tokenString)
+        );
+
+        verify(tokenRepository).delete(token);
+    }
+
+    @Test
+    void verifyToken_WithStaleStoredExpiryButPendingExtension_ShouldBeTreatedAsValid() throws Exception {
+        String tokenString = "$2a$10$pending_token";
+        Token token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setToken(tokenString);
+        token.setUser(testUser);
+        token.setExpiryDate(LocalDateTime.now().minusSeconds(5));
+
+        when(tokenRepository.findByToken(tokenString)).thenReturn(Optional.of(token));
+        when(tokenExpiryWriter.pendingExpiry(token.getId())).thenReturn(Optional.of(LocalDateTime.now().plusMinutes(50)));
+
+        TokenVerifyResponse result = tokenService.verifyToken(tokenString);
+
+        assertTrue(result.isStatus());
+        verify(tokenExpiryWriter).extend(eq(token), any(LocalDateTime.class));
+        verify(tokenRepository, never()).delete(any(Token.class));
+    }
+
+    @Test
+    void generateToken_InSignedMode_ShouldIssueSignedTokenWithoutStoringIt() {
+        when(signedTokenService.isEnabled()).thenReturn(true);
+        when(signedTokenService.issue(testUser)).thenReturn("st1.payload.signature");
+
+        String token = tokenService.generateToken(testUser);
+
+        assertEquals("st1.payload.signature", token);
+        verify(tokenRepository, never()).save(any(Token.class));
+    }
+
+    @Test
+    void verifyToken_WithSignedToken_ShouldDelegateToSignedTokenService() throws Exception {
+        TokenVerifyResponse response = new TokenVerifyResponse();
+        response.setStatus(true);
+        response.setUsername("testuser");
+        when(signedTokenService.verify("st1.payload.signature")).thenReturn(response);
+
+        TokenVerifyResponse result = tokenService.verifyToken("st1.payload.signature");
+
+        assertSame(response, result);
+        verifyNoInteractions(tokenRepository, verifiedTokenCache, tokenExpiryWriter);
+    }
+
+    @Test
+    void revokeToken_WithOpaqueToken_ShouldDeleteItAndInvalidateCache() throws Exception {
+        String tokenString = tokenGenerator.generate();
+        String digest = tokenGenerator.lookupKey(tokenString);
+        Token token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setToken(digest);
+        token.setUsername("testuser");
+        when(tokenRepository.findByToken(digest)).thenReturn(Optional.of(token));
+
+        tokenService.revokeToken(tokenString);
+
+        verify(verifiedTokenCache).invalidate(digest);
+        verify(tokenExpiryWriter).discard(token.getId());
+        verify(tokenRepository).delete(token);
+    }
+
+    @Test
+    void revokeToken_WithUnknownOpaqueToken_ShouldThrow() {
+        assertThrows(
+                fr.imt.nord.fisa.ti.gatcha.auth.exception.TokenNotFoundException.class,
+                () -> tokenService.revokeToken("unknown")
+        );
+    }
+
+    @Test
+    void revokeToken_WithSignedToken_ShouldDelegateToSignedTokenService() throws Exception {
+        tokenService.revokeToken("st1.payload.signature");
+
+        verify(signedTokenService).revoke("st1.payload.signature");
+        verifyNoInteractions(tokenRepository);
+    }
+
+    @Test
+    void verifyTokens_ShouldUseOneLookupAndReturnVerdictsInRequestOrder() {
+        String validStr = tokenGenerator.generate();
+        String expiredStr = tokenGenerator.generate();
+        String unknownStr = tokenGenerator.generate();
+
+        Token valid = new Token();
+        valid.setId(UUID.randomUUID());
+        valid.setToken(tokenGenerator.lookupKey(validStr));
+        valid.setUsername("testuser");
+        valid.setExpiryDate(LocalDateTime.now().plusMinutes(30));
+
+        Token expired = new Token();
+        expired.setId(UUID.randomUUID());
+        expired.setToken(tokenGenerator.lookupKey(expiredStr));
+        expired.setUsername("other");
+        expired.setExpiryDate(LocalDateTime.now().minusMinutes(1));
+
+        when(tokenRepository.findByTokenIn(any())).thenReturn(List.of(valid, expired));
+
+        List<TokenVerdictDTO> verdicts = tokenService.verifyTokens(List.of(unknownStr, validStr, expiredStr));
+
+        assertEquals(3, verdicts.size());
+        assertEquals(unknownStr, verdicts.get(0).getToken());
+        assertFalse(verdicts.get(0).isStatus());
+        assertTrue(verdicts.get(1).isStatus());
+        assertEquals("testuser", verdicts.get(1).getUsername());
+        assertFalse(verdicts.get(2).isStatus());
+
+        verify(tokenRepository, times(1)).findByTokenIn(any());
+        verify(tokenRepository, never()).findByToken(any());
+        verify(tokenRepository).deleteAllById(Set.of(expired.getId()));
+        verify(tokenExpiryWriter).extendAll(argThat(tokens -> tokens.size() == 1 && tokens.contains(valid)), any(LocalDateTime.class));
+        verify(verifiedTokenCache).put(eq(valid.getToken()), eq(valid), any(LocalDateTime.class));
+    }
+
+    @Test
+    void verifyTokens_WithLegacyTokenWithoutOwner_ShouldReportNotFoundAndDelete() {
+        String orphanStr = tokenGenerator.generate();
+        Token orphan = new Token();
+        orphan.setId(UUID.randomUUID());
+        orphan.setToken(tokenGenerator.lookupKey(orphanStr));
+        orphan.setExpiryDate(LocalDateTime.now().plusMinutes(30));
+        when(tokenRepository.findByTokenIn(any())).thenReturn(List.of(orphan));
+
+        List<TokenVerdictDTO> verdicts = tokenService.verifyTokens(List.of(orphanStr));
+
+        assertFalse(verdicts.get(0).isStatus());
+        assertEquals(new fr.imt.nord.fisa.ti.gatcha.auth.exception.TokenNotFoundException().getMessage(),
+                verdicts.get(0).getMessage());
+        verify(tokenRepository).deleteAllById(Set.of(orphan.getId()));
+        verify(tokenExpiryWriter, never()).extendAll(any(), any());
+    }
+
+    @Test
+    void verifyTokens_WithSignedTokens_ShouldVerifyThemInOneCall() throws Exception {
+        String opaqueStr = tokenGenerator.generate();
+        when(signedTokenService.verifyAll(List.of("st1.a.sig", "st1.b.sig"))).thenReturn(Map.of(
+                "st1.a.sig", new TokenVerdictDTO("st1.a.sig", true, "testuser", "Token valid"),
+                "st1.b.sig", new TokenVerdictDTO("st1.b.sig", false, null, "Token expired")));
+
+        List<TokenVerdictDTO> verdicts = tokenService.verifyTokens(List.of("st1.a.sig", opaqueStr, "st1.b.sig"));
+
+        assertEquals(List.of("st1.a.sig", opaqueStr, "st1.b.sig"),
+                verdicts.stream().map(TokenVerdictDTO::getToken).toList());
+        assertTrue(verdicts.get(0).isStatus());
+        assertFalse(verdicts.get(1).isStatus());
+        assertFalse(verdicts.get(2).isStatus());
+        verify(signedTokenService, times(1)).verifyAll(any());
+        verify(signedTokenService, never()).verify(any());
+    }
+
+    @Test
+    void verifyTokens_WithAllTokensCached_ShouldNotQueryDatabase() {
+        String tokenStr = tokenGenerator.generate();
+        Token token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setToken(tokenGenerator.lookupKey(tokenStr));
+        token.setUsername("testuser");
+        token.setExpiryDate(LocalDateTime.now().plusMinutes(30));
+        when(verifiedTokenCache.get(token.getToken())).thenReturn(Optional.of(token));
+
+        List<TokenVerdictDTO> verdicts = tokenService.verifyTokens(List.of(tokenStr));
+
+        assertTrue(verdicts.get(0).isStatus());
+        verify(tokenRepository, never()).findByTokenIn(any());
+        verify(verifiedTokenCache, never()).put(any(), any(), any());
+    }
+
     @Test
     void generateToken_ShouldSaveTokenOnce_AndNotDeleteAnything() {
-        String expectedEncryptedToken = "$2a$10$encrypted_token";
-        when(encryptService.encrypt(any(String.class))).thenReturn(expectedEncryptedToken);
         when(tokenRepository.save(any(Token.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         tokenService.generateToken(testUser);
 
-        verify(encryptService, times(1)).encrypt(any(String.class));
+        verify(tokenGenerator, times(1)).generate();
         verify(tokenRepository, times(1)).save(any(Token.class));
         verify(tokenRepository, never()).delete(any(Token.class));
     }
@@ -3,7 +3,9 @@ package fr.imt.nord.fisa.ti.gatcha.auth.service;
 import fr.imt.nord.fisa.ti.gatcha.auth.dto.user.InputLoginDTO;
 import fr.imt.nord.fisa.ti.gatcha.auth.dto.user.InputRegisterDTO;
 import fr.imt.nord.fisa.ti.gatcha.auth.dto.user.OutputLoginDTO;
+import fr.imt.nord.fisa.ti.gatcha.auth.exception.HashingCapacityExceededException;
 import fr.imt.nord.fisa.ti.gatcha.auth.exception.InvalidCredentialsException;
+import fr.imt.nord.fisa.ti.gatcha.auth.exception.LoginThrottledException;
 import fr.imt.nord.fisa.ti.gatcha.auth.exception.UserAlreadyExistsException;
 import fr.imt.nord.fisa.ti.gatcha.auth.model.User;
 import fr.imt.nord.fisa.ti.gatcha.auth.repository.UserRepository;
@@ -23,6 +25,8 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
 
+    private static final String CLIENT_ADDRESS = "10.0.0.1";
+
     @Mock
     private UserRepository userRepository;
 
@@ -32,6 +36,9 @@ class UserServiceTest {
     @Mock
     private EncryptService encryptService;
 
+    @Mock
+    private LoginThrottleService loginThrottleService;
+
     @InjectMocks
     private UserService userService;
 
@@ -49,7 +56,7 @@ class UserServiceTest {
         when(encryptService.matches("pwd", "encryptedPwd")).thenReturn(true);
         when(tokenService.generateToken(user)).thenReturn("token123");
 
-        OutputLoginDTO out = userService.login(input);
+        OutputLoginDTO out = userService.login(input, CLIENT_ADDRESS);
 
         assertNotNull(out);
         assertEquals("token123", out.getToken());
@@ -61,6 +68,52 @@ class UserServiceTest {
         verifyNoMoreInteractions(tokenService);
     }
 
+    @Test
+    void login_WithHashUsingOutdatedCost_ShouldRehashPassword() throws Exception {
+        User user = new User();
+        user.setUsername("john");
+        user.setPassword("oldCostHash");
+
+        InputLoginDTO input = new InputLoginDTO();
+        input.setUsername("john");
+        input.setPassword("pwd");
+
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
+        when(encryptService.matches("pwd", "oldCostHash")).thenReturn(true);
+        when(encryptService.needsRehash("oldCostHash")).thenReturn(true);
+        when(encryptService.encrypt("pwd")).thenReturn("currentCostHash");
+        when(tokenService.generateToken(user)).thenReturn("token123");
+
+        OutputLoginDTO out = userService.login(input, CLIENT_ADDRESS);
+
+        assertEquals("token123", out.getToken());
+        assertEquals("currentCostHash", user.getPassword());
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    void login_WhenRehashRejected_ShouldStillSucceed() throws Exception {
+        User user = new User();
+        user.setUsername("john");
+        user.setPassword("oldCostHash");
+
+        InputLoginDTO input = new InputLoginDTO();
+        input.setUsername("john");
+        input.setPassword("pwd");
+
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
+        when(encryptService.matches("pwd", "oldCostHash")).thenReturn(true);
+        when(encryptService.needsRehash("oldCostHash")).thenReturn(true);
+        when(encryptService.encrypt("pwd")).thenThrow(new HashingCapacityExceededException(1));
+        when(tokenService.generateToken(user)).thenReturn("token123");
+
+        OutputLoginDTO out = userService.login(input, CLIENT_ADDRESS);
+
+        assertEquals("token123", out.getToken());
+        assertEquals("oldCostHash", user.getPassword());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
     @Test
     void login_WithUnknownUser_ShouldThrowInvalidCredentials_AndNotGenerateToken() {
         InputLoginDTO input = new InputLoginDTO();
@@ -69,7 +122,7 @@ class UserServiceTest {
 
         when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
 
-        assertThrows(InvalidCredentialsException.class, () -> userService.login(input));
+        assertThrows(InvalidCredentialsException.class, () -> userService.login(input, CLIENT_ADDRESS));
         verify(tokenService, never()).generateToken(any());
     }
 
@@ -86,11 +139,81 @@ class UserServiceTest {
         when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
         when(encryptService.matches("wrong", "encryptedCorrect")).thenReturn(false);
 
-        assertThrows(InvalidCredentialsException.class, () -> userService.login(input));
+        assertThrows(InvalidCredentialsException.class, () -> userService.login(input, CLIENT_ADDRESS));
         verify(encryptService, times(1)).matches("wrong", "encryptedCorrect");
         verify(tokenService, never()).generateToken(any());
     }
 
+    @Test
+    void login_WhenThrottled_ShouldRejectBeforePasswordCheck() throws Exception {
+        InputLoginDTO input = new InputLoginDTO();
+        input.setUsername("john");
+        input.setPassword("pwd");
+
+        doThrow(new LoginThrottledException(30)).when(loginThrottleService).checkAllowed("john", CLIENT_ADDRESS);
+
+        assertThrows(LoginThrottledException.class, () -> userService.login(input, CLIENT_ADDRESS));
+        verifyNoInteractions(userRepository, encryptService, tokenService);
+    }
+
+    @Test
+    void login_WithWrongPassword_ShouldRecordFailure() throws Exception {
+        User user = new User();
+        user.setUsername("john");
+        user.setPassword("encryptedCorrect");
+
+        InputLoginDTO input = new InputLoginDTO();
+        input.setUsername("john");
+        input.setPassword("wrong");
+
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
+        when(encryptService.matches("wrong", "encryptedCorrect")).thenReturn(false);
+
+        assertThrows(InvalidCredentialsException.class, () -> userService.login(input, CLIENT_ADDRESS));
+        verify(loginThrottleService).recordFailure("john", CLIENT_ADDRESS);
+        verify(loginThrottleService, never()).recordSuccess(any(), any());
+        verify(loginThrottleService, never()).release(any(), any());
+    }
+
+    @Test
+    void login_WithValidCredentials_ShouldRecordSuccess() throws Exception {
+        User user = new User();
+        user.setUsername("john");
+        user.setPassword("encryptedPwd");
+
+        InputLoginDTO input = new InputLoginDTO();
+        input.setUsername("john");
+        input.setPassword("pwd");
+
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
+        when(encryptService.matches("pwd", "encryptedPwd")).thenReturn(true);
+        when(tokenService.generateToken(user)).thenReturn("token123");
+
+        userService.login(input, CLIENT_ADDRESS);
+
+        verify(loginThrottleService).recordSuccess("john", CLIENT_ADDRESS);
+        verify(loginThrottleService, never()).recordFailure(any(), any());
+    }
+
+    @Test
+    void login_WhenHashingPoolSaturated_ShouldReleaseReservation() throws Exception {
+        User user = new User();
+        user.setUsername("john");
+        user.setPassword("encryptedPwd");
+
+        InputLoginDTO input = new InputLoginDTO();
+        input.setUsername("john");
+        input.setPassword("pwd");
+
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
+        when(encryptService.matches("pwd", "encryptedPwd")).thenThrow(new HashingCapacityExceededException(1));
+
+        assertThrows(HashingCapacityExceededException.class, () -> userService.login(input, CLIENT_ADDRESS));
+        verify(loginThrottleService).release("john", CLIENT_ADDRESS);
+        verify(loginThrottleService, never()).recordFailure(any(), any());
+        verify(loginThrottleService, never()).recordSuccess(any(), any());
+    }
+
     @Test
     void register_WhenUsernameAlreadyExists_ShouldThrow409_AndNotSaveOrGenerateToken() {
         InputRegisterDTO input = new InputRegisterDTO();
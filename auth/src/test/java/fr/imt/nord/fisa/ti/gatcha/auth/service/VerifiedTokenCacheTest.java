@@ -0,0 +1,101 @@
+package fr.imt.nord.fisa.ti.gatcha.auth.service;
+
+import fr.imt.nord.fisa.ti.gatcha.auth.model.Token;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(meterRegistry, true, 2, Duration.ofMinutes(1));
+    }
+
+    private Token token() {
+        Token token = new Token();
+        token.setId(UUID.randomUUID());
+        token.setExpiryDate(LocalDateTime.now().plusHours(1));
+        return token;
+    }
+
+    @Test
+    void get_AfterPut_ShouldHitAndCountMetrics() {
+        Token token = token();
+        cache.put("a", token, token.getExpiryDate());
+
+        Token cached = cache.get("a").orElseThrow();
+        assertNotSame(token, cached);
+        assertEquals(token.getId(), cached.getId());
+        assertEquals("a", cached.getToken());
+        assertTrue(cache.get("b").isEmpty());
+
+        assertEquals(1.0, meterRegistry.get("auth.token.cache.hits").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("auth.token.cache.misses").functionCounter().count());
+    }
+
+    @Test
+    void get_ShouldReturnIndependentCopies() {
+        Token token = token();
+        token.setUsername("testuser");
+        LocalDateTime expiry = token.getExpiryDate();
+        cache.put("a", token, expiry);
+
+        token.setExpiryDate(expiry.plusHours(2));
+        Token first = cache.get("a").orElseThrow();
+        first.setExpiryDate(expiry.plusHours(3));
+        first.setUsername("other");
+        Token second = cache.get("a").orElseThrow();
+
+        assertNotSame(first, second);
+        assertEquals(expiry, second.getExpiryDate());
+        assertEquals("testuser", second.getUsername());
+    }
+
+    @Test
+    void put_WithAlreadyExpiredToken_ShouldNotCache() {
+        Token token = token();
+        cache.put("a", token, LocalDateTime.now().minusSeconds(1));
+
+        assertTrue(cache.get("a").isEmpty());
+    }
+
+    @Test
+    void put_OverMaxSize_ShouldEvictLeastRecentlyUsed() {
+        cache.put("a", token(), LocalDateTime.now().plusHours(1));
+        cache.put("b", token(), LocalDateTime.now().plusHours(1));
+        cache.get("a");
+        cache.put("c", token(), LocalDateTime.now().plusHours(1));
+
+        assertTrue(cache.get("a").isPresent());
+        assertTrue(cache.get("b").isEmpty());
+        assertTrue(cache.get("c").isPresent());
+        assertEquals(1.0, meterRegistry.get("auth.token.cache.evictions").functionCounter().count());
+    }
+
+    @Test
+    void invalidate_ShouldRemoveEntry() {
+        cache.put("a", token(), LocalDateTime.now().plusHours(1));
+        cache.invalidate("a");
+
+        assertTrue(cache.get("a").isEmpty());
+    }
+
+    @Test
+    void get_WhenDisabled_ShouldAlwaysMiss() {
+        VerifiedTokenCache disabled = new VerifiedTokenCache(new SimpleMeterRegistry(), false, 10, Duration.ofMinutes(1));
+        disabled.put("a", token(), LocalDateTime.now().plusHours(1));
+
+        assertTrue(disabled.get("a").isEmpty());
+    }
+}
@@ -4,6 +4,7 @@ import fr.imt.nord.fisa.ti.gatcha.combat.dto.InputCombatDTO;
 import fr.imt.nord.fisa.ti.gatcha.combat.dto.OutputCombatDTO;
 import fr.imt.nord.fisa.ti.gatcha.combat.dto.OutputCombatSummaryDTO;
 import fr.imt.nord.fisa.ti.gatcha.combat.service.CombatService;
+import fr.imt.nord.fisa.ti.gatcha.common.web.JsonArrayStreamer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -17,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -28,6 +30,7 @@ import java.util.UUID;
 public class CombatController {
 
     private final CombatService combatService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     @PostMapping
     @Operation(summary = "Lancer un combat", description = "Démarre une simulation de combat tour par tour entre deux monstres spécifiés par leur ID.")
@@ -48,8 +51,8 @@ public class CombatController {
             @ApiResponse(responseCode = "200", description = "Liste des combats récupérée",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = OutputCombatSummaryDTO.class))))
     })
-    public ResponseEntity<List<OutputCombatSummaryDTO>> getCombatHistory() {
-        return ResponseEntity.ok(combatService.getCombatHistory());
+    public ResponseEntity<StreamingResponseBody> getCombatHistory() {
+        return jsonArrayStreamer.stream(combatService::getCombatHistory);
     }
 
     @GetMapping("/me")
@@ -6,11 +6,12 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface CombatRepository extends MongoRepository<Combat, UUID> {
 
     List<Combat> findByInitiatorUsernameOrderByCreatedAtDesc(String username);
 
-    List<Combat> findAllByOrderByCreatedAtDesc();
+    Stream<Combat> streamAllByOrderByCreatedAtDesc();
 }
@@ -18,6 +18,8 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Service principal de gestion des combats.
@@ -96,13 +98,12 @@ public class CombatService {
     }
 
     /**
-     * Récupère l'historique de tous les combats.
+     * Récupère l'historique de tous les combats, lu au fil d'un curseur MongoDB.
+     * Le flux retourné doit être fermé par l'appelant.
      */
-    public List<OutputCombatSummaryDTO> getCombatHistory() {
-        return combatRepository.findAllByOrderByCreatedAtDesc()
-                .stream()
-                .map(OutputCombatSummaryDTO::fromEntity)
-                .toList();
+    public Stream<OutputCombatSummaryDTO> getCombatHistory() {
+        return combatRepository.streamAllByOrderByCreatedAtDesc()
+                .map(OutputCombatSummaryDTO::fromEntity);
     }
 
     /**
@@ -127,17 +128,20 @@ public class CombatService {
 
     /**
      * Distribue les récompenses d'XP après un combat.
+     * Les trois appels sont indépendants et lancés en parallèle.
      */
     private void distributeRewards(UUID winnerId, UUID monster1Id, UUID monster2Id, String playerUsername) {
         try {
             UUID loserId = winnerId.equals(monster1Id) ? monster2Id : monster1Id;
 
-            // XP monstre vainqueur
-            monsterClientService.addExperienceReward(winnerId, WINNER_MONSTER_XP);
-            // XP monstre perdant
-            monsterClientService.addExperienceReward(loserId, LOSER_MONSTER_XP);
-            // XP joueur
-            playerClientService.addExperience(playerUsername, PLAYER_COMBAT_XP);
+            CompletableFuture.allOf(
+                    // XP monstre vainqueur
+                    monsterClientService.addExperienceRewardAsync(winnerId, WINNER_MONSTER_XP),
+                    // XP monstre perdant
+                    monsterClientService.addExperienceRewardAsync(loserId, LOSER_MONSTER_XP),
+                    // XP joueur
+                    playerClientService.addExperienceAsync(playerUsername, PLAYER_COMBAT_XP)
+            ).join();
 
             log.info("Récompenses distribuées pour le combat. Vainqueur: {}, Perdant: {}, Joueur: {}",
                     winnerId, loserId, playerUsername);
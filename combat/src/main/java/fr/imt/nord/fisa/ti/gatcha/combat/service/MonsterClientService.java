@@ -2,6 +2,7 @@ package fr.imt.nord.fisa.ti.gatcha.combat.service;
 
 import fr.imt.nord.fisa.ti.gatcha.combat.dto.MonsterResponse;
 import fr.imt.nord.fisa.ti.gatcha.common.client.HttpClient;
+import fr.imt.nord.fisa.ti.gatcha.common.resilience.DownstreamGuards;
 import fr.imt.nord.fisa.ti.gatcha.common.service.BaseClientService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Service;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service pour la communication avec l'API Monster.
@@ -20,8 +22,9 @@ public class MonsterClientService extends BaseClientService {
 
     public MonsterClientService(
             HttpClient httpClient,
+            DownstreamGuards downstreamGuards,
             @Value("${monster.service.url:http://localhost:8083}") String monsterServiceUrl) {
-        super(httpClient, monsterServiceUrl);
+        super(httpClient, downstreamGuards, "monster", monsterServiceUrl);
     }
 
     /**
@@ -29,12 +32,12 @@ public class MonsterClientService extends BaseClientService {
      */
     public List<MonsterResponse> getMonstersByIds(List<UUID> ids) {
         log.debug("Fetching monsters by IDs: {}", ids);
-        MonsterResponse[] response = httpClient.post(
+        MonsterResponse[] response = call(() -> httpClient.post(
                 serviceUrl,
                 "/monsters/batch",
                 ids,
                 MonsterResponse[].class
-        );
+        ));
         return response != null ? Arrays.asList(response) : List.of();
     }
 
@@ -43,15 +46,36 @@ public class MonsterClientService extends BaseClientService {
      */
     public void addExperienceReward(UUID monsterId, double amount) {
         try {
-            httpClient.post(
+            call(() -> httpClient.post(
                     serviceUrl,
                     "/monsters/" + monsterId + "/experience/reward?amount=" + amount,
                     null,
                     Void.class
-            );
+            ));
             log.info("Added {} XP reward to monster {}", amount, monsterId);
         } catch (Exception e) {
             log.error("Failed to add XP reward to monster {}: {}", monsterId, e.getMessage());
         }
     }
+
+    /**
+     * Ajoute de l'expérience à un monstre sans bloquer l'appelant. Le futur se termine
+     * normalement même si l'appel échoue (récompense best-effort).
+     */
+    public CompletableFuture<Void> addExperienceRewardAsync(UUID monsterId, double amount) {
+        return callAsync(() -> httpClient.postAsync(
+                        serviceUrl,
+                        "/monsters/" + monsterId + "/experience/reward?amount=" + amount,
+                        null,
+                        Void.class
+                ))
+                .handle((result, error) -> {
+                    if (error != null) {
+                        log.error("Failed to add XP reward to monster {}: {}", monsterId, error.getMessage());
+                    } else {
+                        log.info("Added {} XP reward to monster {}", amount, monsterId);
+                    }
+                    return null;
+                });
+    }
 }
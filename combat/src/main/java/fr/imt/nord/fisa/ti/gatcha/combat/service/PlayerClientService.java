@@ -1,11 +1,14 @@
 package fr.imt.nord.fisa.ti.gatcha.combat.service;
 
 import fr.imt.nord.fisa.ti.gatcha.common.client.HttpClient;
+import fr.imt.nord.fisa.ti.gatcha.common.resilience.DownstreamGuards;
 import fr.imt.nord.fisa.ti.gatcha.common.service.BaseClientService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service pour la communication avec l'API Player.
  */
@@ -15,8 +18,9 @@ public class PlayerClientService extends BaseClientService {
 
     public PlayerClientService(
             HttpClient httpClient,
+            DownstreamGuards downstreamGuards,
             @Value("${player.service.url:http://localhost:8082}") String playerServiceUrl) {
-        super(httpClient, playerServiceUrl);
+        super(httpClient, downstreamGuards, "player", playerServiceUrl);
     }
 
     /**
@@ -24,15 +28,36 @@ public class PlayerClientService extends BaseClientService {
      */
     public void addExperience(String username, double amount) {
         try {
-            httpClient.post(
+            call(() -> httpClient.post(
                     serviceUrl,
                     "/players/" + username + "/experience?amount=" + amount,
                     null,
                     Void.class
-            );
+            ));
             log.info("Added {} XP to player {}", amount, username);
         } catch (Exception e) {
             log.error("Failed to add XP to player {}: {}", username, e.getMessage());
         }
     }
+
+    /**
+     * Ajoute de l'expérience au joueur sans bloquer l'appelant. Le futur se termine
+     * normalement même si l'appel échoue (récompense best-effort).
+     */
+    public CompletableFuture<Void> addExperienceAsync(String username, double amount) {
+        return callAsync(() -> httpClient.postAsync(
+                        serviceUrl,
+                        "/players/" + username + "/experience?amount=" + amount,
+                        null,
+                        Void.class
+                ))
+                .handle((result, error) -> {
+                    if (error != null) {
+                        log.error("Failed to add XP to player {}: {}", username, error.getMessage());
+                    } else {
+                        log.info("Added {} XP to player {}", amount, username);
+                    }
+                    return null;
+                });
+    }
 }
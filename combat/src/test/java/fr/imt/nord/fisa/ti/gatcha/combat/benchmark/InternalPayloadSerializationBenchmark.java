@@ -0,0 +1,180 @@
+package fr.imt.nord.fisa.ti.gatcha.combat.benchmark;
+
+import fr.imt.nord.fisa.ti.gatcha.combat.dto.MonsterResponse;
+import fr.imt.nord.fisa.ti.gatcha.common.dto.CreateMonsterRequest;
+import fr.imt.nord.fisa.ti.gatcha.common.dto.PlayerResponse;
+import fr.imt.nord.fisa.ti.gatcha.common.model.ElementType;
+import fr.imt.nord.fisa.ti.gatcha.common.model.StatType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compare JSON et CBOR sur les payloads inter-services : taille sur le réseau et temps CPU
+ * de sérialisation / désérialisation par opération.
+ * <p>
+ * Payloads mesurés : la requête de création de monstre (invocation → monster), le profil d'un
+ * joueur (player → invocation) et la réponse de {@code /monsters/batch} (monster → combat) pour
+ * 2 et 50 monstres. Lancement :
+ * <pre>
+ * SERIALIZATION_BENCHMARK=true ./gradlew test --tests '*InternalPayloadSerializationBenchmark' -i
+ * </pre>
+ * Les résultats sont écrits sur la sortie standard ; ils dépendent de la machine et de la JVM.
+ */
+@EnabledIfEnvironmentVariable(named = "SERIALIZATION_BENCHMARK", matches = "true")
+class InternalPayloadSerializationBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 50_000;
+
+    private final ObjectMapper json = JsonMapper.builder().build();
+    private final ObjectMapper cbor = CBORMapper.builder().build();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Test
+    void createMonsterRequest() {
+        CreateMonsterRequest request = sampleCreateMonsterRequest();
+
+        Result jsonResult = measure(json, request, CreateMonsterRequest.class);
+        Result cborResult = measure(cbor, request, CreateMonsterRequest.class);
+
+        report("CreateMonsterRequest", jsonResult, cborResult);
+        assertEquals(request, cbor.readValue(cbor.writeValueAsBytes(request), CreateMonsterRequest.class));
+    }
+
+    @Test
+    void playerProfile() {
+        PlayerResponse profile = samplePlayerResponse();
+
+        Result jsonResult = measure(json, profile, PlayerResponse.class);
+        Result cborResult = measure(cbor, profile, PlayerResponse.class);
+
+        report("PlayerResponse (" + profile.getMonsters().size() + " monstres)", jsonResult, cborResult);
+        assertEquals(profile, cbor.readValue(cbor.writeValueAsBytes(profile), PlayerResponse.class));
+    }
+
+    @Test
+    void monsterBatchResponse() {
+        for (int size : new int[]{2, 50}) {
+            MonsterResponse[] batch = IntStream.range(0, size)
+                    .mapToObj(i -> sampleMonsterResponse())
+                    .toArray(MonsterResponse[]::new);
+
+            Result jsonResult = measure(json, batch, MonsterResponse[].class);
+            Result cborResult = measure(cbor, batch, MonsterResponse[].class);
+
+            report("/monsters/batch (" + size + " monstres)", jsonResult, cborResult);
+            assertArrayEquals(batch, cbor.readValue(cbor.writeValueAsBytes(batch), MonsterResponse[].class));
+        }
+    }
+
+    private <T> Result measure(ObjectMapper mapper, T payload, Class<T> type) {
+        byte[] bytes = mapper.writeValueAsBytes(payload);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(payload), type);
+        }
+
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(payload);
+        }
+        long serialization = threads.getCurrentThreadCpuTime() - start;
+
+        start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            mapper.readValue(bytes, type);
+        }
+        long deserialization = threads.getCurrentThreadCpuTime() - start;
+
+        return new Result(bytes.length, serialization / MEASURED_ITERATIONS, deserialization / MEASURED_ITERATIONS);
+    }
+
+    private static void report(String payload, Result json, Result cbor) {
+        System.out.printf("%s%n", payload);
+        System.out.printf("  JSON : %6d octets, sérialisation %6d ns/op, désérialisation %6d ns/op%n",
+                json.bytes(), json.serializationNanos(), json.deserializationNanos());
+        System.out.printf("  CBOR : %6d octets (%.0f %%), sérialisation %6d ns/op, désérialisation %6d ns/op%n",
+                cbor.bytes(), 100.0 * cbor.bytes() / json.bytes(),
+                cbor.serializationNanos(), cbor.deserializationNanos());
+    }
+
+    private static CreateMonsterRequest sampleCreateMonsterRequest() {
+        return CreateMonsterRequest.builder()
+                .templateId(5)
+                .element(ElementType.FIRE)
+                .hp(1200)
+                .atk(450)
+                .def(300)
+                .vit(85)
+                .skills(IntStream.rangeClosed(1, 3)
+                        .mapToObj(num -> CreateMonsterRequest.SkillDTO.builder()
+                                .num(num)
+                                .dmg(100 * num)
+                                .ratio(CreateMonsterRequest.RatioDTO.builder().stat("ATK").percent(0.25 * num).build())
+                                .cooldown(num - 1)
+                                .lvl(1)
+                                .lvlMax(5)
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private static PlayerResponse samplePlayerResponse() {
+        return PlayerResponse.builder()
+                .id(UUID.randomUUID())
+                .username("player-benchmark")
+                .level(12)
+                .experience(340.5)
+                .experienceStep(575.25)
+                .monsters(IntStream.range(0, 15).mapToObj(i -> UUID.randomUUID()).toList())
+                .maxMonsters(22)
+                .build();
+    }
+
+    private static MonsterResponse sampleMonsterResponse() {
+        return MonsterResponse.builder()
+                .id(UUID.randomUUID())
+                .templateId(5)
+                .ownerUsername("player-benchmark")
+                .name("Salamandre")
+                .element(ElementType.FIRE)
+                .hp(1200)
+                .atk(450)
+                .def(300)
+                .vit(85)
+                .level(12)
+                .experience(340.5)
+                .experienceToNextLevel(575.25)
+                .skillPoints(3)
+                .skills(List.of(
+                        skill(1, StatType.ATK),
+                        skill(2, StatType.DEF),
+                        skill(3, StatType.HP)))
+                .build();
+    }
+
+    private static MonsterResponse.SkillResponse skill(int num, StatType stat) {
+        return MonsterResponse.SkillResponse.builder()
+                .num(num)
+                .dmg(100 * num)
+                .ratio(MonsterResponse.RatioResponse.builder().stat(stat).percent(0.25 * num).build())
+                .cooldown(num - 1)
+                .lvl(1)
+                .lvlMax(5)
+                .build();
+    }
+
+    private record Result(int bytes, long serializationNanos, long deserializationNanos) {
+    }
+}
@@ -15,11 +15,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -78,14 +79,16 @@ class CombatServiceTest {
     @Test
     @DisplayName("getCombatHistory - Retourner tous les combats")
     void getCombatHistory_Success() {
-        when(combatRepository.findAllByOrderByCreatedAtDesc()).thenReturn(Collections.singletonList(testCombat));
+        when(combatRepository.streamAllByOrderByCreatedAtDesc()).thenReturn(Stream.of(testCombat));
 
-        List<OutputCombatSummaryDTO> result = combatService.getCombatHistory();
+        List<OutputCombatSummaryDTO> result;
+        try (Stream<OutputCombatSummaryDTO> history = combatService.getCombatHistory()) {
+            result = history.toList();
+        }
 
-        assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(combatId, result.getFirst().getId());
-        verify(combatRepository).findAllByOrderByCreatedAtDesc();
+        verify(combatRepository).streamAllByOrderByCreatedAtDesc();
     }
 
     @Test
@@ -136,13 +139,19 @@ class CombatServiceTest {
             return c;
         });
 
-        Mockito.lenient().doNothing().when(monsterClientService).addExperienceReward(any(), anyDouble());
+        when(monsterClientService.addExperienceRewardAsync(any(), anyDouble()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(playerClientService.addExperienceAsync(any(), anyDouble()))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
         OutputCombatDTO result = combatService.startCombat(monster1Id, monster2Id);
 
         assertNotNull(result);
         verify(combatRepository).save(any(Combat.class));
         verify(combatSimulator).simulate(any(), any());
+        verify(monsterClientService).addExperienceRewardAsync(monster1Id, 100.0);
+        verify(monsterClientService).addExperienceRewardAsync(monster2Id, 30.0);
+        verify(playerClientService).addExperienceAsync(initiatorUsername, 25.0);
     }
 
     private MonsterResponse createMockMonsterResponse(UUID id, String owner) {
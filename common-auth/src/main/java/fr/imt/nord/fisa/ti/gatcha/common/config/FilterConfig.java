@@ -12,6 +12,7 @@ public class FilterConfig {
     public FilterRegistrationBean<TokenValidationFilter> tokenFilter(TokenValidationFilter filter) {
         FilterRegistrationBean<TokenValidationFilter> registration = new FilterRegistrationBean<>();
         registration.setFilter(filter);
+        // Après DeadlineFilter et CompressionFilter, avant IdempotencyFilter (réponses rejouées par utilisateur)
         registration.setOrder(1);
         return registration;
     }
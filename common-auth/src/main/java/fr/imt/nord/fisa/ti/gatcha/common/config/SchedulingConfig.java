@@ -0,0 +1,12 @@
+package fr.imt.nord.fisa.ti.gatcha.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les tâches planifiées (rafraîchissement de la liste de révocation, etc.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,11 @@
+package fr.imt.nord.fisa.ti.gatcha.common.exception;
+
+/**
+ * Le service auth a explicitement refusé le token (inconnu, expiré ou révoqué),
+ * par opposition à une erreur de communication avec auth.
+ */
+public class TokenRejectedException extends TokenValidationException {
+    public TokenRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,117 @@
+package fr.imt.nord.fisa.ti.gatcha.common.filter;
+
+import fr.imt.nord.fisa.ti.gatcha.common.context.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fixe l'échéance de chaque requête ({@link RequestDeadline}).
+ * <p>
+ * Le budget vient de l'en-tête {@value RequestDeadline#HEADER} posé par le service appelant,
+ * plafonné à {@code request.deadline.max}, ou à défaut du budget par défaut de l'endpoint
+ * ({@code request.deadline.endpoints}, sous la forme {@code /combats/**=5s,/invocations/**=8s})
+ * ou global ({@code request.deadline.default}). Une requête qui arrive avec un budget épuisé
+ * reçoit 504 sans être traitée.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Duration defaultBudget;
+    private final Duration maxBudget;
+    private final Map<String, Duration> endpointBudgets;
+    private final Counter expiredOnArrival;
+
+    public DeadlineFilter(
+            MeterRegistry meterRegistry,
+            @Value("${request.deadline.default:10s}") Duration defaultBudget,
+            @Value("${request.deadline.max:30s}") Duration maxBudget,
+            @Value("${request.deadline.endpoints:}") String endpointBudgetsConfig) {
+        this.defaultBudget = defaultBudget;
+        this.maxBudget = maxBudget;
+        this.endpointBudgets = parseEndpointBudgets(endpointBudgetsConfig);
+        this.expiredOnArrival = Counter.builder("http.server.deadline.expired")
+                .description("Requêtes reçues avec une échéance déjà dépassée")
+                .register(meterRegistry);
+        log.info("DeadlineFilter initialized (default: {}, max: {}, endpoints: {})",
+                defaultBudget, maxBudget, endpointBudgets);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Duration budget = budgetFor(request);
+        if (budget.isNegative() || budget.isZero()) {
+            expiredOnArrival.increment();
+            log.warn("Request {} {} received with an exhausted deadline", request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Request deadline exceeded\"}");
+            return;
+        }
+
+        RequestDeadline.set(budget);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    private Duration budgetFor(HttpServletRequest request) {
+        String header = request.getHeader(RequestDeadline.HEADER);
+        if (header != null) {
+            try {
+                Duration propagated = Duration.ofMillis(Long.parseLong(header.trim()));
+                return propagated.compareTo(maxBudget) < 0 ? propagated : maxBudget;
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring malformed {} header: {}", RequestDeadline.HEADER, header);
+            }
+        }
+        String path = request.getRequestURI();
+        return endpointBudgets.entrySet().stream()
+                .filter(entry -> pathMatcher.match(entry.getKey(), path))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(defaultBudget);
+    }
+
+    private static Map<String, Duration> parseEndpointBudgets(String config) {
+        Map<String, Duration> budgets = new LinkedHashMap<>();
+        if (config == null || config.isBlank()) {
+            return budgets;
+        }
+        for (String entry : config.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid request.deadline.endpoints entry: " + entry);
+            }
+            budgets.put(entry.substring(0, separator).trim(),
+                    DurationStyle.detectAndParse(entry.substring(separator + 1).trim()));
+        }
+        return budgets;
+    }
+}
@@ -0,0 +1,175 @@
+package fr.imt.nord.fisa.ti.gatcha.common.filter;
+
+import fr.imt.nord.fisa.ti.gatcha.common.cache.ExpiringCache;
+import fr.imt.nord.fisa.ti.gatcha.common.client.HttpClient;
+import fr.imt.nord.fisa.ti.gatcha.common.context.RequestDeadline;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Déduplication des requêtes rejouées portant un en-tête {@value HttpClient#IDEMPOTENCY_KEY_HEADER}.
+ * <p>
+ * La première requête est exécutée normalement ; si elle réussit (2xx), sa réponse est conservée
+ * pendant {@code idempotency.ttl} et renvoyée telle quelle aux requêtes suivantes portant la même
+ * clé (même méthode, même URI, même en-tête Authorization), sans réexécuter l'opération. Les réponses
+ * en erreur ne sont pas conservées, pour que l'appelant puisse réessayer.
+ * <p>
+ * Une requête reçue pendant que la première est encore en cours (retry d'un appel dont la réponse
+ * a expiré côté appelant) attend la fin de celle-ci, au plus {@code idempotency.in-progress-wait}
+ * et dans la limite de son échéance, puis renvoie sa réponse ; si la première échoue, elle est
+ * exécutée à son tour. Si l'attente ne suffit pas, elle reçoit 503 avec {@code Retry-After},
+ * que {@link HttpClient} rejoue comme une erreur transitoire.
+ * <p>
+ * Le stockage est en mémoire : la déduplication vaut pour une instance du service.
+ * S'exécute après {@link TokenValidationFilter}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("POST", "PUT", "PATCH");
+
+    private final boolean enabled;
+    private final ExpiringCache<String, StoredResponse> responses;
+    private final Duration inProgressWait;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inProgress = new ConcurrentHashMap<>();
+
+    public IdempotencyFilter(
+            @Value("${idempotency.enabled:true}") boolean enabled,
+            @Value("${idempotency.max-entries:10000}") int maxEntries,
+            @Value("${idempotency.ttl:10m}") Duration ttl,
+            @Value("${idempotency.in-progress-wait:2s}") Duration inProgressWait) {
+        this.enabled = enabled;
+        this.responses = new ExpiringCache<>(maxEntries, ttl);
+        this.inProgressWait = inProgressWait;
+        log.info("IdempotencyFilter initialized (enabled: {}, ttl: {}, in-progress wait: {})",
+                enabled, ttl, inProgressWait);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !IDEMPOTENT_METHODS.contains(request.getMethod())
+                || request.getHeader(HttpClient.IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String key = request.getMethod() + " " + request.getRequestURI() + "\n"
+                + request.getHeader("Authorization") + "\n"
+                + request.getHeader(HttpClient.IDEMPOTENCY_KEY_HEADER);
+
+        long waitDeadline = System.nanoTime() + waitBudget().toNanos();
+        while (true) {
+            StoredResponse stored = responses.get(key);
+            if (stored != null) {
+                replay(request, response, stored);
+                return;
+            }
+
+            CompletableFuture<StoredResponse> attempt = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inProgress.putIfAbsent(key, attempt);
+            if (running == null) {
+                execute(key, attempt, request, response, filterChain);
+                return;
+            }
+
+            try {
+                StoredResponse outcome = running.get(Math.max(waitDeadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                if (outcome != null) {
+                    replay(request, response, outcome);
+                    return;
+                }
+                // La première tentative n'a pas abouti : cette requête l'exécute à son tour
+            } catch (TimeoutException e) {
+                rejectInProgress(request, response);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejectInProgress(request, response);
+                return;
+            } catch (ExecutionException e) {
+                // Jamais complétée en erreur : traitée comme une tentative sans réponse conservée
+            }
+        }
+    }
+
+    private void execute(String key, CompletableFuture<StoredResponse> attempt, HttpServletRequest request,
+                         HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        StoredResponse stored = null;
+        try {
+            filterChain.doFilter(request, wrapper);
+            int status = wrapper.getStatus();
+            if (status >= 200 && status < 300) {
+                stored = new StoredResponse(status, wrapper.getContentType(), wrapper.getContentAsByteArray());
+                responses.put(key, stored);
+            }
+        } finally {
+            inProgress.remove(key, attempt);
+            attempt.complete(stored);
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Attente maximale d'une tentative en cours, plafonnée au budget restant de la requête.
+     */
+    private Duration waitBudget() {
+        return RequestDeadline.remaining()
+                .filter(left -> left.compareTo(inProgressWait) < 0)
+                .orElse(inProgressWait);
+    }
+
+    private static void replay(HttpServletRequest request, HttpServletResponse response, StoredResponse stored)
+            throws IOException {
+        log.info("Replaying stored response for idempotent request {} {}", request.getMethod(), request.getRequestURI());
+        stored.writeTo(response);
+    }
+
+    private static void rejectInProgress(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("Idempotent request {} {} still in progress, asking the caller to retry",
+                request.getMethod(), request.getRequestURI());
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\":\"A request with this idempotency key is still in progress\"}");
+    }
+
+    private record StoredResponse(int status, String contentType, byte[] body) {
+        void writeTo(HttpServletResponse response) throws IOException {
+            response.setStatus(status);
+            if (contentType != null) {
+                response.setContentType(contentType);
+            }
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package fr.imt.nord.fisa.ti.gatcha.common.filter;
 
 import fr.imt.nord.fisa.ti.gatcha.common.context.SecurityContext;
+import fr.imt.nord.fisa.ti.gatcha.common.exception.TokenValidationException;
+import fr.imt.nord.fisa.ti.gatcha.common.security.InternalAssertionService;
 import fr.imt.nord.fisa.ti.gatcha.common.service.AuthServiceClient;
+import fr.imt.nord.fisa.ti.gatcha.common.service.LocalTokenVerifier;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +19,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Component
@@ -30,13 +34,19 @@ public class TokenValidationFilter extends OncePerRequestFilter {
             "/health"
     );
     private final AuthServiceClient authServiceClient;
+    private final LocalTokenVerifier localTokenVerifier;
+    private final InternalAssertionService internalAssertionService;
     private final AntPathMatcher pathMatcher = new AntPathMatcher();
     private final List<String> excludedPaths;
 
     public TokenValidationFilter(
             AuthServiceClient authServiceClient,
+            LocalTokenVerifier localTokenVerifier,
+            InternalAssertionService internalAssertionService,
             @Value("${auth.filter.excluded.paths:}") String excludedPathsConfig) {
         this.authServiceClient = authServiceClient;
+        this.localTokenVerifier = localTokenVerifier;
+        this.internalAssertionService = internalAssertionService;
         if (excludedPathsConfig != null && !excludedPathsConfig.trim().isEmpty()) {
             this.excludedPaths = Arrays.asList(excludedPathsConfig.split(","));
         } else {
@@ -63,7 +73,7 @@ public class TokenValidationFilter extends OncePerRequestFilter {
             return;
         }
 
-        if (!authServiceClient.isTokenValid(token)) {
+        if (!isTokenValid(token, request.getHeader(InternalAssertionService.HEADER))) {
             log.warn("Invalid token for path: {}", path);
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("{\"error\":\"Invalid token\"}");
@@ -84,6 +94,30 @@ public class TokenValidationFilter extends OncePerRequestFilter {
                 DEFAULT_EXCLUDED_PATHS.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
     }
 
+    /**
+     * Vérifie le token localement quand c'est possible (assertion interne d'un autre service,
+     * token signé), sinon auprès d'auth.
+     */
+    private boolean isTokenValid(String token, String internalAssertion) {
+        Optional<String> assertedUsername = internalAssertionService.verify(internalAssertion, token);
+        if (assertedUsername.isPresent()) {
+            log.debug("Token accepted from internal assertion for user: {}", assertedUsername.get());
+            SecurityContext.set(token, assertedUsername.get());
+            return true;
+        }
+        try {
+            Optional<String> username = localTokenVerifier.verify(token);
+            if (username.isPresent()) {
+                SecurityContext.set(token, username.get());
+                return true;
+            }
+        } catch (TokenValidationException e) {
+            log.debug("Local token validation failed: {}", e.getMessage());
+            return false;
+        }
+        return authServiceClient.isTokenValid(token);
+    }
+
     private String extractToken(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
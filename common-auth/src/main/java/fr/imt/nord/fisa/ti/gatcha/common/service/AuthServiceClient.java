@@ -1,27 +1,148 @@
 package fr.imt.nord.fisa.ti.gatcha.common.service;
 
+import fr.imt.nord.fisa.ti.gatcha.common.cache.ExpiringCache;
+import fr.imt.nord.fisa.ti.gatcha.common.client.RestClientRegistry;
 import fr.imt.nord.fisa.ti.gatcha.common.context.SecurityContext;
+import fr.imt.nord.fisa.ti.gatcha.common.dto.TokenRevocation;
 import fr.imt.nord.fisa.ti.gatcha.common.dto.TokenVerifyResponse;
+import fr.imt.nord.fisa.ti.gatcha.common.exception.TokenRejectedException;
 import fr.imt.nord.fisa.ti.gatcha.common.exception.TokenValidationException;
+import fr.imt.nord.fisa.ti.gatcha.common.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientResponseException;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Client du service auth.
+ * <p>
+ * Les verdicts sont mis en cache localement : un token valide est accepté sans appel à auth
+ * pendant {@code auth.client.cache.ttl}, un token refusé par auth est refusé sans appel pendant
+ * {@code auth.client.cache.negative-ttl} (plus court, pour amortir les rafales de tokens invalides).
+ * Seuls les refus explicites d'auth sont mis en cache, pas les erreurs de communication.
+ * <p>
+ * Le cache n'est pas informé des révocations : un token opaque révoqué via {@code /tokens/revoke}
+ * reste accepté par ce service jusqu'à l'expiration de son entrée ({@code auth.client.cache.ttl},
+ * plus {@code auth.client.stale-while-revalidate.grace} si ce mode est actif). Les tokens signés
+ * révoqués sont, eux, refusés dès le rafraîchissement suivant de la liste de révocation
+ * ({@link LocalTokenVerifier}). Réduire le TTL raccourcit d'autant ce délai.
+ * <p>
+ * Les vérifications concurrentes d'un même token absent du cache sont regroupées : un seul
+ * appel à auth est émis, les autres threads attendent son résultat (au plus
+ * {@code auth.client.single-flight.timeout}).
+ * <p>
+ * Les appels à auth passent par le pool de connexions partagé ({@link RestClientRegistry}),
+ * sont bornés par un timeout de lecture dédié et passent par un
+ * {@link CircuitBreaker} : quand auth ne répond plus, les vérifications échouent immédiatement
+ * au lieu d'immobiliser les threads de requête. En mode stale-while-revalidate, un token dont
+ * l'entrée de cache vient d'expirer reste accepté pendant {@code auth.client.stale-while-revalidate.grace}
+ * pendant qu'une vérification est relancée en arrière-plan.
+ */
 @Slf4j
 @Service
 public class AuthServiceClient {
 
     private final RestClient restClient;
     private final String authServiceUrl;
+    private final boolean cacheEnabled;
+    private final ExpiringCache<String, String> validTokens;
+    private final ExpiringCache<String, String> rejectedTokens;
+    private final ConcurrentHashMap<String, CompletableFuture<TokenVerifyResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Duration singleFlightTimeout;
+    private final Counter deduplicated;
+
+    private final CircuitBreaker circuitBreaker;
+    private final Counter breakerRejected;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean staleWhileRevalidate;
+    private final ExpiringCache<String, String> staleTokens;
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter staleServed;
+
+    @Autowired
+    public AuthServiceClient(
+            MeterRegistry meterRegistry,
+            RestClientRegistry restClientRegistry,
+            @Value("${auth.service.url:http://localhost:8080}") String authServiceUrl,
+            @Value("${auth.client.cache.enabled:true}") boolean cacheEnabled,
+            @Value("${auth.client.cache.max-size:10000}") int maxSize,
+            @Value("${auth.client.cache.ttl:30s}") Duration ttl,
+            @Value("${auth.client.cache.negative-ttl:5s}") Duration negativeTtl,
+            @Value("${auth.client.single-flight.timeout:5s}") Duration singleFlightTimeout,
+            @Value("${auth.client.read-timeout:2s}") Duration readTimeout,
+            @Value("${auth.client.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${auth.client.circuit-breaker.open-duration:10s}") Duration openDuration,
+            @Value("${auth.client.stale-while-revalidate.enabled:false}") boolean staleWhileRevalidate,
+            @Value("${auth.client.stale-while-revalidate.grace:60s}") Duration staleGrace) {
+        this(meterRegistry, restClientRegistry, authServiceUrl, cacheEnabled, maxSize, ttl, negativeTtl,
+                singleFlightTimeout, readTimeout, failureThreshold, openDuration, staleWhileRevalidate, staleGrace,
+                System::nanoTime);
+    }
 
-    public AuthServiceClient(@Value("${auth.service.url:http://localhost:8080}") String authServiceUrl) {
+    /**
+     * @param clock source de temps des caches en nanosecondes (remplaçable dans les tests)
+     */
+    AuthServiceClient(MeterRegistry meterRegistry, RestClientRegistry restClientRegistry, String authServiceUrl,
+                      boolean cacheEnabled, int maxSize, Duration ttl, Duration negativeTtl,
+                      Duration singleFlightTimeout, Duration readTimeout, int failureThreshold,
+                      Duration openDuration, boolean staleWhileRevalidate, Duration staleGrace, LongSupplier clock) {
         this.authServiceUrl = authServiceUrl;
-        this.restClient = RestClient.builder()
-                .baseUrl(authServiceUrl)
-                .build();
+        this.restClient = restClientRegistry.get(authServiceUrl, readTimeout);
+        this.meterRegistry = meterRegistry;
+        this.cacheEnabled = cacheEnabled;
+        this.validTokens = new ExpiringCache<>(maxSize, ttl, clock);
+        this.rejectedTokens = new ExpiringCache<>(maxSize, negativeTtl, clock);
+        this.singleFlightTimeout = singleFlightTimeout;
+        this.staleWhileRevalidate = cacheEnabled && staleWhileRevalidate;
+        this.staleTokens = new ExpiringCache<>(maxSize, ttl.plus(staleGrace), clock);
+
+        registerCacheMetrics(meterRegistry, validTokens, "valid");
+        registerCacheMetrics(meterRegistry, rejectedTokens, "rejected");
+        registerCacheMetrics(meterRegistry, staleTokens, "stale");
+        this.deduplicated = Counter.builder("auth.client.verify.deduplicated")
+                .description("Vérifications servies par un appel à auth déjà en cours pour le même token")
+                .register(meterRegistry);
+        Gauge.builder("auth.client.verify.in-flight", inFlight, ConcurrentHashMap::size)
+                .description("Appels à /tokens/verify en cours")
+                .register(meterRegistry);
+        this.staleServed = Counter.builder("auth.client.cache.stale.served")
+                .description("Tokens acceptés sur une entrée expirée pendant leur revalidation")
+                .register(meterRegistry);
+
+        this.circuitBreaker = new CircuitBreaker("auth", failureThreshold, openDuration);
+        this.circuitBreaker.addListener(this::onBreakerStateChange);
+        this.breakerRejected = Counter.builder("auth.client.circuit-breaker.rejected")
+                .description("Vérifications refusées sans appel car le disjoncteur est ouvert")
+                .register(meterRegistry);
+        Gauge.builder("auth.client.circuit-breaker.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("État du disjoncteur vers auth (0 = fermé, 1 = semi-ouvert, 2 = ouvert)")
+                .register(meterRegistry);
+
+        log.info("AuthServiceClient initialized (url: {}, cache enabled: {}, ttl: {}, negative ttl: {}, "
+                        + "read timeout: {}, stale-while-revalidate: {})",
+                authServiceUrl, cacheEnabled, ttl, negativeTtl, readTimeout, this.staleWhileRevalidate);
     }
 
     private void setCurrentTokenAndUsername(String token, String username) {
@@ -30,13 +151,136 @@ public class AuthServiceClient {
     }
 
     /**
-     * Vérifie la validité d'un token auprès de l'API auth
+     * Vérifie la validité d'un token, depuis le cache local ou auprès de l'API auth
      *
      * @param token Le token à vérifier
      * @return TokenVerifyResponse avec les informations de validation
      * @throws TokenValidationException si le token est invalide ou expiré
      */
     public TokenVerifyResponse verifyToken(String token) {
+        if (cacheEnabled) {
+            String cachedUsername = validTokens.get(token);
+            if (cachedUsername != null) {
+                setCurrentTokenAndUsername(token, cachedUsername);
+                return validResponse(cachedUsername);
+            }
+            String cachedRejection = rejectedTokens.get(token);
+            if (cachedRejection != null) {
+                throw new TokenRejectedException(cachedRejection);
+            }
+            if (staleWhileRevalidate) {
+                String staleUsername = staleTokens.get(token);
+                if (staleUsername != null) {
+                    staleServed.increment();
+                    refreshInBackground(token);
+                    setCurrentTokenAndUsername(token, staleUsername);
+                    return validResponse(staleUsername);
+                }
+            }
+        }
+
+        TokenVerifyResponse response = verifyShared(token);
+        setCurrentTokenAndUsername(token, response.getUsername());
+        return response;
+    }
+
+    /**
+     * Vérifie un token auprès d'auth, en partageant l'appel avec les autres threads
+     * qui vérifient le même token au même moment.
+     */
+    private TokenVerifyResponse verifyShared(String token) {
+        CompletableFuture<TokenVerifyResponse> pending = new CompletableFuture<>();
+        CompletableFuture<TokenVerifyResponse> existing = inFlight.putIfAbsent(token, pending);
+        if (existing != null) {
+            deduplicated.increment();
+            return await(existing);
+        }
+
+        try {
+            TokenVerifyResponse response = verifyRemotely(token);
+            if (cacheEnabled) {
+                validTokens.put(token, response.getUsername());
+            }
+            if (staleWhileRevalidate) {
+                staleTokens.put(token, response.getUsername());
+            }
+            log.info("Token validated successfully for user: {}", response.getUsername());
+            pending.complete(response);
+            return response;
+        } catch (TokenValidationException e) {
+            if (cacheEnabled && e instanceof TokenRejectedException) {
+                rejectedTokens.put(token, e.getMessage());
+                staleTokens.invalidate(token);
+            }
+            pending.completeExceptionally(e);
+            throw e;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(token, pending);
+        }
+    }
+
+    private TokenVerifyResponse await(CompletableFuture<TokenVerifyResponse> shared) {
+        try {
+            return shared.get(singleFlightTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new TokenValidationException("Timed out waiting for token verification", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TokenValidationException("Interrupted while waiting for token verification", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TokenRejectedException rejected) {
+                throw new TokenRejectedException(rejected.getMessage());
+            }
+            throw new TokenValidationException("Token verification failed", e.getCause());
+        }
+    }
+
+    /**
+     * Relance la vérification d'un token servi depuis une entrée expirée, sauf si
+     * une vérification de ce token est déjà en cours.
+     */
+    private void refreshInBackground(String token) {
+        if (inFlight.containsKey(token)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                verifyShared(token);
+            } catch (TokenRejectedException e) {
+                log.info("Stale token rejected on revalidation: {}", e.getMessage());
+            } catch (RuntimeException e) {
+                log.debug("Background token revalidation failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Vérifie un token auprès de l'API auth, sans cache, à travers le disjoncteur.
+     * Un refus explicite prouve qu'auth répond et ne compte pas comme un échec.
+     */
+    private TokenVerifyResponse verifyRemotely(String token) {
+        Optional<CircuitBreaker.Permit> permit = circuitBreaker.tryAcquire();
+        if (permit.isEmpty()) {
+            breakerRejected.increment();
+            throw new TokenValidationException("Auth service unavailable: circuit breaker open");
+        }
+        try {
+            TokenVerifyResponse response = callAuthService(token);
+            circuitBreaker.onSuccess(permit.get());
+            return response;
+        } catch (TokenRejectedException e) {
+            circuitBreaker.onSuccess(permit.get());
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure(permit.get());
+            throw e;
+        }
+    }
+
+    private TokenVerifyResponse callAuthService(String token) {
         log.debug("Verifying token with auth service at: {}", authServiceUrl);
 
         try {
@@ -44,18 +288,20 @@ public class AuthServiceClient {
                     .uri("/tokens/verify")
                     .header("Authorization", "Bearer " + token)
                     .retrieve()
+                    .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {
+                        throw new TokenRejectedException("Token rejected by auth service: " + resp.getStatusCode());
+                    })
                     .onStatus(HttpStatusCode::isError, (request, resp) -> {
                         throw new TokenValidationException("Auth service error: " + resp.getStatusCode());
                     })
                     .body(TokenVerifyResponse.class);
 
-            if (response == null || !response.isStatus()) {
-                throw new TokenValidationException("Token validation failed: " +
-                        (response != null ? response.getMessage() : "No response from auth service"));
+            if (response == null) {
+                throw new TokenValidationException("Token validation failed: No response from auth service");
+            }
+            if (!response.isStatus()) {
+                throw new TokenRejectedException("Token validation failed: " + response.getMessage());
             }
-
-            setCurrentTokenAndUsername(token, response.getUsername());
-            log.info("Token validated successfully for user: {}", response.getUsername());
             return response;
 
         } catch (RestClientResponseException e) {
@@ -69,6 +315,19 @@ public class AuthServiceClient {
         }
     }
 
+    /**
+     * Récupère la liste des tokens signés révoqués et pas encore expirés.
+     *
+     * @return les révocations actives
+     */
+    public List<TokenRevocation> fetchRevocations() {
+        TokenRevocation[] revocations = restClient.get()
+                .uri("/tokens/revocations")
+                .retrieve()
+                .body(TokenRevocation[].class);
+        return revocations != null ? List.of(revocations) : List.of();
+    }
+
     /**
      * Vérifie si un token est valide (version simplifiée qui retourne juste un booléen)
      *
@@ -96,4 +355,63 @@ public class AuthServiceClient {
         TokenVerifyResponse response = verifyToken(token);
         return response.getUsername();
     }
-}
\ No newline at end of file
+
+    @Scheduled(fixedDelayString = "${auth.client.cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        validTokens.purgeExpired();
+        rejectedTokens.purgeExpired();
+        staleTokens.purgeExpired();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    private void onBreakerStateChange(String name, CircuitBreaker.State from, CircuitBreaker.State to) {
+        log.warn("Circuit breaker '{}' changed from {} to {}", name, from, to);
+        Counter.builder("auth.client.circuit-breaker.transitions")
+                .description("Changements d'état du disjoncteur vers auth")
+                .tag("from", from.name())
+                .tag("to", to.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static TokenVerifyResponse validResponse(String username) {
+        TokenVerifyResponse response = new TokenVerifyResponse();
+        response.setStatus(true);
+        response.setUsername(username);
+        response.setMessage("Token valid");
+        return response;
+    }
+
+    private static void registerCacheMetrics(MeterRegistry meterRegistry, ExpiringCache<String, String> cache, String name) {
+        FunctionCounter.builder("auth.client.cache.hits", cache, ExpiringCache::hitCount)
+                .tag("cache", name)
+                .description("Vérifications de token servies depuis le cache local")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.client.cache.misses", cache, ExpiringCache::missCount)
+                .tag("cache", name)
+                .description("Vérifications de token absentes du cache local")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.client.cache.evictions", cache, ExpiringCache::evictionCount)
+                .tag("cache", name)
+                .description("Entrées évincées du cache local (taille maximale ou expiration)")
+                .register(meterRegistry);
+        Gauge.builder("auth.client.cache.size", cache, ExpiringCache::size)
+                .tag("cache", name)
+                .description("Nombre de tokens dans le cache local")
+                .register(meterRegistry);
+        Gauge.builder("auth.client.cache.hit.ratio", cache, AuthServiceClient::hitRatio)
+                .tag("cache", name)
+                .description("Part des lookups servis depuis le cache local")
+                .register(meterRegistry);
+    }
+
+    private static double hitRatio(ExpiringCache<String, String> cache) {
+        long hits = cache.hitCount();
+        long total = hits + cache.missCount();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,109 @@
+package fr.imt.nord.fisa.ti.gatcha.common.service;
+
+import fr.imt.nord.fisa.ti.gatcha.common.dto.TokenRevocation;
+import fr.imt.nord.fisa.ti.gatcha.common.exception.TokenValidationException;
+import fr.imt.nord.fisa.ti.gatcha.common.security.SignedTokenClaims;
+import fr.imt.nord.fisa.ti.gatcha.common.security.SignedTokenCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Vérification locale des tokens signés, sans appel au service auth.
+ * <p>
+ * La signature et l'expiration sont contrôlées avec la clé partagée (HMAC) ou la clé publique
+ * (Ed25519). La liste des tokens révoqués est récupérée périodiquement auprès d'auth ; si elle
+ * n'a pas pu être rafraîchie depuis plus de {@code max-staleness}, la vérification locale est
+ * suspendue et les tokens sont de nouveau vérifiés par auth.
+ */
+@Slf4j
+@Service
+public class LocalTokenVerifier {
+
+    private final AuthServiceClient authServiceClient;
+    private final SignedTokenCodec codec;
+    private final Duration maxStaleness;
+    private final Clock clock;
+
+    private volatile Set<String> revokedTokenIds = Set.of();
+    private volatile Instant lastRefresh;
+
+    @Autowired
+    public LocalTokenVerifier(
+            AuthServiceClient authServiceClient,
+            @Value("${auth.token.local-verification.enabled:false}") boolean enabled,
+            @Value("${auth.token.signing.algorithm:HMAC}") String algorithm,
+            @Value("${auth.token.signing.secret:}") String secret,
+            @Value("${auth.token.signing.public-key:}") String publicKey,
+            @Value("${auth.token.revocation.max-staleness:2m}") Duration maxStaleness) {
+        this(authServiceClient, enabled, algorithm, secret, publicKey, maxStaleness, Clock.systemUTC());
+    }
+
+    /**
+     * @param clock horloge des expirations et de la fraîcheur de la liste de révocation (remplaçable dans les tests)
+     */
+    LocalTokenVerifier(AuthServiceClient authServiceClient, boolean enabled, String algorithm, String secret,
+                       String publicKey, Duration maxStaleness, Clock clock) {
+        this.authServiceClient = authServiceClient;
+        this.codec = enabled ? SignedTokenCodec.fromConfig(algorithm, secret, null, publicKey) : null;
+        this.maxStaleness = maxStaleness;
+        this.clock = clock;
+        log.info("LocalTokenVerifier initialized (enabled: {}, codec: {})", enabled, codec);
+    }
+
+    /**
+     * Vérifie un token localement.
+     *
+     * @param token le token présenté
+     * @return le username si le token est un token signé valide, vide si la vérification
+     * locale n'est pas possible (désactivée, token opaque, liste de révocation périmée)
+     * @throws TokenValidationException si le token signé est invalide, expiré ou révoqué
+     */
+    public Optional<String> verify(String token) {
+        if (codec == null || !SignedTokenCodec.isSignedToken(token) || isRevocationListStale()) {
+            return Optional.empty();
+        }
+
+        SignedTokenClaims claims = codec.verify(token, clock.instant())
+                .orElseThrow(() -> new TokenValidationException("Invalid or expired signed token"));
+        if (revokedTokenIds.contains(claims.tokenId())) {
+            throw new TokenValidationException("Token revoked");
+        }
+        return Optional.of(claims.username());
+    }
+
+    /**
+     * Rafraîchit la liste des tokens révoqués depuis auth.
+     */
+    @Scheduled(fixedDelayString = "${auth.token.revocation.refresh-interval-ms:30000}")
+    public void refreshRevocations() {
+        if (codec == null) {
+            return;
+        }
+        try {
+            List<TokenRevocation> revocations = authServiceClient.fetchRevocations();
+            revokedTokenIds = revocations.stream()
+                    .map(TokenRevocation::getTokenId)
+                    .collect(Collectors.toUnmodifiableSet());
+            lastRefresh = clock.instant();
+            log.debug("Revocation list refreshed ({} revoked tokens)", revokedTokenIds.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh revocation list: {}", e.getMessage());
+        }
+    }
+
+    private boolean isRevocationListStale() {
+        Instant refreshed = lastRefresh;
+        return refreshed == null || refreshed.plus(maxStaleness).isBefore(clock.instant());
+    }
+}
@@ -0,0 +1,138 @@
+package fr.imt.nord.fisa.ti.gatcha.common.filter;
+
+import fr.imt.nord.fisa.ti.gatcha.common.context.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineFilterTest {
+
+    private static final Duration DEFAULT_BUDGET = Duration.ofSeconds(10);
+    private static final Duration MAX_BUDGET = Duration.ofSeconds(30);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicReference<Optional<Duration>> seen = new AtomicReference<>();
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    private DeadlineFilter filter(String endpoints) {
+        return new DeadlineFilter(meterRegistry, DEFAULT_BUDGET, MAX_BUDGET, endpoints);
+    }
+
+    /**
+     * Chaîne qui relève le budget restant vu par le traitement de la requête.
+     */
+    private FilterChain recordingChain() {
+        return (request, response) -> seen.set(RequestDeadline.remaining());
+    }
+
+    private MockHttpServletResponse send(DeadlineFilter filter, String uri, String timeoutHeader) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (timeoutHeader != null) {
+            request.addHeader(RequestDeadline.HEADER, timeoutHeader);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, recordingChain());
+        return response;
+    }
+
+    /**
+     * Vérifie que le budget vu par le traitement est {@code expected}, à quelques millisecondes près.
+     */
+    private void assertBudget(Duration expected) {
+        Duration remaining = seen.get().orElseThrow();
+        assertTrue(remaining.compareTo(expected) <= 0 && remaining.compareTo(expected.minusSeconds(1)) > 0,
+                "expected about " + expected + " but was " + remaining);
+    }
+
+    private double expiredOnArrival() {
+        return meterRegistry.get("http.server.deadline.expired").counter().count();
+    }
+
+    @Test
+    void doFilter_WithTimeoutHeader_ShouldUsePropagatedBudget() throws Exception {
+        send(filter(""), "/monsters", "2500");
+
+        assertBudget(Duration.ofMillis(2500));
+    }
+
+    @Test
+    void doFilter_WithTimeoutHeaderAboveMax_ShouldCapBudget() throws Exception {
+        send(filter(""), "/monsters", String.valueOf(Duration.ofMinutes(5).toMillis()));
+
+        assertBudget(MAX_BUDGET);
+    }
+
+    @Test
+    void doFilter_WithMalformedTimeoutHeader_ShouldFallBackToEndpointBudget() throws Exception {
+        send(filter("/combats/**=5s"), "/combats/42", "soon");
+
+        assertBudget(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void doFilter_WithoutTimeoutHeader_ShouldUseFirstMatchingEndpointBudget() throws Exception {
+        DeadlineFilter filter = filter("/invocations/**=8s, /combats/**=5s");
+
+        send(filter, "/invocations", null);
+        assertBudget(Duration.ofSeconds(8));
+
+        send(filter, "/combats/42/turns", null);
+        assertBudget(Duration.ofSeconds(5));
+
+        send(filter, "/players/john", null);
+        assertBudget(DEFAULT_BUDGET);
+    }
+
+    @Test
+    void doFilter_WithExhaustedBudget_ShouldAnswer504WithoutProcessing() throws Exception {
+        DeadlineFilter filter = filter("");
+
+        MockHttpServletResponse zero = send(filter, "/monsters", "0");
+        MockHttpServletResponse negative = send(filter, "/monsters", "-150");
+
+        assertEquals(504, zero.getStatus());
+        assertEquals(504, negative.getStatus());
+        assertTrue(negative.getContentAsString().contains("Request deadline exceeded"));
+        assertNull(seen.get());
+        assertEquals(2.0, expiredOnArrival());
+    }
+
+    @Test
+    void doFilter_AfterRequest_ShouldClearDeadline() throws Exception {
+        send(filter(""), "/monsters", "2500");
+
+        assertTrue(seen.get().isPresent());
+        assertTrue(RequestDeadline.remaining().isEmpty());
+    }
+
+    @Test
+    void doFilter_WhenChainThrows_ShouldClearDeadline() {
+        DeadlineFilter filter = filter("");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/monsters");
+
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        assertTrue(RequestDeadline.remaining().isEmpty());
+    }
+
+    @Test
+    void constructor_WithInvalidEndpointEntry_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> filter("/combats/**"));
+    }
+}
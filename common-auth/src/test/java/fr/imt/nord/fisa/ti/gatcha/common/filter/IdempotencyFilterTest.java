@@ -0,0 +1,191 @@
+package fr.imt.nord.fisa.ti.gatcha.common.filter;
+
+import fr.imt.nord.fisa.ti.gatcha.common.client.HttpClient;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"id\":\"monster-1\"}";
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static IdempotencyFilter filter(Duration inProgressWait) {
+        return new IdempotencyFilter(true, 100, Duration.ofMinutes(10), inProgressWait);
+    }
+
+    private static MockHttpServletRequest request(String idempotencyKey, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/monsters");
+        request.addHeader("Authorization", "Bearer " + token);
+        if (idempotencyKey != null) {
+            request.addHeader(HttpClient.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        return request;
+    }
+
+    /**
+     * Chaîne qui compte ses exécutions et répond {@code status} avec {@link #BODY}.
+     */
+    private FilterChain respondingWith(int status) {
+        return (request, response) -> {
+            executions.incrementAndGet();
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(status);
+            httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            httpResponse.getWriter().write(BODY);
+        };
+    }
+
+    /**
+     * Chaîne qui signale son démarrage puis attend {@code release} avant de répondre {@code status}.
+     */
+    private FilterChain heldUntil(CountDownLatch started, CountDownLatch release, int status) {
+        FilterChain chain = respondingWith(status);
+        return (request, response) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            chain.doFilter(request, response);
+        };
+    }
+
+    private static MockHttpServletResponse send(IdempotencyFilter filter, MockHttpServletRequest request,
+                                                FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void doFilter_WithRepeatedKey_ShouldReplayStoredSuccess() throws Exception {
+        IdempotencyFilter filter = filter(Duration.ofSeconds(2));
+
+        MockHttpServletResponse first = send(filter, request("key-1", "token"), respondingWith(201));
+        MockHttpServletResponse replayed = send(filter, request("key-1", "token"), respondingWith(201));
+
+        assertEquals(1, executions.get());
+        assertEquals(201, replayed.getStatus());
+        assertEquals(BODY, replayed.getContentAsString());
+        assertEquals(first.getContentType(), replayed.getContentType());
+    }
+
+    @Test
+    void doFilter_WithErrorResponse_ShouldNotStoreIt() throws Exception {
+        IdempotencyFilter filter = filter(Duration.ofSeconds(2));
+
+        MockHttpServletResponse failed = send(filter, request("key-1", "token"), respondingWith(500));
+        MockHttpServletResponse retried = send(filter, request("key-1", "token"), respondingWith(201));
+
+        assertEquals(500, failed.getStatus());
+        assertEquals(201, retried.getStatus());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void doFilter_WithSameKeyFromOtherUser_ShouldExecuteAgain() throws Exception {
+        IdempotencyFilter filter = filter(Duration.ofSeconds(2));
+
+        send(filter, request("key-1", "token-a"), respondingWith(201));
+        send(filter, request("key-1", "token-b"), respondingWith(201));
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void doFilter_WithoutKey_ShouldNotDeduplicate() throws Exception {
+        IdempotencyFilter filter = filter(Duration.ofSeconds(2));
+
+        send(filter, request(null, "token"), respondingWith(201));
+        send(filter, request(null, "token"), respondingWith(201));
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void doFilter_WhileFirstAttemptRuns_ShouldWaitAndReplayItsResponse() throws Exception {
+        IdempotencyFilter filter = filter(Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<MockHttpServletResponse> first = executor.submit(
+                () -> send(filter, request("key-1", "token"), heldUntil(started, release, 201)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<MockHttpServletResponse> duplicate = executor.submit(
+                () -> send(filter, request("key-1", "token"), respondingWith(201)));
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+        release.countDown();
+
+        assertEquals(201, first.get(5, TimeUnit.SECONDS).getStatus());
+        MockHttpServletResponse replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals(201, replayed.getStatus());
+        assertEquals(BODY, replayed.getContentAsString());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void doFilter_WhenFirstAttemptOutlastsWait_ShouldAnswer503WithRetryAfter() throws Exception {
+        IdempotencyFilter filter = filter(Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<MockHttpServletResponse> first = executor.submit(
+                () -> send(filter, request("key-1", "token"), heldUntil(started, release, 201)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        MockHttpServletResponse rejected = send(filter, request("key-1", "token"), respondingWith(201));
+        release.countDown();
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(201, first.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(1, executions.get());
+
+        MockHttpServletResponse retried = send(filter, request("key-1", "token"), respondingWith(201));
+        assertEquals(201, retried.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void doFilter_WhenFirstAttemptFails_ShouldExecuteWaitingDuplicate() throws Exception {
+        IdempotencyFilter filter = filter(Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<MockHttpServletResponse> first = executor.submit(
+                () -> send(filter, request("key-1", "token"), heldUntil(started, release, 503)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<MockHttpServletResponse> duplicate = executor.submit(
+                () -> send(filter, request("key-1", "token"), respondingWith(201)));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals(503, first.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(201, duplicate.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(2, executions.get());
+    }
+}
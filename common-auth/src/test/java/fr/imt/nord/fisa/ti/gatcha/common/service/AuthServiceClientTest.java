@@ -0,0 +1,277 @@
+package fr.imt.nord.fisa.ti.gatcha.common.service;
+
+import fr.imt.nord.fisa.ti.gatcha.common.client.RestClientRegistry;
+import fr.imt.nord.fisa.ti.gatcha.common.context.SecurityContext;
+import fr.imt.nord.fisa.ti.gatcha.common.dto.TokenVerifyResponse;
+import fr.imt.nord.fisa.ti.gatcha.common.exception.TokenRejectedException;
+import fr.imt.nord.fisa.ti.gatcha.common.exception.TokenValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class AuthServiceClientTest {
+
+    private static final String AUTH_URL = "http://auth";
+    private static final String VALID_BODY = "{\"status\":true,\"username\":\"john\",\"message\":\"Token valid\"}";
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private MockRestServiceServer server;
+    private AuthServiceClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = newClient(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContext.clear();
+    }
+
+    private AuthServiceClient newClient(Duration singleFlightTimeout) {
+        RestClient.Builder builder = RestClient.builder().baseUrl(AUTH_URL);
+        server = MockRestServiceServer.bindTo(builder).build();
+        RestClientRegistry registry = mock(RestClientRegistry.class);
+        when(registry.get(eq(AUTH_URL), any(Duration.class))).thenReturn(builder.build());
+
+        meterRegistry = new SimpleMeterRegistry();
+        return new AuthServiceClient(meterRegistry, registry, AUTH_URL, true, 100,
+                Duration.ofSeconds(30), Duration.ofSeconds(5), singleFlightTimeout, Duration.ofSeconds(2),
+                5, Duration.ofSeconds(10), false, Duration.ofSeconds(60), clock::get);
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    private void expectValid(int count) {
+        server.expect(times(count), requestTo(AUTH_URL + "/tokens/verify"))
+                .andExpect(header("Authorization", "Bearer token-1"))
+                .andRespond(withSuccess(VALID_BODY, MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * Réponse d'auth retenue jusqu'à l'ouverture du verrou.
+     */
+    private static ResponseCreator heldUntil(CountDownLatch release, ResponseCreator response) {
+        return request -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return response.createResponse(request);
+        };
+    }
+
+    /**
+     * Lance {@code callers} vérifications concurrentes du même token et libère la réponse d'auth
+     * une fois que toutes les autres attendent l'appel en cours.
+     */
+    private List<Future<TokenVerifyResponse>> verifyConcurrently(int callers, CountDownLatch release)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<TokenVerifyResponse>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> client.verifyToken("token-1")));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (deduplicated() < callers - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        return results;
+    }
+
+    private double deduplicated() {
+        return meterRegistry.get("auth.client.verify.deduplicated").counter().count();
+    }
+
+    private static Throwable failureOf(Future<?> result) {
+        ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        return e.getCause();
+    }
+
+    private double counter(String name, String cache) {
+        return meterRegistry.get(name).tag("cache", cache).functionCounter().count();
+    }
+
+    @Test
+    void verifyToken_WhenCached_ShouldNotCallAuthAgain() {
+        expectValid(1);
+
+        TokenVerifyResponse first = client.verifyToken("token-1");
+        TokenVerifyResponse second = client.verifyToken("token-1");
+
+        server.verify();
+        assertEquals("john", first.getUsername());
+        assertEquals("john", second.getUsername());
+        assertTrue(second.isStatus());
+        assertEquals("john", SecurityContext.getUsername());
+        assertEquals(1.0, counter("auth.client.cache.hits", "valid"));
+        assertEquals(1.0, counter("auth.client.cache.misses", "valid"));
+    }
+
+    @Test
+    void verifyToken_AfterTtl_ShouldCallAuthAgain() {
+        expectValid(2);
+
+        client.verifyToken("token-1");
+        advance(Duration.ofSeconds(29));
+        client.verifyToken("token-1");
+        advance(Duration.ofSeconds(2));
+        client.verifyToken("token-1");
+
+        server.verify();
+        assertEquals(1.0, counter("auth.client.cache.hits", "valid"));
+        assertEquals(2.0, counter("auth.client.cache.misses", "valid"));
+    }
+
+    @Test
+    void verifyToken_WhenRejected_ShouldCacheRejectionForNegativeTtl() {
+        server.expect(times(2), requestTo(AUTH_URL + "/tokens/verify"))
+                .andRespond(withStatus(HttpStatus.UNAUTHORIZED));
+
+        assertThrows(TokenRejectedException.class, () -> client.verifyToken("token-1"));
+        assertThrows(TokenRejectedException.class, () -> client.verifyToken("token-1"));
+        assertEquals(1.0, counter("auth.client.cache.hits", "rejected"));
+
+        advance(Duration.ofSeconds(6));
+        assertThrows(TokenRejectedException.class, () -> client.verifyToken("token-1"));
+
+        server.verify();
+        assertEquals(2.0, counter("auth.client.cache.misses", "rejected"));
+    }
+
+    @Test
+    void verifyToken_WhenAuthFails_ShouldNotCacheError() {
+        server.expect(once(), requestTo(AUTH_URL + "/tokens/verify"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        expectValid(1);
+
+        TokenValidationException error = assertThrows(TokenValidationException.class,
+                () -> client.verifyToken("token-1"));
+        assertFalse(error instanceof TokenRejectedException);
+
+        assertEquals("john", client.verifyToken("token-1").getUsername());
+        server.verify();
+        assertEquals(0.0, counter("auth.client.cache.hits", "rejected"));
+    }
+
+    @Test
+    void verifyToken_WithStatusFalse_ShouldBeRejected() {
+        server.expect(once(), requestTo(AUTH_URL + "/tokens/verify"))
+                .andRespond(withSuccess("{\"status\":false,\"message\":\"expired\"}", MediaType.APPLICATION_JSON));
+
+        assertThrows(TokenRejectedException.class, () -> client.verifyToken("token-1"));
+        assertThrows(TokenRejectedException.class, () -> client.verifyToken("token-1"));
+
+        server.verify();
+    }
+
+    @Test
+    void verifyToken_ConcurrentCallersForSameToken_ShouldShareOneCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        server.expect(once(), requestTo(AUTH_URL + "/tokens/verify"))
+                .andRespond(heldUntil(release, withSuccess(VALID_BODY, MediaType.APPLICATION_JSON)));
+
+        List<Future<TokenVerifyResponse>> results = verifyConcurrently(8, release);
+
+        server.verify();
+        for (Future<TokenVerifyResponse> result : results) {
+            assertEquals("john", result.get().getUsername());
+        }
+        assertEquals(7.0, deduplicated());
+    }
+
+    @Test
+    void verifyToken_ConcurrentCallersWhenAuthFails_ShouldAllSeeFailure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        server.expect(once(), requestTo(AUTH_URL + "/tokens/verify"))
+                .andRespond(heldUntil(release, withStatus(HttpStatus.SERVICE_UNAVAILABLE)));
+
+        List<Future<TokenVerifyResponse>> results = verifyConcurrently(8, release);
+
+        server.verify();
+        for (Future<TokenVerifyResponse> result : results) {
+            Throwable failure = failureOf(result);
+            assertInstanceOf(TokenValidationException.class, failure);
+            assertFalse(failure instanceof TokenRejectedException);
+        }
+    }
+
+    @Test
+    void verifyToken_ConcurrentCallersWhenRejected_ShouldAllSeeRejection() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        server.expect(once(), requestTo(AUTH_URL + "/tokens/verify"))
+                .andRespond(heldUntil(release, withStatus(HttpStatus.UNAUTHORIZED)));
+
+        List<Future<TokenVerifyResponse>> results = verifyConcurrently(8, release);
+
+        server.verify();
+        for (Future<TokenVerifyResponse> result : results) {
+            assertInstanceOf(TokenRejectedException.class, failureOf(result));
+        }
+    }
+
+    @Test
+    void verifyToken_WhenSharedCallOutlivesTimeout_ShouldFailWaitersOnly() throws Exception {
+        client = newClient(Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        server.expect(once(), requestTo(AUTH_URL + "/tokens/verify"))
+                .andRespond(heldUntil(release, withSuccess(VALID_BODY, MediaType.APPLICATION_JSON)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Future<TokenVerifyResponse> leader = executor.submit(() -> client.verifyToken("token-1"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.client.verify.in-flight").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        List<Future<TokenVerifyResponse>> waiters = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            waiters.add(executor.submit(() -> client.verifyToken("token-1")));
+        }
+        for (Future<TokenVerifyResponse> waiter : waiters) {
+            Throwable failure = failureOf(waiter);
+            assertInstanceOf(TokenValidationException.class, failure);
+            assertTrue(failure.getMessage().contains("Timed out"));
+        }
+
+        release.countDown();
+        assertEquals("john", leader.get(5, TimeUnit.SECONDS).getUsername());
+        executor.shutdown();
+        server.verify();
+    }
+}
@@ -0,0 +1,221 @@
+package fr.imt.nord.fisa.ti.gatcha.common.service;
+
+import fr.imt.nord.fisa.ti.gatcha.common.dto.TokenRevocation;
+import fr.imt.nord.fisa.ti.gatcha.common.exception.TokenValidationException;
+import fr.imt.nord.fisa.ti.gatcha.common.security.SignedTokenClaims;
+import fr.imt.nord.fisa.ti.gatcha.common.security.SignedTokenCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LocalTokenVerifierTest {
+
+    private static final String SECRET = secret("local-token-verifier-secret-for-tests");
+    private static final String OTHER_SECRET = secret("another-token-signing-secret-for-tests");
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+    private static final Duration MAX_STALENESS = Duration.ofMinutes(2);
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private AuthServiceClient authServiceClient;
+
+    /**
+     * Horloge avancée manuellement par les tests.
+     */
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    private static String secret(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String hmacToken(String secret, SignedTokenClaims claims) {
+        return SignedTokenCodec.fromConfig("HMAC", secret, null, null).sign(claims);
+    }
+
+    private static SignedTokenClaims claims(String tokenId, Duration ttl) {
+        return new SignedTokenClaims(tokenId, "john", NOW.plus(ttl));
+    }
+
+    @BeforeEach
+    void setUp() {
+        authServiceClient = mock(AuthServiceClient.class);
+        when(authServiceClient.fetchRevocations()).thenReturn(List.of());
+    }
+
+    /**
+     * Vérifieur HMAC dont la liste de révocation vient d'être rafraîchie.
+     */
+    private LocalTokenVerifier hmacVerifier() {
+        return refreshed(new LocalTokenVerifier(authServiceClient, true, "HMAC", SECRET, "", MAX_STALENESS, clock));
+    }
+
+    private static LocalTokenVerifier refreshed(LocalTokenVerifier verifier) {
+        verifier.refreshRevocations();
+        return verifier;
+    }
+
+    @Test
+    void verify_WithValidToken_ShouldReturnUsername() {
+        String token = hmacToken(SECRET, claims("token-1", Duration.ofMinutes(5)));
+
+        assertEquals("john", hmacVerifier().verify(token).orElseThrow());
+    }
+
+    @Test
+    void verify_WithBadSignature_ShouldReject() {
+        String token = hmacToken(SECRET, claims("token-1", Duration.ofMinutes(5)));
+        char last = token.charAt(token.length() - 1);
+        String tampered = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+
+        LocalTokenVerifier verifier = hmacVerifier();
+
+        assertThrows(TokenValidationException.class, () -> verifier.verify(tampered));
+    }
+
+    @Test
+    void verify_WithForgedPayload_ShouldReject() {
+        String token = hmacToken(SECRET, claims("token-1", Duration.ofMinutes(5)));
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("token-1\n" + NOW.plusSeconds(300).getEpochSecond() + "\nadmin").getBytes(StandardCharsets.UTF_8));
+
+        LocalTokenVerifier verifier = hmacVerifier();
+
+        assertThrows(TokenValidationException.class,
+                () -> verifier.verify(SignedTokenCodec.PREFIX + forgedPayload + "." + signature));
+    }
+
+    @Test
+    void verify_WhenExpired_ShouldReject() {
+        String token = hmacToken(SECRET, claims("token-1", Duration.ofSeconds(60)));
+        LocalTokenVerifier verifier = hmacVerifier();
+
+        clock.advance(Duration.ofSeconds(59));
+        assertEquals("john", verifier.verify(token).orElseThrow());
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThrows(TokenValidationException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void verify_WithTokenSignedByOtherKey_ShouldReject() {
+        String token = hmacToken(OTHER_SECRET, claims("token-1", Duration.ofMinutes(5)));
+
+        LocalTokenVerifier verifier = hmacVerifier();
+
+        assertThrows(TokenValidationException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void verify_WithHmacTokenOnEd25519Verifier_ShouldReject() throws GeneralSecurityException {
+        KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        String publicKey = Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+        String token = hmacToken(SECRET, claims("token-1", Duration.ofMinutes(5)));
+
+        LocalTokenVerifier verifier = refreshed(
+                new LocalTokenVerifier(authServiceClient, true, "ED25519", "", publicKey, MAX_STALENESS, clock));
+
+        assertThrows(TokenValidationException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void verify_WithEd25519Token_ShouldReturnUsername() throws GeneralSecurityException {
+        KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        String publicKey = Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+        String token = SignedTokenCodec.ed25519(keyPair.getPrivate(), keyPair.getPublic())
+                .sign(claims("token-1", Duration.ofMinutes(5)));
+
+        LocalTokenVerifier verifier = refreshed(
+                new LocalTokenVerifier(authServiceClient, true, "ED25519", "", publicKey, MAX_STALENESS, clock));
+
+        assertEquals("john", verifier.verify(token).orElseThrow());
+    }
+
+    @Test
+    void constructor_WithUnsupportedAlgorithm_ShouldFail() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LocalTokenVerifier(authServiceClient, true, "none", SECRET, "", MAX_STALENESS, clock));
+    }
+
+    @Test
+    void verify_WhenRevoked_ShouldReject() {
+        when(authServiceClient.fetchRevocations())
+                .thenReturn(List.of(new TokenRevocation("token-1", NOW.plusSeconds(300))));
+        String revoked = hmacToken(SECRET, claims("token-1", Duration.ofMinutes(5)));
+        String other = hmacToken(SECRET, claims("token-2", Duration.ofMinutes(5)));
+
+        LocalTokenVerifier verifier = hmacVerifier();
+
+        assertThrows(TokenValidationException.class, () -> verifier.verify(revoked));
+        assertEquals("john", verifier.verify(other).orElseThrow());
+    }
+
+    @Test
+    void verify_WhenRevocationListStale_ShouldDeferToAuth() {
+        String token = hmacToken(SECRET, claims("token-1", Duration.ofMinutes(10)));
+        LocalTokenVerifier verifier = hmacVerifier();
+        when(authServiceClient.fetchRevocations()).thenThrow(new IllegalStateException("auth down"));
+
+        clock.advance(MAX_STALENESS);
+        verifier.refreshRevocations();
+        assertTrue(verifier.verify(token).isPresent());
+
+        clock.advance(Duration.ofSeconds(1));
+        assertTrue(verifier.verify(token).isEmpty());
+    }
+
+    @Test
+    void verify_BeforeFirstRefresh_ShouldDeferToAuth() {
+        String token = hmacToken(SECRET, claims("token-1", Duration.ofMinutes(5)));
+
+        LocalTokenVerifier verifier =
+                new LocalTokenVerifier(authServiceClient, true, "HMAC", SECRET, "", MAX_STALENESS, clock);
+
+        assertTrue(verifier.verify(token).isEmpty());
+    }
+
+    @Test
+    void verify_WithOpaqueToken_ShouldDeferToAuth() {
+        assertTrue(hmacVerifier().verify("opaque-token").isEmpty());
+    }
+}
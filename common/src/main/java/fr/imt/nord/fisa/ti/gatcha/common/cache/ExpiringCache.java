@@ -0,0 +1,207 @@
+package fr.imt.nord.fisa.ti.gatcha.common.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache mémoire borné avec expiration par entrée.
+ * <p>
+ * Les entrées les moins récemment utilisées sont évincées quand la taille maximale est atteinte,
+ * les entrées expirées sont retirées à la lecture ou via {@link #purgeExpired()}.
+ * Un {@link ReentrantLock} protège la map (pas de {@code synchronized}, pour ne pas bloquer
+ * les threads virtuels sur leur carrier).
+ *
+ * @param <K> type de la clé
+ * @param <V> type de la valeur
+ */
+public class ExpiringCache<K, V> {
+
+    private final int maxSize;
+    private final Duration defaultTtl;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpiringCache(int maxSize, Duration defaultTtl) {
+        this(maxSize, defaultTtl, System::nanoTime);
+    }
+
+    /**
+     * @param clock source de temps en nanosecondes (remplaçable dans les tests)
+     */
+    public ExpiringCache(int maxSize, Duration defaultTtl, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache max size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.defaultTtl = defaultTtl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ExpiringCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Retourne la valeur associée à la clé, ou {@code null} si absente ou expirée.
+     */
+    public V get(K key) {
+        long now = clock.getAsLong();
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.isExpired(now)) {
+                entries.remove(key);
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ajoute une entrée avec la durée de vie par défaut.
+     */
+    public void put(K key, V value) {
+        put(key, value, defaultTtl);
+    }
+
+    /**
+     * Ajoute une entrée avec une durée de vie spécifique (bornée par la durée par défaut).
+     */
+    public void put(K key, V value, Duration ttl) {
+        Duration effectiveTtl = ttl.compareTo(defaultTtl) < 0 ? ttl : defaultTtl;
+        if (effectiveTtl.isNegative() || effectiveTtl.isZero()) {
+            invalidate(key);
+            return;
+        }
+        Entry<V> entry = new Entry<>(value, clock.getAsLong() + effectiveTtl.toNanos());
+        lock.lock();
+        try {
+            entries.put(key, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retourne la valeur associée à la clé en repoussant son expiration à la durée de vie par
+     * défaut (expiration après inactivité), ou crée l'entrée si elle est absente ou expirée.
+     */
+    public V getOrCreate(K key, Function<? super K, ? extends V> factory) {
+        long now = clock.getAsLong();
+        long expiresAt = now + defaultTtl.toNanos();
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            V value;
+            if (entry == null || entry.isExpired(now)) {
+                if (entry != null) {
+                    evictions.increment();
+                }
+                misses.increment();
+                value = factory.apply(key);
+            } else {
+                hits.increment();
+                value = entry.value();
+            }
+            entries.put(key, new Entry<>(value, expiresAt));
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retire toutes les entrées expirées.
+     *
+     * @return le nombre d'entrées retirées
+     */
+    public int purgeExpired() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        lock.lock();
+        try {
+            Iterator<Entry<V>> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isExpired(now)) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        evictions.add(removed);
+        return removed;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -1,33 +1,144 @@
 package fr.imt.nord.fisa.ti.gatcha.common.client;
 
+import fr.imt.nord.fisa.ti.gatcha.common.context.RequestContext;
+import fr.imt.nord.fisa.ti.gatcha.common.context.RequestDeadline;
 import fr.imt.nord.fisa.ti.gatcha.common.context.SecurityContext;
+import fr.imt.nord.fisa.ti.gatcha.common.exception.CallNotAttemptedException;
+import fr.imt.nord.fisa.ti.gatcha.common.exception.ConcurrencyLimitExceededException;
+import fr.imt.nord.fisa.ti.gatcha.common.exception.DeadlineExceededException;
 import fr.imt.nord.fisa.ti.gatcha.common.exception.ServiceCommunicationException;
+import fr.imt.nord.fisa.ti.gatcha.common.resilience.AimdLimiter;
+import fr.imt.nord.fisa.ti.gatcha.common.resilience.LatencyWindow;
+import fr.imt.nord.fisa.ti.gatcha.common.resilience.RetryBudget;
+import fr.imt.nord.fisa.ti.gatcha.common.resilience.RetryPolicy;
+import fr.imt.nord.fisa.ti.gatcha.common.security.InternalAssertionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClient;
 
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 /**
  * Client HTTP générique pour la communication inter-services.
- * Utilise RestClient de Spring Boot 4 et transmet automatiquement le token d'authentification.
+ * Utilise RestClient de Spring Boot 4 et transmet automatiquement le token d'authentification,
+ * accompagné d'une assertion interne signée qui évite au service appelé de le revérifier auprès d'auth.
+ * <p>
+ * Les variantes {@code *Async} exécutent l'appel sur un thread virtuel et retournent un
+ * {@link CompletableFuture}, pour lancer en parallèle des appels indépendants. Le contexte de
+ * l'appelant ({@link SecurityContext}, échéance) est recopié sur le thread d'exécution via
+ * {@link RequestContext}.
+ * <p>
+ * Les erreurs transitoires (erreur réseau, timeout, 502/503/504) sont rejouées avec un backoff
+ * exponentiel à jitter complet, dans la limite d'un budget de retries par service cible.
+ * Seuls les GET sont rejoués ; un POST ne l'est que s'il porte un en-tête {@value #IDEMPOTENCY_KEY_HEADER},
+ * que le service appelé utilise pour dédupliquer les requêtes rejouées.
+ * <p>
+ * Chaque tentative passe par un {@link AimdLimiter} propre au service cible : le nombre d'appels
+ * simultanés autorisés s'adapte à la latence observée, et les appels au-delà de la limite sont
+ * refusés immédiatement ({@link ConcurrencyLimitExceededException}).
+ * <p>
+ * Le budget restant de la requête en cours ({@link RequestDeadline}) est transmis au service
+ * appelé ; une fois l'échéance dépassée, les appels ne sont plus envoyés ni rejoués
+ * ({@link DeadlineExceededException}).
+ * <p>
+ * Les échanges sont encodés en CBOR ({@code http.client.cbor.enabled}) : les corps de requête sont
+ * envoyés en {@code application/cbor} et les réponses sont demandées en CBOR, avec repli sur JSON
+ * si le service appelé ne le propose pas.
+ * <p>
+ * Les GET peuvent être couverts ({@link #getHedged}) : si la réponse n'est pas arrivée après un
+ * percentile des latences récentes du service cible, une seconde requête identique est envoyée
+ * sur une autre connexion du pool ; la première réponse l'emporte et l'autre requête est annulée.
+ * Les requêtes de couverture sont limitées par un budget propre à chaque service cible. Le percentile
+ * porte sur toutes les requêtes terminées, réussies ou en échec, hors requêtes annulées ou non envoyées.
  */
+@Slf4j
 @Component
 public class HttpClient {
 
-    private final RestClient.Builder restClientBuilder;
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(502, 503, 504);
+    private static final int HEDGING_MIN_SAMPLES = 20;
+    private static final String CBOR_ACCEPT =
+            MediaType.APPLICATION_CBOR_VALUE + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.9";
+
+    private final RestClientRegistry restClientRegistry;
+    private final InternalAssertionService internalAssertionService;
+    private final ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final RetryPolicy retryPolicy;
+    private final HttpClientRetrySettings retry;
+    private final ConcurrentHashMap<String, RetryBudget> retryBudgets = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    private final HttpClientLimiterSettings limiter;
+    private final ConcurrentHashMap<String, AimdLimiter> limiters = new ConcurrentHashMap<>();
+
+    private final HttpClientHedgingSettings hedging;
+    private final ConcurrentHashMap<String, LatencyWindow> hedgingLatencies = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RetryBudget> hedgingBudgets = new ConcurrentHashMap<>();
+
+    private final boolean cborEnabled;
 
-    public HttpClient() {
-        this.restClientBuilder = RestClient.builder();
+    public HttpClient(
+            RestClientRegistry restClientRegistry,
+            InternalAssertionService internalAssertionService,
+            MeterRegistry meterRegistry,
+            HttpClientRetrySettings retry,
+            HttpClientLimiterSettings limiter,
+            HttpClientHedgingSettings hedging,
+            @Value("${http.client.cbor.enabled:true}") boolean cborEnabled) {
+        this.restClientRegistry = restClientRegistry;
+        this.internalAssertionService = internalAssertionService;
+        this.meterRegistry = meterRegistry;
+        this.retryPolicy = new RetryPolicy(retry.maxAttempts(), retry.initialBackoff(), retry.maxBackoff());
+        this.retry = retry;
+        this.limiter = limiter;
+        this.hedging = hedging;
+        this.cborEnabled = cborEnabled;
     }
 
     /**
      * Effectue une requête GET
      */
     public <T> T get(String baseUrl, String uri, Class<T> responseType) {
-        return createClient(baseUrl)
+        return get(baseUrl, uri, responseType, false);
+    }
+
+    /**
+     * Effectue une requête GET couverte : une seconde requête est envoyée si la première tarde
+     * à répondre (si {@code http.client.hedging.enabled} est actif, sinon équivalent à {@link #get}).
+     * Réservé aux lectures, que le service appelé peut exécuter deux fois sans effet de bord.
+     */
+    public <T> T getHedged(String baseUrl, String uri, Class<T> responseType) {
+        return get(baseUrl, uri, responseType, true);
+    }
+
+    private <T> T get(String baseUrl, String uri, Class<T> responseType, boolean hedged) {
+        return withRetry(baseUrl, "GET " + uri, true, hedged, () -> createClient(baseUrl)
                 .get()
                 .uri(uri)
-                .headers(this::addAuthHeader)
+                .headers(this::addContextHeaders)
                 .retrieve()
                 .onStatus(HttpStatusCode::isError, (request, response) -> {
                     throw new ServiceCommunicationException(
@@ -35,32 +146,49 @@ public class HttpClient {
                             response.getStatusCode().value()
                     );
                 })
-                .body(responseType);
+                .body(responseType));
     }
 
     /**
      * Effectue une requête POST avec body
      */
     public <T, R> T post(String baseUrl, String uri, R body, Class<T> responseType) {
-        RestClient.RequestBodySpec request = createClient(baseUrl)
-                .post()
-                .uri(uri)
-                .headers(this::addAuthHeader)
-                .contentType(MediaType.APPLICATION_JSON);
+        return post(baseUrl, uri, body, responseType, null);
+    }
 
-        if (body != null) {
-            request.body(body);
-        }
+    /**
+     * Effectue une requête POST avec body et clé d'idempotence : la requête peut alors être
+     * rejouée en cas d'erreur transitoire, le service appelé ne l'exécutant qu'une fois.
+     *
+     * @param idempotencyKey clé unique de l'opération, {@code null} pour un POST non rejouable
+     */
+    public <T, R> T post(String baseUrl, String uri, R body, Class<T> responseType, String idempotencyKey) {
+        return withRetry(baseUrl, "POST " + uri, idempotencyKey != null, false, () -> {
+            RestClient.RequestBodySpec request = createClient(baseUrl)
+                    .post()
+                    .uri(uri)
+                    .headers(headers -> {
+                        addContextHeaders(headers);
+                        if (idempotencyKey != null) {
+                            headers.set(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+                        }
+                    })
+                    .contentType(cborEnabled ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON);
 
-        return request
-                .retrieve()
-                .onStatus(HttpStatusCode::isError, (req, response) -> {
-                    throw new ServiceCommunicationException(
-                            "POST " + uri + " failed: " + response.getStatusCode(),
-                            response.getStatusCode().value()
-                    );
-                })
-                .body(responseType);
+            if (body != null) {
+                request.body(body);
+            }
+
+            return request
+                    .retrieve()
+                    .onStatus(HttpStatusCode::isError, (req, response) -> {
+                        throw new ServiceCommunicationException(
+                                "POST " + uri + " failed: " + response.getStatusCode(),
+                                response.getStatusCode().value()
+                        );
+                    })
+                    .body(responseType);
+        });
     }
 
     /**
@@ -71,13 +199,13 @@ public class HttpClient {
     }
 
     /**
-     * Effectue une requête DELETE
+     * Effectue une requête DELETE (jamais rejouée)
      */
     public <T> T delete(String baseUrl, String uri, Class<T> responseType) {
-        return createClient(baseUrl)
+        return withRetry(baseUrl, "DELETE " + uri, false, false, () -> createClient(baseUrl)
                 .delete()
                 .uri(uri)
-                .headers(this::addAuthHeader)
+                .headers(this::addContextHeaders)
                 .retrieve()
                 .onStatus(HttpStatusCode::isError, (request, response) -> {
                     throw new ServiceCommunicationException(
@@ -85,17 +213,331 @@ public class HttpClient {
                             response.getStatusCode().value()
                     );
                 })
-                .body(responseType);
+                .body(responseType));
+    }
+
+    /**
+     * Effectue une requête GET sur un thread virtuel
+     */
+    public <T> CompletableFuture<T> getAsync(String baseUrl, String uri, Class<T> responseType) {
+        return async(() -> get(baseUrl, uri, responseType));
+    }
+
+    /**
+     * Effectue une requête GET couverte sur un thread virtuel
+     */
+    public <T> CompletableFuture<T> getHedgedAsync(String baseUrl, String uri, Class<T> responseType) {
+        return async(() -> getHedged(baseUrl, uri, responseType));
+    }
+
+    /**
+     * Effectue une requête POST avec body sur un thread virtuel
+     */
+    public <T, R> CompletableFuture<T> postAsync(String baseUrl, String uri, R body, Class<T> responseType) {
+        return async(() -> post(baseUrl, uri, body, responseType));
+    }
+
+    /**
+     * Effectue une requête POST avec body et clé d'idempotence sur un thread virtuel
+     */
+    public <T, R> CompletableFuture<T> postAsync(String baseUrl, String uri, R body, Class<T> responseType,
+                                                 String idempotencyKey) {
+        return async(() -> post(baseUrl, uri, body, responseType, idempotencyKey));
+    }
+
+    /**
+     * Effectue une requête DELETE sur un thread virtuel
+     */
+    public <T> CompletableFuture<T> deleteAsync(String baseUrl, String uri, Class<T> responseType) {
+        return async(() -> delete(baseUrl, uri, responseType));
+    }
+
+    /**
+     * Exécute un appel sur un thread virtuel avec le contexte de sécurité et l'échéance de l'appelant.
+     */
+    private <T> CompletableFuture<T> async(Supplier<T> call) {
+        return RequestContext.supplyAsync(call, asyncExecutor);
+    }
+
+    /**
+     * Exécute un appel en rejouant les erreurs transitoires si l'appel est rejouable
+     * et que le budget de retries du service cible le permet.
+     */
+    private <T> T withRetry(String baseUrl, String description, boolean retryable, boolean hedged, Supplier<T> call) {
+        RetryBudget budget = retryBudgets.computeIfAbsent(baseUrl, this::createRetryBudget);
+        budget.recordRequest();
+
+        int attempt = 1;
+        while (true) {
+            try {
+                checkDeadline(baseUrl, description);
+                return hedged && hedging.enabled()
+                        ? hedged(baseUrl, description, () -> limited(baseUrl, call))
+                        : limited(baseUrl, call);
+            } catch (RuntimeException e) {
+                if (!retryable || !isTransient(e) || attempt >= retryPolicy.maxAttempts()) {
+                    throw e;
+                }
+                if (!budget.tryAcquireRetry()) {
+                    retryCounter(baseUrl, "budget_exhausted").increment();
+                    log.warn("Retry budget exhausted for {}, not retrying {}", baseUrl, description);
+                    throw e;
+                }
+                Duration backoff = retryPolicy.backoff(attempt);
+                if (RequestDeadline.remaining().map(left -> left.compareTo(backoff) <= 0).orElse(false)) {
+                    log.info("{} failed ({}), not retrying: request deadline too close", description, e.getMessage());
+                    throw e;
+                }
+                log.info("{} failed ({}), retrying in {} ms (attempt {}/{})",
+                        description, e.getMessage(), backoff.toMillis(), attempt + 1, retryPolicy.maxAttempts());
+                retryCounter(baseUrl, "retried").increment();
+                sleep(backoff, e);
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Envoie une tentative, puis une requête de couverture identique si aucune réponse n'est arrivée
+     * après le délai de couverture et que le budget du service cible le permet. La première réponse
+     * obtenue est retournée et la requête restante est annulée (son thread virtuel est interrompu,
+     * ce qui ferme sa connexion). Si l'une des deux requêtes échoue, l'autre est attendue.
+     */
+    private <T> T hedged(String baseUrl, String description, Supplier<T> call) {
+        LatencyWindow latencies = hedgingLatencies.computeIfAbsent(baseUrl,
+                key -> new LatencyWindow(hedging.windowSize(), Math.min(HEDGING_MIN_SAMPLES, hedging.windowSize())));
+        RetryBudget budget = hedgingBudgets.computeIfAbsent(baseUrl, this::createHedgingBudget);
+        budget.recordRequest();
+
+        Supplier<T> timed = () -> {
+            long start = System.nanoTime();
+            try {
+                T result = call.get();
+                latencies.record(System.nanoTime() - start);
+                return result;
+            } catch (CallNotAttemptedException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                // Les échecs (timeouts, 5xx) sont mesurés aussi, sinon le percentile serait sous-estimé ;
+                // une requête annulée par la couverture n'a pas de latence complète
+                if (!Thread.currentThread().isInterrupted()) {
+                    latencies.record(System.nanoTime() - start);
+                }
+                throw e;
+            }
+        };
+        ExecutorCompletionService<T> completion = new ExecutorCompletionService<>(asyncExecutor);
+        Future<T> primary = completion.submit(RequestContext.wrap(timed)::get);
+        Future<T> hedge = null;
+        try {
+            Future<T> first = completion.poll(hedgingDelay(latencies).toNanos(), TimeUnit.NANOSECONDS);
+            if (first != null) {
+                return resultOf(first);
+            }
+            if (RequestDeadline.isExpired()) {
+                return resultOf(primary);
+            }
+            if (!budget.tryAcquireRetry()) {
+                hedgeCounter(baseUrl, "budget_exhausted").increment();
+                return resultOf(primary);
+            }
+            log.debug("{} still pending, sending hedged request to {}", description, baseUrl);
+            hedgeCounter(baseUrl, "fired").increment();
+            hedge = completion.submit(RequestContext.wrap(timed)::get);
+
+            Future<T> winner = completion.take();
+            try {
+                return won(baseUrl, winner, hedge);
+            } catch (RuntimeException e) {
+                log.debug("{} failed ({}), waiting for the other request", description, e.getMessage());
+                return won(baseUrl, completion.take(), hedge);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException(description + " interrupted");
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    private <T> T won(String baseUrl, Future<T> winner, Future<T> hedge) throws InterruptedException {
+        T result = resultOf(winner);
+        if (winner == hedge) {
+            hedgeCounter(baseUrl, "won").increment();
+        }
+        return result;
+    }
+
+    private Duration hedgingDelay(LatencyWindow latencies) {
+        OptionalLong percentile = latencies.percentile(hedging.percentile());
+        Duration delay = percentile.isPresent() ? Duration.ofNanos(percentile.getAsLong()) : hedging.initialDelay();
+        return delay.compareTo(hedging.minDelay()) < 0 ? hedging.minDelay() : delay;
+    }
+
+    private static <T> T resultOf(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Refuse d'envoyer un appel quand l'échéance de la requête en cours est dépassée.
+     */
+    private void checkDeadline(String baseUrl, String description) {
+        if (RequestDeadline.isExpired()) {
+            Counter.builder("http.client.deadline.skipped")
+                    .description("Appels non envoyés car l'échéance de la requête était dépassée")
+                    .tag("target", baseUrl)
+                    .register(meterRegistry)
+                    .increment();
+            throw new DeadlineExceededException("Request deadline exceeded, " + description + " not sent");
+        }
+    }
+
+    /**
+     * Exécute une tentative à travers le limiteur adaptatif du service cible.
+     */
+    private <T> T limited(String baseUrl, Supplier<T> call) {
+        if (!limiter.enabled()) {
+            return call.get();
+        }
+        AimdLimiter targetLimiter = limiters.computeIfAbsent(baseUrl, this::createLimiter);
+        if (!targetLimiter.tryAcquire()) {
+            limiterRejectedCounter(baseUrl).increment();
+            throw new ConcurrencyLimitExceededException(
+                    "Concurrency limit reached for " + baseUrl + " (" + targetLimiter.getLimit() + " in flight)");
+        }
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            targetLimiter.onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            // Une requête de couverture perdante, annulée par interruption, ne renseigne pas sur la charge
+            if (isOverload(e) && !Thread.currentThread().isInterrupted()) {
+                targetLimiter.onDropped();
+            } else {
+                targetLimiter.onIgnored();
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        return e instanceof ServiceCommunicationException communicationException
+                && !(e instanceof CallNotAttemptedException)
+                && RETRYABLE_STATUSES.contains(communicationException.getStatusCode());
+    }
+
+    private static boolean isOverload(RuntimeException e) {
+        return e instanceof ResourceAccessException
+                || (e instanceof ServiceCommunicationException communicationException
+                && !(e instanceof CallNotAttemptedException)
+                && communicationException.getStatusCode() >= 500);
+    }
+
+    private AimdLimiter createLimiter(String baseUrl) {
+        AimdLimiter targetLimiter = new AimdLimiter(limiter.initialLimit(), limiter.minLimit(), limiter.maxLimit(),
+                limiter.backoffRatio(), limiter.latencyThreshold());
+        Gauge.builder("http.client.limiter.limit", targetLimiter, AimdLimiter::getLimit)
+                .description("Appels simultanés autorisés par le limiteur adaptatif")
+                .tag("target", baseUrl)
+                .register(meterRegistry);
+        Gauge.builder("http.client.limiter.in-flight", targetLimiter, AimdLimiter::getInFlight)
+                .description("Appels en cours vers le service cible")
+                .tag("target", baseUrl)
+                .register(meterRegistry);
+        return targetLimiter;
+    }
+
+    private Counter limiterRejectedCounter(String baseUrl) {
+        return Counter.builder("http.client.limiter.rejected")
+                .description("Appels refusés car la limite adaptative est atteinte")
+                .tag("target", baseUrl)
+                .register(meterRegistry);
+    }
+
+    private static void sleep(Duration backoff, RuntimeException failure) {
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+
+    private RetryBudget createRetryBudget(String baseUrl) {
+        RetryBudget budget = new RetryBudget(retry.budget().ratio(), retry.budget().maxTokens());
+        Gauge.builder("http.client.retry.budget", budget, RetryBudget::available)
+                .description("Retries disponibles vers le service cible")
+                .tag("target", baseUrl)
+                .register(meterRegistry);
+        return budget;
+    }
+
+    private RetryBudget createHedgingBudget(String baseUrl) {
+        RetryBudget budget = new RetryBudget(hedging.budget().ratio(), hedging.budget().maxTokens());
+        Gauge.builder("http.client.hedge.budget", budget, RetryBudget::available)
+                .description("Requêtes de couverture disponibles vers le service cible")
+                .tag("target", baseUrl)
+                .register(meterRegistry);
+        return budget;
+    }
+
+    private Counter hedgeCounter(String baseUrl, String outcome) {
+        return Counter.builder("http.client.hedges")
+                .description("Requêtes de couverture (envoyées, gagnantes ou refusées faute de budget)")
+                .tag("target", baseUrl)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter retryCounter(String baseUrl, String outcome) {
+        return Counter.builder("http.client.retries")
+                .description("Retries d'appels inter-services (effectués ou refusés faute de budget)")
+                .tag("target", baseUrl)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        asyncExecutor.shutdown();
     }
 
     private RestClient createClient(String baseUrl) {
-        return restClientBuilder.baseUrl(baseUrl).build();
+        return restClientRegistry.get(baseUrl);
+    }
+
+    private void addContextHeaders(HttpHeaders headers) {
+        addAuthHeader(headers);
+        if (cborEnabled) {
+            headers.set(HttpHeaders.ACCEPT, CBOR_ACCEPT);
+        }
+        RequestDeadline.remaining()
+                .ifPresent(left -> headers.set(RequestDeadline.HEADER, Long.toString(Math.max(left.toMillis(), 0))));
     }
 
-    private void addAuthHeader(org.springframework.http.HttpHeaders headers) {
+    private void addAuthHeader(HttpHeaders headers) {
         String token = SecurityContext.getToken();
         if (token != null && !token.isEmpty()) {
             headers.setBearerAuth(token);
+            internalAssertionService.issue(token, SecurityContext.getUsername())
+                    .ifPresent(assertion -> headers.set(InternalAssertionService.HEADER, assertion));
         }
     }
 }
@@ -0,0 +1,35 @@
+package fr.imt.nord.fisa.ti.gatcha.common.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Requêtes GET couvertes ({@code http.client.hedging.*}).
+ *
+ * @param enabled      active la couverture des appels {@link HttpClient#getHedged}
+ * @param percentile   percentile des latences récentes après lequel la requête de couverture part
+ * @param initialDelay délai utilisé tant que trop peu de latences ont été mesurées
+ * @param minDelay     délai minimal avant une requête de couverture
+ * @param windowSize   nombre de latences récentes conservées par service cible
+ * @param budget       budget de requêtes de couverture par service cible
+ */
+@ConfigurationProperties("http.client.hedging")
+public record HttpClientHedgingSettings(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("0.95") double percentile,
+        @DefaultValue("100ms") Duration initialDelay,
+        @DefaultValue("10ms") Duration minDelay,
+        @DefaultValue("100") int windowSize,
+        @DefaultValue Budget budget) {
+
+    /**
+     * @param ratio     requêtes de couverture autorisées par requête
+     * @param maxTokens requêtes de couverture accumulables au maximum
+     */
+    public record Budget(
+            @DefaultValue("0.1") double ratio,
+            @DefaultValue("5") int maxTokens) {
+    }
+}
@@ -0,0 +1,26 @@
+package fr.imt.nord.fisa.ti.gatcha.common.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Limiteur adaptatif (AIMD) des appels simultanés par service cible ({@code http.client.limiter.*}).
+ *
+ * @param enabled          active le limiteur
+ * @param initialLimit     limite de départ
+ * @param minLimit         limite minimale
+ * @param maxLimit         limite maximale
+ * @param backoffRatio     facteur appliqué à la limite en cas de surcharge
+ * @param latencyThreshold latence au-delà de laquelle un appel réussi compte comme une surcharge
+ */
+@ConfigurationProperties("http.client.limiter")
+public record HttpClientLimiterSettings(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") int initialLimit,
+        @DefaultValue("1") int minLimit,
+        @DefaultValue("200") int maxLimit,
+        @DefaultValue("0.9") double backoffRatio,
+        @DefaultValue("500ms") Duration latencyThreshold) {
+}
@@ -0,0 +1,31 @@
+package fr.imt.nord.fisa.ti.gatcha.common.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Retries des appels inter-services ({@code http.client.retry.*}).
+ *
+ * @param maxAttempts    nombre maximal de tentatives, appel initial compris
+ * @param initialBackoff plafond d'attente avant le premier retry
+ * @param maxBackoff     plafond d'attente entre deux tentatives
+ * @param budget         budget de retries par service cible
+ */
+@ConfigurationProperties("http.client.retry")
+public record HttpClientRetrySettings(
+        @DefaultValue("3") int maxAttempts,
+        @DefaultValue("50ms") Duration initialBackoff,
+        @DefaultValue("1s") Duration maxBackoff,
+        @DefaultValue Budget budget) {
+
+    /**
+     * @param ratio     retries autorisés par requête (0.2 : un retry pour cinq requêtes)
+     * @param maxTokens retries accumulables au maximum
+     */
+    public record Budget(
+            @DefaultValue("0.2") double ratio,
+            @DefaultValue("10") int maxTokens) {
+    }
+}
@@ -0,0 +1,139 @@
+package fr.imt.nord.fisa.ti.gatcha.common.client;
+
+import fr.imt.nord.fisa.ti.gatcha.common.context.RequestDeadline;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Registre des {@link RestClient} utilisés pour les appels inter-services.
+ * <p>
+ * Un client est construit une seule fois par URL de base (et timeout de lecture), puis réutilisé.
+ * Tous les clients partagent un pool de connexions keep-alive Apache HttpClient 5, borné
+ * globalement ({@code http.client.pool.max-total}) et par service cible
+ * ({@code http.client.pool.max-per-route}) : les appels ne paient plus ni la construction
+ * du client ni l'établissement d'une connexion TCP.
+ * <p>
+ * Quand la requête en cours a une échéance ({@link RequestDeadline}), les timeouts de lecture et
+ * d'attente d'une connexion sont plafonnés au budget restant.
+ */
+@Slf4j
+@Component
+public class RestClientRegistry {
+
+    private final CloseableHttpClient httpClient;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final Duration defaultReadTimeout;
+    private final Duration connectionRequestTimeout;
+    private final ConcurrentHashMap<String, RestClient> clients = new ConcurrentHashMap<>();
+
+    public RestClientRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${http.client.pool.max-total:200}") int maxTotal,
+            @Value("${http.client.pool.max-per-route:50}") int maxPerRoute,
+            @Value("${http.client.connect-timeout:1s}") Duration connectTimeout,
+            @Value("${http.client.read-timeout:5s}") Duration readTimeout,
+            @Value("${http.client.pool.acquire-timeout:2s}") Duration connectionRequestTimeout,
+            @Value("${http.client.pool.idle-timeout:30s}") Duration idleTimeout) {
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                        .build())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeout.toMillis()))
+                .build();
+        this.defaultReadTimeout = readTimeout;
+        this.connectionRequestTimeout = connectionRequestTimeout;
+
+        registerPoolGauge(meterRegistry, "http.client.pool.leased", "Connexions en cours d'utilisation", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, "http.client.pool.available", "Connexions inactives prêtes à être réutilisées", PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, "http.client.pool.pending", "Requêtes en attente d'une connexion", PoolStats::getPending);
+        registerPoolGauge(meterRegistry, "http.client.pool.max", "Nombre maximal de connexions", PoolStats::getMax);
+
+        log.info("RestClientRegistry initialized (max connections: {}, per route: {}, connect timeout: {}, read timeout: {})",
+                maxTotal, maxPerRoute, connectTimeout, readTimeout);
+    }
+
+    /**
+     * Retourne le client associé à une URL de base, avec le timeout de lecture par défaut.
+     */
+    public RestClient get(String baseUrl) {
+        return get(baseUrl, defaultReadTimeout);
+    }
+
+    /**
+     * Retourne le client associé à une URL de base et à un timeout de lecture spécifique.
+     */
+    public RestClient get(String baseUrl, Duration readTimeout) {
+        return clients.computeIfAbsent(baseUrl + "|" + readTimeout.toMillis(), key -> create(baseUrl, readTimeout));
+    }
+
+    private RestClient create(String baseUrl, Duration readTimeout) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        requestFactory.setConnectionRequestTimeout(connectionRequestTimeout);
+        requestFactory.setHttpContextFactory((method, uri) -> deadlineContext(readTimeout));
+        log.debug("Creating RestClient for {} (read timeout: {})", baseUrl, readTimeout);
+        return RestClient.builder()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    /**
+     * Contexte de requête plafonnant les timeouts au budget restant, ou {@code null}
+     * (configuration par défaut du client) si la requête en cours n'a pas d'échéance.
+     */
+    HttpClientContext deadlineContext(Duration readTimeout) {
+        return RequestDeadline.remaining()
+                .map(left -> {
+                    long budgetMillis = Math.max(left.toMillis(), 1);
+                    HttpClientContext context = HttpClientContext.create();
+                    context.setRequestConfig(RequestConfig.custom()
+                            .setResponseTimeout(Timeout.ofMilliseconds(Math.min(readTimeout.toMillis(), budgetMillis)))
+                            .setConnectionRequestTimeout(Timeout.ofMilliseconds(
+                                    Math.min(connectionRequestTimeout.toMillis(), budgetMillis)))
+                            .build());
+                    return context;
+                })
+                .orElse(null);
+    }
+
+    private void registerPoolGauge(MeterRegistry meterRegistry, String name, String description,
+                                   ToIntFunction<PoolStats> stat) {
+        Gauge.builder(name, connectionManager, manager -> stat.applyAsInt(manager.getTotalStats()))
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+}
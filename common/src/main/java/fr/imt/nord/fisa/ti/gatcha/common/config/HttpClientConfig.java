@@ -0,0 +1,19 @@
+package fr.imt.nord.fisa.ti.gatcha.common.config;
+
+import fr.imt.nord.fisa.ti.gatcha.common.client.HttpClientHedgingSettings;
+import fr.imt.nord.fisa.ti.gatcha.common.client.HttpClientLimiterSettings;
+import fr.imt.nord.fisa.ti.gatcha.common.client.HttpClientRetrySettings;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enregistre les réglages du client HTTP inter-services ({@code http.client.*}).
+ */
+@Configuration
+@EnableConfigurationProperties({
+        HttpClientRetrySettings.class,
+        HttpClientLimiterSettings.class,
+        HttpClientHedgingSettings.class
+})
+public class HttpClientConfig {
+}
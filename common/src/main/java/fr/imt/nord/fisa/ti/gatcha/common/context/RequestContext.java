@@ -0,0 +1,104 @@
+package fr.imt.nord.fisa.ti.gatcha.common.context;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Instantané immuable du contexte de la requête en cours ({@link SecurityContext} et
+ * {@link RequestDeadline}), à recopier sur les threads qui exécutent une partie du traitement.
+ * <p>
+ * Le contexte n'est lié au thread d'exécution que le temps de la tâche, puis le contexte
+ * précédent de ce thread est rétabli : un thread de pool ne garde jamais l'identité d'une
+ * requête précédente, et une tâche exécutée sur le thread appelant ne lui fait pas perdre
+ * la sienne. C'est la sémantique d'un {@code ScopedValue}, qui n'est qu'en preview en Java 21.
+ * <p>
+ * Les callbacks d'un {@link CompletableFuture} ({@code thenApply}...) s'exécutent sur le thread
+ * qui complète le futur : n'y lire le contexte que s'ils ont été enveloppés par {@link #wrap}.
+ */
+public final class RequestContext {
+
+    private static final RequestContext EMPTY = new RequestContext(SecurityContext.Identity.ANONYMOUS, null);
+
+    private final SecurityContext.Identity identity;
+    private final Long deadlineNanos;
+
+    private RequestContext(SecurityContext.Identity identity, Long deadlineNanos) {
+        this.identity = identity;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Capture le contexte du thread courant.
+     */
+    public static RequestContext capture() {
+        return new RequestContext(SecurityContext.current(), RequestDeadline.get());
+    }
+
+    /**
+     * Contexte vide, pour les traitements de fond qui ne doivent agir au nom d'aucun utilisateur.
+     */
+    public static RequestContext empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Exécute une tâche avec ce contexte, puis rétablit le contexte précédent du thread.
+     */
+    public <T> T call(Supplier<T> task) {
+        SecurityContext.Identity previousIdentity = SecurityContext.current();
+        Long previousDeadline = RequestDeadline.get();
+        SecurityContext.restore(identity);
+        RequestDeadline.restore(deadlineNanos);
+        try {
+            return task.get();
+        } finally {
+            SecurityContext.restore(previousIdentity);
+            RequestDeadline.restore(previousDeadline);
+        }
+    }
+
+    public void run(Runnable task) {
+        call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Enveloppe une tâche pour qu'elle s'exécute avec le contexte de l'appelant.
+     */
+    public static Runnable wrap(Runnable task) {
+        RequestContext context = capture();
+        return () -> context.run(task);
+    }
+
+    /**
+     * Enveloppe une tâche pour qu'elle s'exécute avec le contexte de l'appelant.
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        RequestContext context = capture();
+        return () -> context.call(task);
+    }
+
+    /**
+     * Exécuteur propageant le contexte du thread qui soumet chaque tâche.
+     */
+    public static Executor propagating(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    /**
+     * Équivalent de {@link CompletableFuture#supplyAsync(Supplier, Executor)} avec le contexte de l'appelant.
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> task, Executor executor) {
+        return CompletableFuture.supplyAsync(wrap(task), executor);
+    }
+
+    /**
+     * Équivalent de {@link CompletableFuture#runAsync(Runnable, Executor)} avec le contexte de l'appelant.
+     */
+    public static CompletableFuture<Void> runAsync(Runnable task, Executor executor) {
+        return CompletableFuture.runAsync(wrap(task), executor);
+    }
+}
@@ -0,0 +1,53 @@
+package fr.imt.nord.fisa.ti.gatcha.common.context;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Échéance de la requête en cours, propagée d'un service à l'autre.
+ * <p>
+ * L'échéance est transmise sous forme de budget restant (en millisecondes, en-tête
+ * {@value #HEADER}) plutôt que de date absolue, pour ne pas dépendre de la synchronisation
+ * des horloges entre services.
+ */
+public class RequestDeadline {
+
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    private static final ThreadLocal<Long> deadlineNanos = new ThreadLocal<>();
+
+    public static void set(Duration budget) {
+        deadlineNanos.set(System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * Échéance brute (horloge {@link System#nanoTime()}), recopiée sur les autres threads par {@link RequestContext}.
+     */
+    static Long get() {
+        return deadlineNanos.get();
+    }
+
+    static void restore(Long deadline) {
+        if (deadline == null) {
+            deadlineNanos.remove();
+        } else {
+            deadlineNanos.set(deadline);
+        }
+    }
+
+    /**
+     * Budget restant, vide si aucune échéance n'est définie. Peut être négatif ou nul.
+     */
+    public static Optional<Duration> remaining() {
+        Long deadline = deadlineNanos.get();
+        return deadline == null ? Optional.empty() : Optional.of(Duration.ofNanos(deadline - System.nanoTime()));
+    }
+
+    public static boolean isExpired() {
+        return remaining().map(left -> left.isNegative() || left.isZero()).orElse(false);
+    }
+
+    public static void clear() {
+        deadlineNanos.remove();
+    }
+}
@@ -1,24 +1,50 @@
 package fr.imt.nord.fisa.ti.gatcha.common.context;
 
+/**
+ * Identité de l'utilisateur à l'origine de la requête en cours (token et username).
+ * <p>
+ * L'identité est un instantané immuable ({@link Identity}) lié au thread qui traite la requête.
+ * Pour qu'elle suive une partie du traitement exécutée sur un autre thread, passer par
+ * {@link RequestContext}, qui la recopie puis la retire du thread d'exécution.
+ */
 public class SecurityContext {
-    private static final ThreadLocal<String> username = new ThreadLocal<>();
-    private static final ThreadLocal<String> token = new ThreadLocal<>();
+
+    /**
+     * Token et username de l'appelant, {@code null} tant que la requête n'est pas authentifiée.
+     */
+    public record Identity(String token, String username) {
+
+        public static final Identity ANONYMOUS = new Identity(null, null);
+    }
+
+    private static final ThreadLocal<Identity> identity = new ThreadLocal<>();
 
     public static void set(String t, String u) {
-        token.set(t);
-        username.set(u);
+        identity.set(new Identity(t, u));
+    }
+
+    public static Identity current() {
+        Identity current = identity.get();
+        return current == null ? Identity.ANONYMOUS : current;
     }
 
     public static String getUsername() {
-        return username.get();
+        return current().username();
     }
 
     public static String getToken() {
-        return token.get();
+        return current().token();
     }
 
     public static void clear() {
-        token.remove();
-        username.remove();
+        identity.remove();
+    }
+
+    static void restore(Identity previous) {
+        if (previous == null || previous == Identity.ANONYMOUS) {
+            identity.remove();
+        } else {
+            identity.set(previous);
+        }
     }
 }
@@ -1,4 +1,4 @@
-package fr.imt.nord.fisa.ti.gatcha.invocation.dto;
+package fr.imt.nord.fisa.ti.gatcha.common.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.UUID;
 
 /**
- * Response DTO reçue de l'API Player
+ * Profil d'un joueur renvoyé par l'API Player aux autres services
  */
 @Data
 @Builder
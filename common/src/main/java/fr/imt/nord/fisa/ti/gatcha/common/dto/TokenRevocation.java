@@ -0,0 +1,20 @@
+package fr.imt.nord.fisa.ti.gatcha.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Token signé révoqué avant son expiration.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+    private String tokenId;
+    private Instant expiresAt;
+}
@@ -0,0 +1,12 @@
+package fr.imt.nord.fisa.ti.gatcha.common.exception;
+
+/**
+ * Appel inter-services refusé localement, sans avoir été envoyé : il n'est pas rejoué et ne
+ * compte pas comme un échec du service cible (disjoncteur, limiteur adaptatif).
+ */
+public abstract class CallNotAttemptedException extends ServiceCommunicationException {
+
+    protected CallNotAttemptedException(String message, int statusCode) {
+        super(message, statusCode);
+    }
+}
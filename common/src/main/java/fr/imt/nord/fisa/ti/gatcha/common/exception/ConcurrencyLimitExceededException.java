@@ -0,0 +1,12 @@
+package fr.imt.nord.fisa.ti.gatcha.common.exception;
+
+/**
+ * Appel refusé localement, sans être tenté, car la limite adaptative d'appels simultanés
+ * vers le service cible est atteinte.
+ */
+public class ConcurrencyLimitExceededException extends CallNotAttemptedException {
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message, 503);
+    }
+}
@@ -0,0 +1,11 @@
+package fr.imt.nord.fisa.ti.gatcha.common.exception;
+
+/**
+ * Appel non envoyé car l'échéance de la requête en cours est dépassée.
+ */
+public class DeadlineExceededException extends CallNotAttemptedException {
+
+    public DeadlineExceededException(String message) {
+        super(message, 504);
+    }
+}
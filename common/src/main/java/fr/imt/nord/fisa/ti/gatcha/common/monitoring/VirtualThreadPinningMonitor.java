@@ -0,0 +1,117 @@
+package fr.imt.nord.fisa.ti.gatcha.common.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Détecte les threads virtuels bloqués sur leur thread porteur (pinning) : en Java 21, un thread
+ * virtuel qui bloque dans un bloc {@code synchronized} ou un appel natif monopolise son porteur,
+ * ce qui annule le gain des threads virtuels sur les chemins concernés.
+ * <p>
+ * Les événements JFR {@code jdk.VirtualThreadPinned} plus longs que {@code threshold} sont
+ * comptés par emplacement (première frame du code applicatif, sinon première frame de la pile)
+ * dans {@code jvm.threads.virtual.pinned}. La pile complète est journalisée au premier
+ * événement de chaque emplacement. Par défaut, la détection suit {@code spring.threads.virtual.enabled}.
+ */
+@Slf4j
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "fr.imt.nord.fisa.ti.gatcha.";
+    private static final int LOGGED_FRAMES = 15;
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration threshold;
+    private final Set<String> reportedLocations = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${virtual-threads.pinning.monitor.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+            @Value("${virtual-threads.pinning.threshold:20ms}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+            log.info("Virtual thread pinning monitor started (threshold: {})", threshold);
+        } catch (RuntimeException | LinkageError e) {
+            // JFR absent du runtime ou désactivé : la détection est facultative
+            log.warn("Virtual thread pinning monitor unavailable: {}", e.getMessage());
+            stream = null;
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String location = location(frames);
+
+        Counter.builder("jvm.threads.virtual.pinned")
+                .description("Threads virtuels bloqués sur leur thread porteur au-delà du seuil")
+                .tag("location", location)
+                .register(meterRegistry)
+                .increment();
+        Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("Durée pendant laquelle un thread virtuel a bloqué son thread porteur")
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        if (reportedLocations.add(location)) {
+            log.warn("Virtual thread pinned for {} ms at {}:\n{}", event.getDuration().toMillis(), location,
+                    frames.stream()
+                            .limit(LOGGED_FRAMES)
+                            .map(frame -> "\tat " + describe(frame))
+                            .collect(Collectors.joining("\n")));
+        } else {
+            log.debug("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), location);
+        }
+    }
+
+    private static String location(List<RecordedFrame> frames) {
+        return frames.stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .or(() -> frames.stream().findFirst())
+                .map(VirtualThreadPinningMonitor::describe)
+                .orElse("unknown");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package fr.imt.nord.fisa.ti.gatcha.common.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite adaptative du nombre d'appels simultanés vers un service distant (AIMD).
+ * <p>
+ * Tant que les appels aboutissent sous {@code latencyThreshold} et que la limite est réellement
+ * utilisée (au moins la moitié des places occupées), la limite augmente d'une unité. Dès qu'un
+ * appel est trop lent ou échoue (timeout, erreur réseau, 5xx), elle est multipliée par
+ * {@code backoffRatio}. Au-delà de la limite, les appels sont refusés immédiatement plutôt que
+ * mis en file d'attente.
+ */
+public class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double limit;
+    private int inFlight;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, Duration latencyThreshold) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid AIMD limiter configuration");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * Réserve une place pour un appel.
+     *
+     * @return {@code false} si la limite courante est atteinte et que l'appel doit être refusé
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Signale la fin d'un appel qui a abouti et libère sa place.
+     *
+     * @param latencyNanos durée de l'appel
+     */
+    public void onSuccess(long latencyNanos) {
+        lock.lock();
+        try {
+            if (latencyNanos > latencyThresholdNanos) {
+                decrease();
+            } else if (inFlight * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            inFlight--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Signale qu'un appel a échoué par surcharge (timeout, erreur réseau, 5xx) et libère sa place.
+     */
+    public void onDropped() {
+        lock.lock();
+        try {
+            decrease();
+            inFlight--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Libère la place d'un appel dont le résultat ne renseigne pas sur la charge (4xx).
+     */
+    public void onIgnored() {
+        lock.lock();
+        try {
+            inFlight--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
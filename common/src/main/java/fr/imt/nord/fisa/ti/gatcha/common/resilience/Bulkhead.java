@@ -0,0 +1,57 @@
+package fr.imt.nord.fisa.ti.gatcha.common.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limite le nombre d'appels simultanés vers un service distant, pour qu'un service lent
+ * n'immobilise qu'une part bornée des threads de l'appelant.
+ */
+public class Bulkhead {
+
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final Semaphore permits;
+
+    /**
+     * @param maxConcurrent nombre maximal d'appels simultanés
+     * @param maxWait       attente maximale d'une place libre ({@code 0} : refus immédiat)
+     */
+    public Bulkhead(int maxConcurrent, Duration maxWait) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Bulkhead max concurrent calls must be positive");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Réserve une place pour un appel.
+     *
+     * @return {@code false} si aucune place ne s'est libérée dans le délai
+     */
+    public boolean tryAcquire() {
+        try {
+            return maxWait.isZero()
+                    ? permits.tryAcquire()
+                    : permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
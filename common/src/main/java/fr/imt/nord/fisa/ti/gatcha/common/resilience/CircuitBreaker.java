@@ -0,0 +1,207 @@
+package fr.imt.nord.fisa.ti.gatcha.common.resilience;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Disjoncteur autour des appels vers un service distant.
+ * <p>
+ * Après {@code failureThreshold} échecs consécutifs, le disjoncteur s'ouvre et refuse
+ * immédiatement les appels pendant {@code openDuration}. Il passe ensuite en semi-ouvert :
+ * un seul appel d'essai est autorisé, qui le referme s'il réussit ou le rouvre s'il échoue.
+ * <p>
+ * L'appelant encadre chaque appel par {@link #tryAcquire()} puis {@link #onSuccess(Permit)} ou
+ * {@link #onFailure(Permit)} avec l'autorisation obtenue, et décide lui-même de ce qui compte
+ * comme un échec (une erreur 4xx, par exemple, prouve que le service répond).
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    /**
+     * Notifié à chaque changement d'état, hors du verrou du disjoncteur.
+     */
+    @FunctionalInterface
+    public interface StateListener {
+        void onStateChange(String name, State from, State to);
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<StateListener> listeners = new CopyOnWriteArrayList<>();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInProgress;
+    private long generation;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this(name, failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be positive");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Autorisation d'appel délivrée par {@link #tryAcquire()}, rattachée à l'état du disjoncteur
+     * au moment où elle a été accordée.
+     */
+    public static final class Permit {
+        private final long generation;
+        private final boolean trial;
+
+        private Permit(long generation, boolean trial) {
+            this.generation = generation;
+            this.trial = trial;
+        }
+    }
+
+    public void addListener(StateListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Demande l'autorisation de tenter un appel. En semi-ouvert, seul l'appel d'essai est
+     * autorisé jusqu'à ce que son résultat soit signalé.
+     *
+     * @return l'autorisation à rendre via {@link #onSuccess(Permit)}, {@link #onFailure(Permit)}
+     * ou {@link #onIgnored(Permit)}, vide si l'appel doit être refusé sans être tenté
+     */
+    public Optional<Permit> tryAcquire() {
+        State previous = null;
+        Permit permit = null;
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> permit = new Permit(generation, false);
+                case OPEN -> {
+                    if (nanoClock.getAsLong() - openedAt >= openDurationNanos) {
+                        previous = transitionTo(State.HALF_OPEN);
+                        trialInProgress = true;
+                        permit = new Permit(generation, true);
+                    }
+                }
+                default -> {
+                    if (!trialInProgress) {
+                        trialInProgress = true;
+                        permit = new Permit(generation, true);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyListeners(previous, State.HALF_OPEN);
+        return Optional.ofNullable(permit);
+    }
+
+    /**
+     * Signale qu'un appel autorisé a abouti. Seul l'appel d'essai referme un disjoncteur
+     * semi-ouvert ; le résultat d'un appel autorisé avant le dernier changement d'état
+     * (un appel lent qui aboutit alors que le disjoncteur s'est ouvert entre-temps) est ignoré.
+     */
+    public void onSuccess(Permit permit) {
+        State previous = null;
+        lock.lock();
+        try {
+            if (isCurrent(permit)) {
+                consecutiveFailures = 0;
+                if (permit.trial) {
+                    trialInProgress = false;
+                    previous = transitionTo(State.CLOSED);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyListeners(previous, State.CLOSED);
+    }
+
+    /**
+     * Signale qu'un appel autorisé a échoué (timeout, erreur réseau, erreur 5xx...).
+     * Comme pour {@link #onSuccess(Permit)}, le résultat d'un appel autorisé avant le
+     * dernier changement d'état est ignoré.
+     */
+    public void onFailure(Permit permit) {
+        State previous = null;
+        lock.lock();
+        try {
+            if (isCurrent(permit)) {
+                consecutiveFailures++;
+                if (permit.trial || consecutiveFailures >= failureThreshold) {
+                    trialInProgress = false;
+                    openedAt = nanoClock.getAsLong();
+                    previous = transitionTo(State.OPEN);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyListeners(previous, State.OPEN);
+    }
+
+    /**
+     * Signale qu'un appel autorisé n'a finalement pas été envoyé : libère l'appel d'essai
+     * en semi-ouvert sans changer d'état.
+     */
+    public void onIgnored(Permit permit) {
+        lock.lock();
+        try {
+            if (isCurrent(permit) && permit.trial) {
+                trialInProgress = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private boolean isCurrent(Permit permit) {
+        return permit.generation == generation;
+    }
+
+    private State transitionTo(State next) {
+        State previous = state;
+        state = next;
+        generation++;
+        return previous;
+    }
+
+    private void notifyListeners(State previous, State next) {
+        if (previous == null || previous == next) {
+            return;
+        }
+        for (StateListener listener : listeners) {
+            listener.onStateChange(name, previous, next);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package fr.imt.nord.fisa.ti.gatcha.common.resilience;
+
+import fr.imt.nord.fisa.ti.gatcha.common.exception.CallNotAttemptedException;
+import fr.imt.nord.fisa.ti.gatcha.common.exception.ServiceCommunicationException;
+import io.micrometer.core.instrument.Counter;
+import lombok.Getter;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Protection des appels vers un service distant : un {@link Bulkhead} borne les appels
+ * simultanés et un {@link CircuitBreaker} fait échouer immédiatement les appels quand le
+ * service ne répond plus. Un appel refusé lève une {@link ServiceCommunicationException} 503.
+ * <p>
+ * Seules les erreurs réseau, les timeouts et les réponses 5xx comptent comme des échecs
+ * pour le disjoncteur : une 4xx prouve que le service répond.
+ */
+public class DownstreamGuard {
+
+    @Getter
+    private final String serviceName;
+    @Getter
+    private final Bulkhead bulkhead;
+    @Getter
+    private final CircuitBreaker circuitBreaker;
+    private final Counter bulkheadRejected;
+    private final Counter breakerRejected;
+
+    DownstreamGuard(String serviceName, Bulkhead bulkhead, CircuitBreaker circuitBreaker,
+                    Counter bulkheadRejected, Counter breakerRejected) {
+        this.serviceName = serviceName;
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkheadRejected = bulkheadRejected;
+        this.breakerRejected = breakerRejected;
+    }
+
+    /**
+     * Exécute un appel bloquant à travers le bulkhead et le disjoncteur.
+     */
+    public <T> T execute(Supplier<T> call) {
+        CircuitBreaker.Permit permit = acquire();
+        try {
+            T result = call.get();
+            circuitBreaker.onSuccess(permit);
+            return result;
+        } catch (RuntimeException e) {
+            record(permit, e);
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Exécute un appel asynchrone : la place est réservée avant le lancement et libérée
+     * à la fin de l'appel. Un refus est retourné sous forme de futur en échec.
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call) {
+        CircuitBreaker.Permit permit;
+        try {
+            permit = acquire();
+        } catch (ServiceCommunicationException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            record(permit, e);
+            bulkhead.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> {
+            if (error == null) {
+                circuitBreaker.onSuccess(permit);
+            } else {
+                record(permit, error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            }
+            bulkhead.release();
+        });
+    }
+
+    private CircuitBreaker.Permit acquire() {
+        if (!bulkhead.tryAcquire()) {
+            bulkheadRejected.increment();
+            throw new ServiceCommunicationException(serviceName + " unavailable: too many concurrent calls", 503);
+        }
+        Optional<CircuitBreaker.Permit> permit = circuitBreaker.tryAcquire();
+        if (permit.isEmpty()) {
+            bulkhead.release();
+            breakerRejected.increment();
+            throw new ServiceCommunicationException(serviceName + " unavailable: circuit breaker open", 503);
+        }
+        return permit.get();
+    }
+
+    private void record(CircuitBreaker.Permit permit, Throwable error) {
+        if (error instanceof CallNotAttemptedException) {
+            circuitBreaker.onIgnored(permit);
+        } else if (isFailure(error)) {
+            circuitBreaker.onFailure(permit);
+        } else {
+            circuitBreaker.onSuccess(permit);
+        }
+    }
+
+    private static boolean isFailure(Throwable error) {
+        if (error instanceof ResourceAccessException) {
+            return true;
+        }
+        return error instanceof ServiceCommunicationException communicationException
+                && communicationException.getStatusCode() >= 500;
+    }
+}
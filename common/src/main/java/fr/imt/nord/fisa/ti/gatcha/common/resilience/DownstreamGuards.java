@@ -0,0 +1,101 @@
+package fr.imt.nord.fisa.ti.gatcha.common.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre des {@link DownstreamGuard}, un par URL de service distant.
+ * <p>
+ * La configuration par défaut ({@code downstream.default.*}) peut être surchargée par service
+ * ({@code downstream.<service>.*}, par exemple {@code downstream.monster.max-concurrent}) :
+ * <ul>
+ *     <li>{@code max-concurrent} : appels simultanés autorisés ;</li>
+ *     <li>{@code max-wait} : attente maximale d'une place libre ;</li>
+ *     <li>{@code failure-threshold} : échecs consécutifs avant ouverture du disjoncteur ;</li>
+ *     <li>{@code open-duration} : durée d'ouverture du disjoncteur.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class DownstreamGuards {
+
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final ConcurrentHashMap<String, DownstreamGuard> guards = new ConcurrentHashMap<>();
+
+    public DownstreamGuards(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+    }
+
+    /**
+     * Retourne la protection associée à un service distant, créée au premier appel.
+     *
+     * @param serviceName nom logique du service (clé de configuration et tag des métriques)
+     * @param serviceUrl  URL de base du service
+     */
+    public DownstreamGuard forService(String serviceName, String serviceUrl) {
+        return guards.computeIfAbsent(serviceUrl, url -> create(serviceName, url));
+    }
+
+    private DownstreamGuard create(String serviceName, String serviceUrl) {
+        int maxConcurrent = property(serviceName, "max-concurrent", Integer.class, 20);
+        Duration maxWait = property(serviceName, "max-wait", Duration.class, Duration.ZERO);
+        int failureThreshold = property(serviceName, "failure-threshold", Integer.class, 5);
+        Duration openDuration = property(serviceName, "open-duration", Duration.class, Duration.ofSeconds(10));
+
+        Bulkhead bulkhead = new Bulkhead(maxConcurrent, maxWait);
+        CircuitBreaker circuitBreaker = new CircuitBreaker(serviceName, failureThreshold, openDuration);
+        circuitBreaker.addListener(this::onStateChange);
+
+        Gauge.builder("downstream.circuit-breaker.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("État du disjoncteur (0 = fermé, 1 = semi-ouvert, 2 = ouvert)")
+                .tag("service", serviceName)
+                .register(meterRegistry);
+        Gauge.builder("downstream.bulkhead.active", bulkhead, Bulkhead::getActive)
+                .description("Appels en cours vers le service")
+                .tag("service", serviceName)
+                .register(meterRegistry);
+        Gauge.builder("downstream.bulkhead.max", bulkhead, Bulkhead::getMaxConcurrent)
+                .description("Appels simultanés autorisés vers le service")
+                .tag("service", serviceName)
+                .register(meterRegistry);
+
+        log.info("Downstream guard for {} ({}): max concurrent {}, max wait {}, breaker {} failures / {}",
+                serviceName, serviceUrl, maxConcurrent, maxWait, failureThreshold, openDuration);
+        return new DownstreamGuard(serviceName, bulkhead, circuitBreaker,
+                rejectedCounter(serviceName, "bulkhead_full"),
+                rejectedCounter(serviceName, "circuit_open"));
+    }
+
+    private <T> T property(String serviceName, String key, Class<T> type, T defaultValue) {
+        T fallback = environment.getProperty("downstream.default." + key, type, defaultValue);
+        return environment.getProperty("downstream." + serviceName + "." + key, type, fallback);
+    }
+
+    private Counter rejectedCounter(String serviceName, String reason) {
+        return Counter.builder("downstream.rejected")
+                .description("Appels refusés sans être tentés")
+                .tag("service", serviceName)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private void onStateChange(String serviceName, CircuitBreaker.State from, CircuitBreaker.State to) {
+        log.warn("Circuit breaker for {} changed from {} to {}", serviceName, from, to);
+        Counter.builder("downstream.circuit-breaker.transitions")
+                .description("Changements d'état du disjoncteur")
+                .tag("service", serviceName)
+                .tag("from", from.name())
+                .tag("to", to.name())
+                .register(meterRegistry)
+                .increment();
+    }
+}
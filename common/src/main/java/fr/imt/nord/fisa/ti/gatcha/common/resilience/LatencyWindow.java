@@ -0,0 +1,67 @@
+package fr.imt.nord.fisa.ti.gatcha.common.resilience;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fenêtre glissante des dernières latences observées vers un service distant, utilisée pour
+ * estimer un percentile (par exemple le p95, délai au-delà duquel une requête est jugée lente).
+ * <p>
+ * Seuls les {@code size} derniers échantillons sont conservés : l'estimation suit l'évolution
+ * de la latence du service sans garder l'historique complet.
+ */
+public class LatencyWindow {
+
+    private final long[] samples;
+    private final int minSamples;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int count;
+    private int next;
+
+    /**
+     * @param size       nombre d'échantillons conservés
+     * @param minSamples nombre d'échantillons requis avant de fournir une estimation
+     */
+    public LatencyWindow(int size, int minSamples) {
+        if (size <= 0 || minSamples <= 0 || minSamples > size) {
+            throw new IllegalArgumentException("Invalid latency window configuration");
+        }
+        this.samples = new long[size];
+        this.minSamples = minSamples;
+    }
+
+    public void record(long latencyNanos) {
+        lock.lock();
+        try {
+            samples[next] = latencyNanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Estime un percentile des latences de la fenêtre.
+     *
+     * @param percentile valeur entre 0 et 1 (ex. 0.95)
+     * @return la latence en nanosecondes, ou vide tant que la fenêtre compte trop peu d'échantillons
+     */
+    public OptionalLong percentile(double percentile) {
+        long[] snapshot;
+        lock.lock();
+        try {
+            if (count < minSamples) {
+                return OptionalLong.empty();
+            }
+            snapshot = Arrays.copyOf(samples, count);
+        } finally {
+            lock.unlock();
+        }
+        Arrays.sort(snapshot);
+        int index = (int) Math.ceil(percentile * snapshot.length) - 1;
+        return OptionalLong.of(snapshot[Math.clamp(index, 0, snapshot.length - 1)]);
+    }
+}
@@ -0,0 +1,63 @@
+package fr.imt.nord.fisa.ti.gatcha.common.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Budget de retries vers un service distant.
+ * <p>
+ * Chaque requête initiale crédite le budget de {@code ratio} jeton (plafonné à {@code maxTokens}),
+ * chaque retry en consomme un. Les retries restent ainsi limités à une fraction du trafic : quand
+ * le service cible est en panne, les clients n'amplifient pas la charge en rejouant chaque appel.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    /**
+     * @param ratio     part de retries autorisée par rapport aux requêtes (ex. 0.2 = 20 %)
+     * @param maxTokens nombre maximal de retries accumulables, disponibles dès le démarrage
+     */
+    public RetryBudget(double ratio, int maxTokens) {
+        if (ratio < 0 || maxTokens < 0) {
+            throw new IllegalArgumentException("Retry budget ratio and max tokens must be positive");
+        }
+        this.depositPerRequest = Math.round(ratio * SCALE);
+        this.maxBalance = maxTokens * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    /**
+     * Crédite le budget pour une requête initiale.
+     */
+    public void recordRequest() {
+        balance.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(maxBalance, current + deposit));
+    }
+
+    /**
+     * Consomme un jeton pour un retry.
+     *
+     * @return {@code false} si le budget est épuisé et que le retry ne doit pas être tenté
+     */
+    public boolean tryAcquireRetry() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Nombre de retries actuellement disponibles.
+     */
+    public double available() {
+        return (double) balance.get() / SCALE;
+    }
+}
@@ -0,0 +1,33 @@
+package fr.imt.nord.fisa.ti.gatcha.common.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Politique de retry avec backoff exponentiel et jitter complet : avant le retry n, on attend
+ * une durée aléatoire entre 0 et {@code min(maxBackoff, initialBackoff * 2^(n-1))}, pour que
+ * les clients qui ont échoué en même temps ne rejouent pas leurs appels en même temps.
+ *
+ * @param maxAttempts    nombre maximal de tentatives, appel initial compris
+ * @param initialBackoff plafond d'attente avant le premier retry
+ * @param maxBackoff     plafond d'attente entre deux tentatives
+ */
+public record RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+
+    public RetryPolicy {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1");
+        }
+    }
+
+    /**
+     * Durée d'attente avant un retry.
+     *
+     * @param retry numéro du retry, à partir de 1
+     */
+    public Duration backoff(int retry) {
+        long ceiling = initialBackoff.toMillis() << Math.min(retry - 1, 20);
+        long bounded = Math.min(maxBackoff.toMillis(), Math.max(ceiling, 0));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(bounded + 1));
+    }
+}
@@ -0,0 +1,106 @@
+package fr.imt.nord.fisa.ti.gatcha.common.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Assertions internes transmises entre services lors d'un appel inter-services.
+ * <p>
+ * Un service qui vient de vérifier le token d'un utilisateur joint à ses appels sortants
+ * une assertion signée (HMAC-SHA256, secret partagé par les services) contenant le username,
+ * une échéance courte et l'empreinte du token transmis. Le service appelé l'accepte sans
+ * interroger auth, à condition qu'elle accompagne bien le même token.
+ * <p>
+ * Le secret doit être distinct de {@code auth.token.signing.secret} : une assertion ne doit
+ * jamais pouvoir être présentée comme un token utilisateur.
+ */
+@Slf4j
+@Component
+public class InternalAssertionService {
+
+    public static final String HEADER = "X-Internal-Assertion";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final int TOKEN_FINGERPRINT_BYTES = 16;
+
+    private final SignedTokenCodec codec;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public InternalAssertionService(
+            @Value("${auth.internal-assertion.enabled:false}") boolean enabled,
+            @Value("${auth.internal-assertion.secret:}") String secret,
+            @Value("${auth.internal-assertion.ttl:30s}") Duration ttl) {
+        this(enabled, secret, ttl, Clock.systemUTC());
+    }
+
+    /**
+     * @param clock horloge des échéances (remplaçable dans les tests)
+     */
+    InternalAssertionService(boolean enabled, String secret, Duration ttl, Clock clock) {
+        this.codec = enabled ? SignedTokenCodec.fromConfig("HMAC", secret, null, null) : null;
+        this.ttl = ttl;
+        this.clock = clock;
+        log.info("InternalAssertionService initialized (enabled: {}, ttl: {})", enabled, ttl);
+    }
+
+    public boolean isEnabled() {
+        return codec != null;
+    }
+
+    /**
+     * Crée une assertion pour un appel sortant effectué au nom d'un utilisateur déjà vérifié.
+     *
+     * @param token    le token utilisateur transmis avec l'appel
+     * @param username l'utilisateur authentifié
+     * @return l'assertion, ou vide si les assertions sont désactivées
+     */
+    public Optional<String> issue(String token, String username) {
+        if (codec == null || token == null || username == null) {
+            return Optional.empty();
+        }
+        SignedTokenClaims claims = new SignedTokenClaims(fingerprint(token), username, clock.instant().plus(ttl));
+        return Optional.of(codec.sign(claims));
+    }
+
+    /**
+     * Vérifie une assertion reçue avec un token.
+     *
+     * @param assertion la valeur de l'en-tête {@value #HEADER}
+     * @param token     le token utilisateur reçu avec l'assertion
+     * @return le username, ou vide si l'assertion est absente, invalide, expirée
+     * ou émise pour un autre token
+     */
+    public Optional<String> verify(String assertion, String token) {
+        if (codec == null || assertion == null || token == null) {
+            return Optional.empty();
+        }
+        String expectedFingerprint = fingerprint(token);
+        return codec.verify(assertion, clock.instant())
+                .filter(claims -> MessageDigest.isEqual(
+                        claims.tokenId().getBytes(StandardCharsets.US_ASCII),
+                        expectedFingerprint.getBytes(StandardCharsets.US_ASCII)))
+                .map(SignedTokenClaims::username);
+    }
+
+    private static String fingerprint(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return ENCODER.encodeToString(Arrays.copyOf(digest, TOKEN_FINGERPRINT_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
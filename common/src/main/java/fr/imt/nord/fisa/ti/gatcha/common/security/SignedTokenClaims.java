@@ -0,0 +1,17 @@
+package fr.imt.nord.fisa.ti.gatcha.common.security;
+
+import java.time.Instant;
+
+/**
+ * Contenu d'un token signé.
+ *
+ * @param tokenId   identifiant unique du token (utilisé pour la révocation)
+ * @param username  utilisateur authentifié
+ * @param expiresAt date d'expiration (à la seconde)
+ */
+public record SignedTokenClaims(String tokenId, String username, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
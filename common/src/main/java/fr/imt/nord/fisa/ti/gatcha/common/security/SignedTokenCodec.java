@@ -0,0 +1,190 @@
+package fr.imt.nord.fisa.ti.gatcha.common.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Encodage et vérification des tokens signés, vérifiables sans appel au service auth.
+ * <p>
+ * Format : {@code st1.<payload>.<signature>}, payload et signature en base64url sans padding.
+ * Le payload contient l'identifiant du token, l'expiration (secondes epoch) et le username,
+ * séparés par des retours à la ligne.
+ * <p>
+ * Deux algorithmes sont supportés :
+ * <ul>
+ *     <li>{@code HMAC} (HMAC-SHA256) : un secret partagé par auth et les services ;</li>
+ *     <li>{@code ED25519} : auth signe avec la clé privée, les services ne connaissent
+ *     que la clé publique.</li>
+ * </ul>
+ * Les instances sont thread-safe.
+ */
+public final class SignedTokenCodec {
+
+    public static final String PREFIX = "st1.";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String ED25519_ALGORITHM = "Ed25519";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final String algorithm;
+    private final SecretKeySpec hmacKey;
+    private final PrivateKey privateKey;
+    private final PublicKey publicKey;
+
+    private SignedTokenCodec(String algorithm, SecretKeySpec hmacKey, PrivateKey privateKey, PublicKey publicKey) {
+        this.algorithm = algorithm;
+        this.hmacKey = hmacKey;
+        this.privateKey = privateKey;
+        this.publicKey = publicKey;
+    }
+
+    public static SignedTokenCodec hmac(byte[] secret) {
+        if (secret == null || secret.length < 32) {
+            throw new IllegalArgumentException("HMAC secret must be at least 256 bits");
+        }
+        return new SignedTokenCodec(HMAC_ALGORITHM, new SecretKeySpec(secret, HMAC_ALGORITHM), null, null);
+    }
+
+    /**
+     * @param privateKey clé privée, {@code null} pour un codec de vérification uniquement
+     * @param publicKey  clé publique
+     */
+    public static SignedTokenCodec ed25519(PrivateKey privateKey, PublicKey publicKey) {
+        if (publicKey == null) {
+            throw new IllegalArgumentException("Ed25519 public key is required");
+        }
+        return new SignedTokenCodec(ED25519_ALGORITHM, null, privateKey, publicKey);
+    }
+
+    /**
+     * Construit un codec à partir de la configuration (clés encodées en base64 standard).
+     *
+     * @param algorithm  {@code HMAC} ou {@code ED25519}
+     * @param secret     secret HMAC
+     * @param privateKey clé privée Ed25519 (PKCS#8), vide côté services
+     * @param publicKey  clé publique Ed25519 (X.509)
+     */
+    public static SignedTokenCodec fromConfig(String algorithm, String secret, String privateKey, String publicKey) {
+        Base64.Decoder decoder = Base64.getDecoder();
+        try {
+            if ("HMAC".equalsIgnoreCase(algorithm)) {
+                return hmac(decoder.decode(secret));
+            }
+            if ("ED25519".equalsIgnoreCase(algorithm)) {
+                KeyFactory keyFactory = KeyFactory.getInstance(ED25519_ALGORITHM);
+                PrivateKey signingKey = privateKey == null || privateKey.isBlank()
+                        ? null
+                        : keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decoder.decode(privateKey)));
+                PublicKey verificationKey = keyFactory.generatePublic(new X509EncodedKeySpec(decoder.decode(publicKey)));
+                return ed25519(signingKey, verificationKey);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid token signing key: " + e.getMessage(), e);
+        }
+        throw new IllegalArgumentException("Unsupported token signing algorithm: " + algorithm);
+    }
+
+    /**
+     * Indique si une chaîne a la forme d'un token signé (sans vérifier la signature).
+     */
+    public static boolean isSignedToken(String token) {
+        return token != null && token.startsWith(PREFIX);
+    }
+
+    public boolean canSign() {
+        return hmacKey != null || privateKey != null;
+    }
+
+    public String sign(SignedTokenClaims claims) {
+        if (!canSign()) {
+            throw new IllegalStateException("This codec has no signing key");
+        }
+        String payload = ENCODER.encodeToString(serialize(claims));
+        String signingInput = PREFIX + payload;
+        try {
+            return signingInput + "." + ENCODER.encodeToString(signature(signingInput));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Token signing failed", e);
+        }
+    }
+
+    /**
+     * Vérifie la signature et l'expiration d'un token.
+     *
+     * @return les claims du token, ou vide si le token est malformé, mal signé ou expiré
+     */
+    public Optional<SignedTokenClaims> verify(String token, Instant now) {
+        if (!isSignedToken(token)) {
+            return Optional.empty();
+        }
+        int separator = token.lastIndexOf('.');
+        if (separator <= PREFIX.length()) {
+            return Optional.empty();
+        }
+        String signingInput = token.substring(0, separator);
+        try {
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!verifySignature(signingInput, signature)) {
+                return Optional.empty();
+            }
+            SignedTokenClaims claims = deserialize(DECODER.decode(signingInput.substring(PREFIX.length())));
+            return claims == null || claims.isExpired(now) ? Optional.empty() : Optional.of(claims);
+        } catch (IllegalArgumentException | GeneralSecurityException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] signature(String signingInput) throws GeneralSecurityException {
+        byte[] data = signingInput.getBytes(StandardCharsets.US_ASCII);
+        if (hmacKey != null) {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            return mac.doFinal(data);
+        }
+        Signature signer = Signature.getInstance(ED25519_ALGORITHM);
+        signer.initSign(privateKey);
+        signer.update(data);
+        return signer.sign();
+    }
+
+    private boolean verifySignature(String signingInput, byte[] signature) throws GeneralSecurityException {
+        if (hmacKey != null) {
+            return MessageDigest.isEqual(signature(signingInput), signature);
+        }
+        Signature verifier = Signature.getInstance(ED25519_ALGORITHM);
+        verifier.initVerify(publicKey);
+        verifier.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return verifier.verify(signature);
+    }
+
+    private static byte[] serialize(SignedTokenClaims claims) {
+        String payload = claims.tokenId() + "\n" + claims.expiresAt().getEpochSecond() + "\n" + claims.username();
+        return payload.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static SignedTokenClaims deserialize(byte[] payload) {
+        String[] parts = new String(payload, StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length != 3) {
+            return null;
+        }
+        return new SignedTokenClaims(parts[0], parts[2], Instant.ofEpochSecond(Long.parseLong(parts[1])));
+    }
+
+    @Override
+    public String toString() {
+        return "SignedTokenCodec[" + algorithm + "]";
+    }
+}
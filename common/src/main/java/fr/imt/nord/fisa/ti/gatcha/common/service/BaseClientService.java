@@ -1,18 +1,42 @@
 package fr.imt.nord.fisa.ti.gatcha.common.service;
 
 import fr.imt.nord.fisa.ti.gatcha.common.client.HttpClient;
+import fr.imt.nord.fisa.ti.gatcha.common.resilience.DownstreamGuard;
+import fr.imt.nord.fisa.ti.gatcha.common.resilience.DownstreamGuards;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Service de base pour les clients API communiquant avec d'autres microservices.
+ * <p>
+ * Chaque service distant a son propre bulkhead et son propre disjoncteur (voir {@link DownstreamGuards}) :
+ * les appels passés par {@link #call(Supplier)} et {@link #callAsync(Supplier)} échouent immédiatement
+ * quand le service est saturé ou indisponible, au lieu d'immobiliser les threads de l'appelant.
  */
 public abstract class BaseClientService {
 
     protected final HttpClient httpClient;
     protected final String serviceUrl;
+    protected final DownstreamGuard guard;
 
-    protected BaseClientService(HttpClient httpClient, String serviceUrl) {
+    protected BaseClientService(HttpClient httpClient, DownstreamGuards guards, String serviceName, String serviceUrl) {
         this.httpClient = httpClient;
         this.serviceUrl = serviceUrl;
+        this.guard = guards.forService(serviceName, serviceUrl);
+    }
+
+    /**
+     * Exécute un appel bloquant vers le service distant, à travers son bulkhead et son disjoncteur.
+     */
+    protected <T> T call(Supplier<T> remoteCall) {
+        return guard.execute(remoteCall);
     }
-}
 
+    /**
+     * Exécute un appel asynchrone vers le service distant, à travers son bulkhead et son disjoncteur.
+     */
+    protected <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> remoteCall) {
+        return guard.executeAsync(remoteCall);
+    }
+}
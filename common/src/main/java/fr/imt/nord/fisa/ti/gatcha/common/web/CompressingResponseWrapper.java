@@ -0,0 +1,298 @@
+package fr.imt.nord.fisa.ti.gatcha.common.web;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Réponse dont le corps est compressé en gzip une fois le seuil de taille atteint.
+ * <p>
+ * Tant que le seuil n'est pas atteint, le corps reste en mémoire et les en-têtes ne sont pas
+ * envoyés ; le {@code Content-Length} annoncé par l'application n'est transmis que si le corps
+ * part non compressé.
+ */
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private final int threshold;
+    private final Predicate<String> compressibleType;
+
+    private CompressingOutputStream outputStream;
+    private PrintWriter writer;
+    private Long declaredContentLength;
+
+    CompressingResponseWrapper(HttpServletResponse response, int threshold, Predicate<String> compressibleType) {
+        super(response);
+        this.threshold = threshold;
+        this.compressibleType = compressibleType;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called on this response");
+        }
+        return stream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called on this response");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(stream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        declaredContentLength = len;
+        if (outputStream != null && outputStream.isPassthrough()) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (outputStream != null) {
+            outputStream.flush();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (outputStream != null && outputStream.isBuffering()) {
+            outputStream.resetBuffer();
+        } else {
+            super.resetBuffer();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        declaredContentLength = null;
+        if (outputStream != null && outputStream.isBuffering()) {
+            outputStream.resetBuffer();
+        }
+    }
+
+    /**
+     * Termine le corps : envoie ce qui est encore en mémoire tampon ou finalise le flux gzip.
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (outputStream != null) {
+            outputStream.finish();
+        } else if (declaredContentLength != null) {
+            super.setContentLengthLong(declaredContentLength);
+        }
+    }
+
+    long getBytesWritten() {
+        return outputStream == null ? 0 : outputStream.bytesWritten;
+    }
+
+    long getBytesSent() {
+        return outputStream == null ? 0 : outputStream.bytesSent;
+    }
+
+    boolean isCompressed() {
+        return outputStream != null && outputStream.gzip != null;
+    }
+
+    private CompressingOutputStream stream() {
+        if (outputStream == null) {
+            outputStream = new CompressingOutputStream();
+        }
+        return outputStream;
+    }
+
+    private boolean isEligible() {
+        int status = getStatus();
+        return status >= 200 && status != SC_NO_CONTENT && status != SC_NOT_MODIFIED
+                && getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                && compressibleType.test(getContentType());
+    }
+
+    private class CompressingOutputStream extends ServletOutputStream {
+
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.min(threshold, GZIP_BUFFER_SIZE));
+        private OutputStream target;
+        private GZIPOutputStream gzip;
+        private boolean finished;
+        private long bytesWritten;
+        private long bytesSent;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            bytesWritten += len;
+            if (target == null) {
+                if (!isEligible()) {
+                    if (declaredContentLength != null) {
+                        CompressingResponseWrapper.super.setContentLengthLong(declaredContentLength);
+                    }
+                    open(false);
+                } else if (buffer.size() + len <= threshold) {
+                    buffer.write(b, off, len);
+                    return;
+                } else {
+                    open(true);
+                }
+            }
+            target.write(b, off, len);
+        }
+
+        /**
+         * Tant que le seuil n'est pas atteint, un flush ne fait rien : les en-têtes ne sont pas encore fixés.
+         */
+        @Override
+        public void flush() throws IOException {
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return getResponse().getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                getResponse().getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        boolean isBuffering() {
+            return target == null;
+        }
+
+        boolean isPassthrough() {
+            return target != null && gzip == null;
+        }
+
+        void resetBuffer() {
+            buffer.reset();
+            bytesWritten = 0;
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (target == null) {
+                if (!isCommitted()) {
+                    CompressingResponseWrapper.super.setContentLength(buffer.size());
+                }
+                open(false);
+            }
+            if (gzip != null) {
+                gzip.finish();
+            }
+            target.flush();
+        }
+
+        private void open(boolean compress) throws IOException {
+            OutputStream raw = new CountingOutputStream(getResponse().getOutputStream());
+            if (compress) {
+                setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                gzip = new GZIPOutputStream(raw, GZIP_BUFFER_SIZE, true);
+                target = gzip;
+            } else {
+                target = raw;
+            }
+            buffer.writeTo(target);
+            buffer = null;
+        }
+
+        private class CountingOutputStream extends FilterOutputStream {
+
+            CountingOutputStream(OutputStream out) {
+                super(out);
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                bytesSent++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                bytesSent += len;
+            }
+        }
+    }
+}
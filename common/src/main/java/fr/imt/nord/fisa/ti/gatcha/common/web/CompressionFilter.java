@@ -0,0 +1,148 @@
+package fr.imt.nord.fisa.ti.gatcha.common.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compresse en gzip les réponses des clients qui l'acceptent ({@code Accept-Encoding}).
+ * <p>
+ * Le corps est d'abord mis en mémoire tampon : une réponse plus petite que
+ * {@code http.server.compression.min-response-size}, ou d'un type non compressible, est envoyée
+ * telle quelle. Au-delà du seuil, la compression se fait au fil de l'écriture, ce qui convient aux
+ * réponses diffusées progressivement ({@link JsonArrayStreamer}). Pour ces réponses asynchrones,
+ * le même flux compressé est repris lors du dispatch final, comme le fait
+ * {@link org.springframework.web.filter.ShallowEtagHeaderFilter}.
+ * <p>
+ * Les octets avant et après compression sont comptés dans {@code http.server.compression.bytes}.
+ * Brotli n'est pas proposé : le JDK ne fournit pas d'encodeur.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class CompressionFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+    private final Counter bytesBefore;
+    private final Counter bytesAfter;
+    private final Counter compressed;
+    private final Counter notCompressed;
+
+    public CompressionFilter(
+            MeterRegistry meterRegistry,
+            @Value("${http.server.compression.enabled:true}") boolean enabled,
+            @Value("${http.server.compression.min-response-size:2KB}") DataSize minResponseSize,
+            @Value("${http.server.compression.mime-types:application/json,application/problem+json,text/plain,text/html,text/css,application/javascript}")
+            String mimeTypes) {
+        this.enabled = enabled;
+        this.minResponseSize = (int) minResponseSize.toBytes();
+        this.mimeTypes = MediaType.parseMediaTypes(mimeTypes);
+        this.bytesBefore = bytesCounter(meterRegistry, "before");
+        this.bytesAfter = bytesCounter(meterRegistry, "after");
+        this.compressed = responsesCounter(meterRegistry, "compressed");
+        this.notCompressed = responsesCounter(meterRegistry, "not_compressed");
+        log.info("CompressionFilter initialized (enabled: {}, min response size: {}, mime types: {})",
+                enabled, minResponseSize, this.mimeTypes);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        CompressingResponseWrapper wrapper = WebUtils.getNativeResponse(response, CompressingResponseWrapper.class);
+        if (wrapper == null) {
+            if (!acceptsGzip(request) || "HEAD".equals(request.getMethod())) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            wrapper = new CompressingResponseWrapper(response, minResponseSize, this::isCompressible);
+        }
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            if (!isAsyncStarted(request)) {
+                finish(wrapper);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private void finish(CompressingResponseWrapper wrapper) throws IOException {
+        wrapper.finish();
+        bytesBefore.increment(wrapper.getBytesWritten());
+        bytesAfter.increment(wrapper.getBytesSent());
+        (wrapper.isCompressed() ? compressed : notCompressed).increment();
+    }
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return mimeTypes.stream().anyMatch(type -> type.includes(mediaType));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        return Arrays.stream(acceptEncoding.split(","))
+                .map(String::trim)
+                .anyMatch(coding -> {
+                    String[] parts = coding.split(";");
+                    return "gzip".equalsIgnoreCase(parts[0].trim())
+                            && (parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?"));
+                });
+    }
+
+    private static Counter bytesCounter(MeterRegistry meterRegistry, String stage) {
+        return Counter.builder("http.server.compression.bytes")
+                .description("Octets des réponses éligibles à la compression, avant et après compression")
+                .baseUnit("bytes")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private static Counter responsesCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("http.server.compression.responses")
+                .description("Réponses éligibles à la compression, compressées ou non (seuil, type)")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
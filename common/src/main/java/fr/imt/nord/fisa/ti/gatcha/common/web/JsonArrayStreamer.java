@@ -0,0 +1,64 @@
+package fr.imt.nord.fisa.ti.gatcha.common.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Diffuse une liste en tableau JSON au fil de la lecture, sans construire la {@code List} en mémoire.
+ * <p>
+ * Le flux est ouvert sur le thread d'écriture de la réponse (les curseurs MongoDB restent ainsi
+ * ouverts le temps de l'écriture seulement) puis fermé à la fin, y compris en cas d'erreur.
+ * La réponse est envoyée par blocs de {@code http.server.streaming.flush-every} éléments.
+ * <p>
+ * L'écriture se fait hors du thread de la requête : le {@code Supplier} ne doit pas dépendre du
+ * {@link fr.imt.nord.fisa.ti.gatcha.common.context.SecurityContext}, dont les valeurs utiles sont à
+ * capturer avant (ou via {@link fr.imt.nord.fisa.ti.gatcha.common.context.RequestContext}).
+ * Une erreur en cours d'écriture ne peut plus changer le statut déjà envoyé : la réponse est tronquée.
+ * <p>
+ * Les endpoints diffusés répondent toujours en JSON, sans négociation sur {@code Accept} : un appel
+ * inter-services qui préfère CBOR reçoit du JSON, ce que {@link fr.imt.nord.fisa.ti.gatcha.common.client.HttpClient}
+ * accepte en repli. Ces réponses restent compressées en gzip par {@link CompressionFilter}.
+ */
+@Component
+public class JsonArrayStreamer {
+
+    private final ObjectWriter writer;
+    private final int flushEvery;
+
+    public JsonArrayStreamer(
+            JsonMapper jsonMapper,
+            @Value("${http.server.streaming.flush-every:100}") int flushEvery) {
+        this.writer = jsonMapper.writer().without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+        this.flushEvery = Math.max(flushEvery, 1);
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> source) {
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<T> items = source.get();
+                 SequenceWriter sequence = writer.writeValuesAsArray(outputStream)) {
+                Iterator<T> iterator = items.iterator();
+                int written = 0;
+                while (iterator.hasNext()) {
+                    sequence.write(iterator.next());
+                    if (++written % flushEvery == 0) {
+                        sequence.flush();
+                    }
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
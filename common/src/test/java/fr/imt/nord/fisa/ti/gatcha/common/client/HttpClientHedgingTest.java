@@ -0,0 +1,204 @@
+package fr.imt.nord.fisa.ti.gatcha.common.client;
+
+import fr.imt.nord.fisa.ti.gatcha.common.exception.ServiceCommunicationException;
+import fr.imt.nord.fisa.ti.gatcha.common.security.InternalAssertionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.RestClient;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class HttpClientHedgingTest {
+
+    private static final String BASE_URL = "http://player";
+    private static final String URI = "/players/john";
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(100);
+
+    private static final HttpClientRetrySettings NO_RETRY = new HttpClientRetrySettings(
+            1, Duration.ofMillis(1), Duration.ofMillis(1), new HttpClientRetrySettings.Budget(0.0, 0));
+    private static final HttpClientLimiterSettings NO_LIMITER = new HttpClientLimiterSettings(
+            false, 10, 1, 100, 0.5, Duration.ofSeconds(1));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private MockRestServiceServer server;
+
+    private static HttpClientHedgingSettings hedging(Duration initialDelay, int windowSize, int budgetTokens) {
+        return new HttpClientHedgingSettings(true, 0.5, initialDelay, Duration.ofMillis(10), windowSize,
+                new HttpClientHedgingSettings.Budget(0.0, budgetTokens));
+    }
+
+    /**
+     * Client dont les requêtes successives reçoivent les réponses de {@code script}, dans l'ordre d'envoi.
+     */
+    private HttpClient newClient(HttpClientHedgingSettings hedging, List<ResponseCreator> script) {
+        RestClient.Builder builder = RestClient.builder().baseUrl(BASE_URL);
+        server = MockRestServiceServer.bindTo(builder).build();
+        AtomicInteger sent = new AtomicInteger();
+        server.expect(ExpectedCount.times(script.size()), requestTo(BASE_URL + URI))
+                .andRespond(request -> script.get(sent.getAndIncrement()).createResponse(request));
+        RestClientRegistry registry = mock(RestClientRegistry.class);
+        when(registry.get(BASE_URL)).thenReturn(builder.build());
+
+        return new HttpClient(registry, new InternalAssertionService(false, "", Duration.ofSeconds(30)),
+                meterRegistry, NO_RETRY, NO_LIMITER, hedging, false);
+    }
+
+    /**
+     * Réponse envoyée après {@code delay} ; une requête annulée pendant l'attente est signalée par {@link #cancelled}.
+     */
+    private ResponseCreator after(Duration delay, ResponseCreator response) {
+        return request -> {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+                throw new InterruptedIOException("cancelled");
+            }
+            return response.createResponse(request);
+        };
+    }
+
+    private static ResponseCreator ok(String body) {
+        return withSuccess(body, MediaType.TEXT_PLAIN);
+    }
+
+    private double hedges(String outcome) {
+        Counter counter = meterRegistry.find("http.client.hedges").tag("target", BASE_URL).tag("outcome", outcome).counter();
+        return counter == null ? 0.0 : counter.count();
+    }
+
+    private static Duration timed(Runnable call) {
+        long start = System.nanoTime();
+        call.run();
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    @Test
+    void getHedged_WhenPrimaryIsFast_ShouldNotSendHedge() {
+        HttpClient client = newClient(hedging(HEDGE_DELAY, 100, 5), List.of(ok("primary")));
+
+        assertEquals("primary", client.getHedged(BASE_URL, URI, String.class));
+
+        server.verify();
+        assertEquals(0.0, hedges("fired"));
+    }
+
+    @Test
+    void getHedged_WhenPrimaryIsSlow_ShouldSendHedgeAfterDelayAndCancelLoser() throws InterruptedException {
+        HttpClient client = newClient(hedging(HEDGE_DELAY, 100, 5),
+                List.of(after(Duration.ofSeconds(5), ok("primary")), ok("hedge")));
+
+        Duration elapsed = timed(() -> assertEquals("hedge", client.getHedged(BASE_URL, URI, String.class)));
+
+        server.verify();
+        assertTrue(elapsed.compareTo(HEDGE_DELAY) >= 0, "hedge sent after " + elapsed);
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(2)) < 0, "answered after " + elapsed);
+        assertTrue(cancelled.await(2, TimeUnit.SECONDS), "losing request not cancelled");
+        assertEquals(1.0, hedges("fired"));
+        assertEquals(1.0, hedges("won"));
+    }
+
+    @Test
+    void getHedged_WhenPrimaryAnswersFirst_ShouldNotCountHedgeAsWon() {
+        HttpClient client = newClient(hedging(HEDGE_DELAY, 100, 5),
+                List.of(after(Duration.ofMillis(200), ok("primary")), after(Duration.ofSeconds(5), ok("hedge"))));
+
+        assertEquals("primary", client.getHedged(BASE_URL, URI, String.class));
+
+        server.verify();
+        assertEquals(1.0, hedges("fired"));
+        assertEquals(0.0, hedges("won"));
+    }
+
+    @Test
+    void getHedged_WhenFirstResponseFails_ShouldWaitForOtherRequest() {
+        HttpClient client = newClient(hedging(HEDGE_DELAY, 100, 5),
+                List.of(after(Duration.ofMillis(300), ok("primary")), withStatus(HttpStatus.SERVICE_UNAVAILABLE)));
+
+        assertEquals("primary", client.getHedged(BASE_URL, URI, String.class));
+
+        server.verify();
+        assertEquals(1.0, hedges("fired"));
+        assertEquals(0.0, hedges("won"));
+    }
+
+    @Test
+    void getHedged_WhenBothRequestsFail_ShouldThrowLastFailure() {
+        HttpClient client = newClient(hedging(HEDGE_DELAY, 100, 5),
+                List.of(after(Duration.ofMillis(300), withStatus(HttpStatus.BAD_GATEWAY)),
+                        withStatus(HttpStatus.SERVICE_UNAVAILABLE)));
+
+        ServiceCommunicationException error = assertThrows(ServiceCommunicationException.class,
+                () -> client.getHedged(BASE_URL, URI, String.class));
+
+        server.verify();
+        assertEquals(502, error.getStatusCode());
+    }
+
+    @Test
+    void getHedged_WhenBudgetExhausted_ShouldWaitForPrimaryOnly() {
+        HttpClient client = newClient(hedging(HEDGE_DELAY, 100, 1), List.of(
+                after(Duration.ofSeconds(5), ok("primary")), ok("hedge"),
+                after(Duration.ofMillis(200), ok("second primary"))));
+
+        assertEquals("hedge", client.getHedged(BASE_URL, URI, String.class));
+        assertEquals("second primary", client.getHedged(BASE_URL, URI, String.class));
+
+        server.verify();
+        assertEquals(1.0, hedges("fired"));
+        assertEquals(1.0, hedges("budget_exhausted"));
+        assertEquals(0.0, meterRegistry.get("http.client.hedge.budget").tag("target", BASE_URL).gauge().value());
+    }
+
+    @Test
+    void get_WithoutHedging_ShouldNeverSendHedge() {
+        HttpClient client = newClient(hedging(HEDGE_DELAY, 100, 5),
+                List.of(after(Duration.ofMillis(300), ok("primary"))));
+
+        assertEquals("primary", client.get(BASE_URL, URI, String.class));
+
+        server.verify();
+        assertEquals(0.0, hedges("fired"));
+    }
+
+    @Test
+    void getHedged_AfterSlowFailures_ShouldDeriveDelayFromTheirLatency() {
+        // 20 échecs en ~50 ms puis une requête lente : sans mesure des échecs, le délai resterait à 2 s
+        int samples = 20;
+        List<ResponseCreator> script = new ArrayList<>();
+        for (int i = 0; i < samples; i++) {
+            script.add(after(Duration.ofMillis(50), withStatus(HttpStatus.INTERNAL_SERVER_ERROR)));
+        }
+        script.add(after(Duration.ofSeconds(5), ok("primary")));
+        script.add(ok("hedge"));
+        HttpClient client = newClient(hedging(Duration.ofSeconds(2), samples, 5), script);
+
+        for (int i = 0; i < samples; i++) {
+            assertThrows(ServiceCommunicationException.class, () -> client.getHedged(BASE_URL, URI, String.class));
+        }
+        Duration elapsed = timed(() -> assertEquals("hedge", client.getHedged(BASE_URL, URI, String.class)));
+
+        server.verify();
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(1)) < 0, "hedge sent after " + elapsed);
+    }
+}
@@ -0,0 +1,56 @@
+package fr.imt.nord.fisa.ti.gatcha.common.client;
+
+import fr.imt.nord.fisa.ti.gatcha.common.config.HttpClientConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientSettingsTest {
+
+    private static <T> T bind(String prefix, Class<T> type, Map<String, String> properties) {
+        return new Binder(new MapConfigurationPropertySource(properties)).bindOrCreate(prefix, type);
+    }
+
+    @Test
+    void bind_WithoutProperties_ShouldUseDefaults() {
+        assertEquals(new HttpClientRetrySettings(3, Duration.ofMillis(50), Duration.ofSeconds(1),
+                        new HttpClientRetrySettings.Budget(0.2, 10)),
+                bind("http.client.retry", HttpClientRetrySettings.class, Map.of()));
+        assertEquals(new HttpClientLimiterSettings(true, 20, 1, 200, 0.9, Duration.ofMillis(500)),
+                bind("http.client.limiter", HttpClientLimiterSettings.class, Map.of()));
+        assertEquals(new HttpClientHedgingSettings(false, 0.95, Duration.ofMillis(100), Duration.ofMillis(10), 100,
+                        new HttpClientHedgingSettings.Budget(0.1, 5)),
+                bind("http.client.hedging", HttpClientHedgingSettings.class, Map.of()));
+    }
+
+    @Test
+    void bind_WithKebabCaseProperties_ShouldOverrideDefaults() {
+        HttpClientHedgingSettings hedging = bind("http.client.hedging", HttpClientHedgingSettings.class, Map.of(
+                "http.client.hedging.enabled", "true",
+                "http.client.hedging.initial-delay", "250ms",
+                "http.client.hedging.budget.max-tokens", "2"));
+
+        assertTrue(hedging.enabled());
+        assertEquals(Duration.ofMillis(250), hedging.initialDelay());
+        assertEquals(2, hedging.budget().maxTokens());
+        assertEquals(0.1, hedging.budget().ratio());
+    }
+
+    @Test
+    void httpClientConfig_ShouldRegisterSettingsFromEnvironment() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(HttpClientConfig.class)
+                .withPropertyValues("http.client.retry.max-attempts=5", "http.client.limiter.enabled=false")
+                .run(context -> {
+                    assertEquals(5, context.getBean(HttpClientRetrySettings.class).maxAttempts());
+                    assertFalse(context.getBean(HttpClientLimiterSettings.class).enabled());
+                    assertFalse(context.getBean(HttpClientHedgingSettings.class).enabled());
+                });
+    }
+}
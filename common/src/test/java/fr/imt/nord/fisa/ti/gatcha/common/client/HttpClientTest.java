@@ -0,0 +1,225 @@
+package fr.imt.nord.fisa.ti.gatcha.common.client;
+
+import fr.imt.nord.fisa.ti.gatcha.common.context.RequestDeadline;
+import fr.imt.nord.fisa.ti.gatcha.common.exception.DeadlineExceededException;
+import fr.imt.nord.fisa.ti.gatcha.common.exception.ServiceCommunicationException;
+import fr.imt.nord.fisa.ti.gatcha.common.security.InternalAssertionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withException;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class HttpClientTest {
+
+    private static final String BASE_URL = "http://monster";
+
+    private static final HttpClientRetrySettings RETRY = new HttpClientRetrySettings(
+            3, Duration.ofMillis(1), Duration.ofMillis(5), new HttpClientRetrySettings.Budget(1.0, 10));
+    private static final HttpClientLimiterSettings LIMITER = new HttpClientLimiterSettings(
+            true, 10, 1, 100, 0.5, Duration.ofSeconds(1));
+    private static final HttpClientHedgingSettings NO_HEDGING = new HttpClientHedgingSettings(
+            false, 0.95, Duration.ofMillis(100), Duration.ofMillis(10), 100, new HttpClientHedgingSettings.Budget(0.1, 5));
+
+    private SimpleMeterRegistry meterRegistry;
+    private MockRestServiceServer server;
+    private HttpClient httpClient;
+
+    @BeforeEach
+    void setUp() {
+        httpClient = newClient(RETRY);
+    }
+
+    private HttpClient newClient(HttpClientRetrySettings retry) {
+        RestClient.Builder builder = RestClient.builder().baseUrl(BASE_URL);
+        server = MockRestServiceServer.bindTo(builder).build();
+        RestClientRegistry registry = mock(RestClientRegistry.class);
+        when(registry.get(BASE_URL)).thenReturn(builder.build());
+
+        meterRegistry = new SimpleMeterRegistry();
+        return new HttpClient(registry, new InternalAssertionService(false, "", Duration.ofSeconds(30)),
+                meterRegistry, retry, LIMITER, NO_HEDGING, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void delete_WithRemainingBudget_ShouldSendDeadlineHeader() {
+        RequestDeadline.set(Duration.ofSeconds(5));
+        server.expect(once(), requestTo(BASE_URL + "/monsters/42"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andExpect(header(RequestDeadline.HEADER, matchesPattern("[1-9][0-9]*")))
+                .andRespond(withSuccess("deleted", MediaType.TEXT_PLAIN));
+
+        assertEquals("deleted", httpClient.delete(BASE_URL, "/monsters/42", String.class));
+        server.verify();
+    }
+
+    @Test
+    void delete_WhenDeadlineExpired_ShouldNotSendRequest() {
+        RequestDeadline.set(Duration.ZERO);
+
+        assertThrows(DeadlineExceededException.class,
+                () -> httpClient.delete(BASE_URL, "/monsters/42", String.class));
+
+        server.verify();
+        assertEquals(1.0, meterRegistry.get("http.client.deadline.skipped").tag("target", BASE_URL).counter().count());
+    }
+
+    @Test
+    void delete_WhenOverloaded_ShouldLowerLimitWithoutRetrying() {
+        server.expect(once(), requestTo(BASE_URL + "/monsters/42"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        ServiceCommunicationException error = assertThrows(ServiceCommunicationException.class,
+                () -> httpClient.delete(BASE_URL, "/monsters/42", String.class));
+
+        server.verify();
+        assertEquals(503, error.getStatusCode());
+        assertEquals(5.0, limiterGauge("http.client.limiter.limit"));
+        assertEquals(0.0, limiterGauge("http.client.limiter.in-flight"));
+    }
+
+    @Test
+    void get_AfterTransientFailure_ShouldRetryAndSucceed() {
+        server.expect(once(), requestTo(BASE_URL + "/monsters/42"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        server.expect(once(), requestTo(BASE_URL + "/monsters/42"))
+                .andRespond(withException(new SocketTimeoutException("read timed out")));
+        server.expect(once(), requestTo(BASE_URL + "/monsters/42"))
+                .andRespond(withSuccess("monster", MediaType.TEXT_PLAIN));
+
+        assertEquals("monster", httpClient.get(BASE_URL, "/monsters/42", String.class));
+
+        server.verify();
+        assertEquals(2.0, retries("retried"));
+    }
+
+    @Test
+    void get_WithClientError_ShouldNotRetry() {
+        server.expect(once(), requestTo(BASE_URL + "/monsters/42"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        ServiceCommunicationException error = assertThrows(ServiceCommunicationException.class,
+                () -> httpClient.get(BASE_URL, "/monsters/42", String.class));
+
+        server.verify();
+        assertEquals(404, error.getStatusCode());
+    }
+
+    @Test
+    void get_AfterMaxAttempts_ShouldFailWithLastError() {
+        server.expect(times(3), requestTo(BASE_URL + "/monsters/42"))
+                .andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+
+        ServiceCommunicationException error = assertThrows(ServiceCommunicationException.class,
+                () -> httpClient.get(BASE_URL, "/monsters/42", String.class));
+
+        server.verify();
+        assertEquals(502, error.getStatusCode());
+        assertEquals(2.0, retries("retried"));
+    }
+
+    @Test
+    void post_WithoutIdempotencyKey_ShouldNotRetry() {
+        server.expect(once(), requestTo(BASE_URL + "/monsters"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(headerDoesNotExist(HttpClient.IDEMPOTENCY_KEY_HEADER))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertThrows(ServiceCommunicationException.class,
+                () -> httpClient.post(BASE_URL, "/monsters", "monster", String.class));
+
+        server.verify();
+    }
+
+    @Test
+    void post_WithIdempotencyKey_ShouldRetryWithSameKey() {
+        server.expect(once(), requestTo(BASE_URL + "/monsters"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(HttpClient.IDEMPOTENCY_KEY_HEADER, "invocation-1"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        server.expect(once(), requestTo(BASE_URL + "/monsters"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(HttpClient.IDEMPOTENCY_KEY_HEADER, "invocation-1"))
+                .andRespond(withStatus(HttpStatus.CREATED).body("created").contentType(MediaType.TEXT_PLAIN));
+
+        assertEquals("created", httpClient.post(BASE_URL, "/monsters", "monster", String.class, "invocation-1"));
+
+        server.verify();
+        assertEquals(1.0, retries("retried"));
+    }
+
+    @Test
+    void get_WhenRetryBudgetExhausted_ShouldStopRetrying() {
+        httpClient = newClient(new HttpClientRetrySettings(
+                3, Duration.ofMillis(1), Duration.ofMillis(5), new HttpClientRetrySettings.Budget(0.0, 1)));
+        server.expect(once(), requestTo(BASE_URL + "/monsters/1"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        server.expect(once(), requestTo(BASE_URL + "/monsters/1"))
+                .andRespond(withSuccess("monster", MediaType.TEXT_PLAIN));
+        server.expect(once(), requestTo(BASE_URL + "/monsters/2"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertEquals("monster", httpClient.get(BASE_URL, "/monsters/1", String.class));
+        assertThrows(ServiceCommunicationException.class,
+                () -> httpClient.get(BASE_URL, "/monsters/2", String.class));
+
+        server.verify();
+        assertEquals(1.0, retries("retried"));
+        assertEquals(1.0, retries("budget_exhausted"));
+    }
+
+    @Test
+    void get_WhenDeadlineCloserThanBackoff_ShouldNotRetry() {
+        // Backoff tiré entre 0 et un an : toujours supérieur au budget restant en pratique
+        httpClient = newClient(new HttpClientRetrySettings(
+                3, Duration.ofDays(365), Duration.ofDays(365), new HttpClientRetrySettings.Budget(1.0, 10)));
+        RequestDeadline.set(Duration.ofSeconds(2));
+        server.expect(once(), requestTo(BASE_URL + "/monsters/42"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        long start = System.nanoTime();
+        assertThrows(ServiceCommunicationException.class,
+                () -> httpClient.get(BASE_URL, "/monsters/42", String.class));
+
+        server.verify();
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(1)) < 0);
+        assertEquals(0.0, retries("retried"));
+    }
+
+    private double retries(String outcome) {
+        Counter counter = meterRegistry.find("http.client.retries").tag("target", BASE_URL).tag("outcome", outcome).counter();
+        return counter == null ? 0.0 : counter.count();
+    }
+
+    private double limiterGauge(String name) {
+        return meterRegistry.get(name).tag("target", BASE_URL).gauge().value();
+    }
+}
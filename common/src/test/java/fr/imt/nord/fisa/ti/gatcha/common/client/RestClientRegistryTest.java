@@ -0,0 +1,140 @@
+package fr.imt.nord.fisa.ti.gatcha.common.client;
+
+import com.sun.net.httpserver.HttpServer;
+import fr.imt.nord.fisa.ti.gatcha.common.context.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestClientRegistryTest {
+
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration ACQUIRE_TIMEOUT = Duration.ofSeconds(2);
+
+    private SimpleMeterRegistry meterRegistry;
+    private RestClientRegistry registry;
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new RestClientRegistry(meterRegistry, 10, 5, Duration.ofSeconds(1), READ_TIMEOUT,
+                ACQUIRE_TIMEOUT, Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+        registry.shutdown();
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Serveur local répondant {@code ok} après {@code delay}.
+     */
+    private String startServer(Duration delay) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private double pool(String gauge) {
+        return meterRegistry.get("http.client.pool." + gauge).gauge().value();
+    }
+
+    @Test
+    void get_ShouldReuseOneClientPerTargetAndReadTimeout() {
+        assertSame(registry.get("http://monster"), registry.get("http://monster"));
+        assertSame(registry.get("http://monster"), registry.get("http://monster", READ_TIMEOUT));
+        assertNotSame(registry.get("http://monster"), registry.get("http://player"));
+        assertNotSame(registry.get("http://monster"), registry.get("http://monster", Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void deadlineContext_WithoutDeadline_ShouldUseClientDefaults() {
+        assertNull(registry.deadlineContext(READ_TIMEOUT));
+    }
+
+    @Test
+    void deadlineContext_WithShortDeadline_ShouldCapBothTimeouts() {
+        RequestDeadline.set(Duration.ofMillis(300));
+
+        RequestConfig config = registry.deadlineContext(READ_TIMEOUT).getRequestConfig();
+
+        long responseTimeout = config.getResponseTimeout().toMilliseconds();
+        long connectionRequestTimeout = config.getConnectionRequestTimeout().toMilliseconds();
+        assertTrue(responseTimeout > 0 && responseTimeout <= 300, "response timeout " + responseTimeout);
+        assertTrue(connectionRequestTimeout > 0 && connectionRequestTimeout <= 300,
+                "connection request timeout " + connectionRequestTimeout);
+    }
+
+    @Test
+    void deadlineContext_WithLongDeadline_ShouldKeepConfiguredTimeouts() {
+        RequestDeadline.set(Duration.ofMinutes(1));
+
+        RequestConfig config = registry.deadlineContext(READ_TIMEOUT).getRequestConfig();
+
+        assertEquals(READ_TIMEOUT.toMillis(), config.getResponseTimeout().toMilliseconds());
+        assertEquals(ACQUIRE_TIMEOUT.toMillis(), config.getConnectionRequestTimeout().toMilliseconds());
+    }
+
+    @Test
+    void deadlineContext_WithExpiredDeadline_ShouldUseMinimalTimeouts() {
+        RequestDeadline.set(Duration.ofMillis(-50));
+
+        HttpClientContext context = registry.deadlineContext(READ_TIMEOUT);
+
+        assertEquals(1, context.getRequestConfig().getResponseTimeout().toMilliseconds());
+        assertEquals(1, context.getRequestConfig().getConnectionRequestTimeout().toMilliseconds());
+    }
+
+    @Test
+    void call_WithDeadlineShorterThanReadTimeout_ShouldTimeOutAtDeadline() throws IOException {
+        String baseUrl = startServer(Duration.ofSeconds(2));
+        RequestDeadline.set(Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        assertThrows(ResourceAccessException.class,
+                () -> registry.get(baseUrl).get().uri("/slow").retrieve().body(String.class));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(1)) < 0);
+    }
+
+    @Test
+    void call_ShouldReturnConnectionToPoolForReuse() throws IOException {
+        String baseUrl = startServer(Duration.ZERO);
+
+        assertEquals("ok", registry.get(baseUrl).get().uri("/").retrieve().body(String.class));
+        assertEquals("ok", registry.get(baseUrl).get().uri("/").retrieve().body(String.class));
+
+        assertEquals(0.0, pool("leased"));
+        assertEquals(1.0, pool("available"));
+    }
+}
@@ -0,0 +1,135 @@
+package fr.imt.nord.fisa.ti.gatcha.common.context;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestContextTest {
+
+    /**
+     * Pool d'un seul thread : toutes les tâches successives s'exécutent sur le même thread.
+     */
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        SecurityContext.clear();
+        RequestDeadline.clear();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    private record Observed(SecurityContext.Identity identity, boolean hasDeadline) {
+
+        static Observed current() {
+            return new Observed(SecurityContext.current(), RequestDeadline.remaining().isPresent());
+        }
+    }
+
+    private Observed observeOnPool() {
+        return CompletableFuture.supplyAsync(Observed::current, pool).join();
+    }
+
+    @Test
+    void supplyAsync_ShouldRestoreCallerContextOnWorker() {
+        SecurityContext.set("token-1", "john");
+        RequestDeadline.set(Duration.ofSeconds(5));
+
+        Observed observed = RequestContext.supplyAsync(Observed::current, pool).join();
+
+        assertEquals(new SecurityContext.Identity("token-1", "john"), observed.identity());
+        assertTrue(observed.hasDeadline());
+    }
+
+    @Test
+    void supplyAsync_ShouldClearWorkerContextAfterTask() {
+        SecurityContext.set("token-1", "john");
+        RequestDeadline.set(Duration.ofSeconds(5));
+        RequestContext.supplyAsync(Observed::current, pool).join();
+
+        Observed next = observeOnPool();
+
+        assertSame(SecurityContext.Identity.ANONYMOUS, next.identity());
+        assertFalse(next.hasDeadline());
+    }
+
+    @Test
+    void supplyAsync_ShouldNotLeakToNextRequestOnSamePooledThread() {
+        SecurityContext.set("token-1", "john");
+        RequestContext.supplyAsync(Observed::current, pool).join();
+
+        SecurityContext.set("token-2", "jane");
+        RequestDeadline.clear();
+        Observed second = RequestContext.supplyAsync(Observed::current, pool).join();
+
+        assertEquals(new SecurityContext.Identity("token-2", "jane"), second.identity());
+        assertFalse(second.hasDeadline());
+    }
+
+    @Test
+    void runAsync_WhenTaskFails_ShouldStillClearWorkerContext() {
+        SecurityContext.set("token-1", "john");
+
+        CompletableFuture<Void> failed = RequestContext.runAsync(() -> {
+            throw new IllegalStateException("boom");
+        }, pool);
+
+        assertThrows(CompletionException.class, failed::join);
+        assertSame(SecurityContext.Identity.ANONYMOUS, observeOnPool().identity());
+    }
+
+    @Test
+    void wrap_ShouldUseSnapshotTakenAtWrapTime() {
+        SecurityContext.set("token-1", "john");
+        Runnable task = RequestContext.wrap(() -> assertEquals("john", SecurityContext.getUsername()));
+        SecurityContext.set("token-2", "jane");
+
+        CompletableFuture.runAsync(task, pool).join();
+    }
+
+    @Test
+    void wrap_WhenTaskChangesContext_ShouldNotLeakIntoWorker() {
+        SecurityContext.set("token-1", "john");
+
+        CompletableFuture.runAsync(RequestContext.wrap(() -> SecurityContext.set("token-x", "mallory")), pool).join();
+
+        assertSame(SecurityContext.Identity.ANONYMOUS, observeOnPool().identity());
+    }
+
+    @Test
+    void call_OnCallerThread_ShouldRestorePreviousContext() {
+        SecurityContext.set("token-1", "john");
+        RequestDeadline.set(Duration.ofSeconds(5));
+
+        Observed inside = RequestContext.empty().call(Observed::current);
+
+        assertSame(SecurityContext.Identity.ANONYMOUS, inside.identity());
+        assertFalse(inside.hasDeadline());
+        assertEquals("john", SecurityContext.getUsername());
+        assertTrue(RequestDeadline.remaining().isPresent());
+    }
+
+    @Test
+    void propagating_ShouldCaptureContextOfSubmittingThread() {
+        SecurityContext.set("token-1", "john");
+
+        Observed observed = CompletableFuture.supplyAsync(Observed::current, RequestContext.propagating(pool)).join();
+
+        assertEquals("john", observed.identity().username());
+        assertSame(SecurityContext.Identity.ANONYMOUS, observeOnPool().identity());
+    }
+}
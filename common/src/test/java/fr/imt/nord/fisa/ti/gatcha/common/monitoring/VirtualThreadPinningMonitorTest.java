@@ -0,0 +1,92 @@
+package fr.imt.nord.fisa.ti.gatcha.common.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Object lock = new Object();
+    private VirtualThreadPinningMonitor monitor;
+
+    @AfterEach
+    void tearDown() {
+        if (monitor != null) {
+            monitor.stop();
+        }
+    }
+
+    /**
+     * Bloque un thread virtuel dans un bloc {@code synchronized} : en Java 21, il reste
+     * attaché à son thread porteur pendant toute l'attente.
+     */
+    private void pinVirtualThread(Duration duration) throws InterruptedException {
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(duration);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+    }
+
+    private double pinnedHere() {
+        return meterRegistry.find("jvm.threads.virtual.pinned").counters().stream()
+                .filter(counter -> counter.getId().getTag("location").startsWith(getClass().getName()))
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private long pinnedDurations() {
+        Timer timer = meterRegistry.find("jvm.threads.virtual.pinned.duration").timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Test
+    void start_WhenVirtualThreadPinned_ShouldCountEventAtApplicationFrame() throws InterruptedException {
+        monitor = new VirtualThreadPinningMonitor(meterRegistry, true, Duration.ofMillis(10));
+        monitor.start();
+
+        pinVirtualThread(Duration.ofMillis(100));
+
+        // les événements JFR sont transmis au flux par lots, environ une fois par seconde ;
+        // la durée est enregistrée après le compteur
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (pinnedDurations() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(1, pinnedDurations());
+        assertEquals(1.0, pinnedHere());
+    }
+
+    @Test
+    void start_WhenPinnedBelowThreshold_ShouldIgnoreEvent() throws InterruptedException {
+        monitor = new VirtualThreadPinningMonitor(meterRegistry, true, Duration.ofSeconds(5));
+        monitor.start();
+
+        pinVirtualThread(Duration.ofMillis(50));
+        Thread.sleep(1500);
+
+        assertEquals(0.0, pinnedHere());
+    }
+
+    @Test
+    void start_WhenDisabled_ShouldNotRecord() throws InterruptedException {
+        monitor = new VirtualThreadPinningMonitor(meterRegistry, false, Duration.ofMillis(10));
+        monitor.start();
+
+        pinVirtualThread(Duration.ofMillis(100));
+        Thread.sleep(1500);
+
+        assertNull(meterRegistry.find("jvm.threads.virtual.pinned").counter());
+    }
+}
@@ -0,0 +1,117 @@
+package fr.imt.nord.fisa.ti.gatcha.common.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AimdLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(200).toNanos();
+
+    private AimdLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AimdLimiter(4, 1, 6, 0.5, Duration.ofMillis(100));
+    }
+
+    private void acquire(int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+    }
+
+    @Test
+    void tryAcquire_AtLimit_ShouldRejectImmediately() {
+        acquire(4);
+
+        assertFalse(limiter.tryAcquire());
+        assertEquals(4, limiter.getInFlight());
+
+        limiter.onIgnored();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void onSuccess_FastWithLimitInUse_ShouldIncreaseByOne() {
+        acquire(2);
+
+        limiter.onSuccess(FAST);
+
+        assertEquals(5, limiter.getLimit());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void onSuccess_FastWithLimitMostlyIdle_ShouldKeepLimit() {
+        acquire(1);
+
+        limiter.onSuccess(FAST);
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void onSuccess_ShouldNotExceedMaxLimit() {
+        for (int i = 0; i < 10; i++) {
+            acquire(4);
+            for (int j = 0; j < 4; j++) {
+                limiter.onSuccess(FAST);
+            }
+        }
+
+        assertEquals(6, limiter.getLimit());
+    }
+
+    @Test
+    void onDropped_ShouldDecreaseMultiplicatively() {
+        acquire(1);
+
+        limiter.onDropped();
+
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void onSuccess_AboveLatencyThreshold_ShouldDecrease() {
+        acquire(2);
+
+        limiter.onSuccess(SLOW);
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void onDropped_ShouldNotGoBelowMinLimit() {
+        for (int i = 0; i < 5; i++) {
+            acquire(1);
+            limiter.onDropped();
+        }
+
+        assertEquals(1, limiter.getLimit());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    void onIgnored_ShouldReleaseWithoutChangingLimit() {
+        acquire(4);
+
+        limiter.onIgnored();
+
+        assertEquals(4, limiter.getLimit());
+        assertEquals(3, limiter.getInFlight());
+    }
+
+    @Test
+    void constructor_WithInvalidConfiguration_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> new AimdLimiter(4, 0, 6, 0.5, Duration.ofMillis(100)));
+        assertThrows(IllegalArgumentException.class, () -> new AimdLimiter(4, 2, 1, 0.5, Duration.ofMillis(100)));
+        assertThrows(IllegalArgumentException.class, () -> new AimdLimiter(4, 1, 6, 1.0, Duration.ofMillis(100)));
+    }
+}
@@ -0,0 +1,57 @@
+package fr.imt.nord.fisa.ti.gatcha.common.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    void tryAcquire_WhenFull_ShouldRefuseImmediately() {
+        Bulkhead bulkhead = new Bulkhead(2, Duration.ZERO);
+
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.tryAcquire());
+        assertFalse(bulkhead.tryAcquire());
+        assertEquals(2, bulkhead.getActive());
+
+        bulkhead.release();
+        assertEquals(1, bulkhead.getActive());
+        assertTrue(bulkhead.tryAcquire());
+    }
+
+    @Test
+    void tryAcquire_WithMaxWait_ShouldGetPlaceReleasedMeanwhile() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, Duration.ofSeconds(5));
+        assertTrue(bulkhead.tryAcquire());
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(bulkhead::tryAcquire);
+        Thread.sleep(50);
+        assertFalse(waiting.isDone());
+        bulkhead.release();
+
+        assertTrue(waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(1, bulkhead.getActive());
+    }
+
+    @Test
+    void tryAcquire_WithMaxWait_ShouldGiveUpAfterDelay() {
+        Bulkhead bulkhead = new Bulkhead(1, Duration.ofMillis(50));
+        assertTrue(bulkhead.tryAcquire());
+
+        long start = System.nanoTime();
+        assertFalse(bulkhead.tryAcquire());
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(50)) >= 0);
+        assertEquals(1, bulkhead.getActive());
+    }
+
+    @Test
+    void constructor_WithNonPositiveLimit_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> new Bulkhead(0, Duration.ZERO));
+    }
+}
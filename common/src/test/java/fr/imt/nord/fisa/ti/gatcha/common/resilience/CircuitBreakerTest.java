@@ -0,0 +1,167 @@
+package fr.imt.nord.fisa.ti.gatcha.common.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> transitions = new ArrayList<>();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new CircuitBreaker("test", 3, Duration.ofSeconds(10), clock::get);
+        breaker.addListener((name, from, to) -> transitions.add(from + "->" + to));
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    private CircuitBreaker.Permit acquire() {
+        return breaker.tryAcquire().orElseThrow(() -> new AssertionError("permit refused"));
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure(acquire());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void onFailure_BelowThreshold_ShouldStayClosed() {
+        breaker.onFailure(acquire());
+        breaker.onFailure(acquire());
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire().isPresent());
+    }
+
+    @Test
+    void onSuccess_WhenClosed_ShouldResetFailureCount() {
+        breaker.onFailure(acquire());
+        breaker.onFailure(acquire());
+        breaker.onSuccess(acquire());
+        breaker.onFailure(acquire());
+        breaker.onFailure(acquire());
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void onFailure_AtThreshold_ShouldOpenAndRejectCalls() {
+        open();
+
+        assertTrue(breaker.tryAcquire().isEmpty());
+        assertEquals(List.of("CLOSED->OPEN"), transitions);
+    }
+
+    @Test
+    void tryAcquire_AfterOpenDuration_ShouldAllowSingleTrial() {
+        open();
+        advance(Duration.ofSeconds(10));
+
+        assertTrue(breaker.tryAcquire().isPresent());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire().isEmpty());
+    }
+
+    @Test
+    void onSuccess_OfTrial_ShouldClose() {
+        open();
+        advance(Duration.ofSeconds(10));
+
+        breaker.onSuccess(acquire());
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    @Test
+    void onFailure_OfTrial_ShouldReopenForAnotherOpenDuration() {
+        open();
+        advance(Duration.ofSeconds(10));
+
+        breaker.onFailure(acquire());
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        advance(Duration.ofSeconds(9));
+        assertTrue(breaker.tryAcquire().isEmpty());
+        advance(Duration.ofSeconds(1));
+        assertTrue(breaker.tryAcquire().isPresent());
+    }
+
+    @Test
+    void onIgnored_OfTrial_ShouldReleaseTrialWithoutChangingState() {
+        open();
+        advance(Duration.ofSeconds(10));
+
+        breaker.onIgnored(acquire());
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire().isPresent());
+    }
+
+    @Test
+    void onSuccess_OfSlowCallWhileOpen_ShouldBeIgnored() {
+        CircuitBreaker.Permit slowCall = acquire();
+        open();
+
+        breaker.onSuccess(slowCall);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire().isEmpty());
+    }
+
+    @Test
+    void onSuccess_OfSlowCallWhileHalfOpen_ShouldNotCloseNorReleaseTrial() {
+        CircuitBreaker.Permit slowCall = acquire();
+        open();
+        advance(Duration.ofSeconds(10));
+        CircuitBreaker.Permit trial = acquire();
+
+        breaker.onSuccess(slowCall);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire().isEmpty());
+
+        breaker.onFailure(trial);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void onFailure_OfCallFromPreviousGeneration_ShouldBeIgnored() {
+        CircuitBreaker.Permit slowCall = acquire();
+        open();
+        advance(Duration.ofSeconds(10));
+        breaker.onSuccess(acquire());
+
+        breaker.onFailure(slowCall);
+        breaker.onFailure(acquire());
+        breaker.onFailure(acquire());
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void onSuccess_ReportedTwiceForTrial_ShouldTransitionOnce() {
+        open();
+        advance(Duration.ofSeconds(10));
+        CircuitBreaker.Permit trial = acquire();
+
+        breaker.onSuccess(trial);
+        breaker.onFailure(trial);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+}
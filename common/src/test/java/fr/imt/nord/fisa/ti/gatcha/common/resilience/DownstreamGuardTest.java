@@ -0,0 +1,175 @@
+package fr.imt.nord.fisa.ti.gatcha.common.resilience;
+
+import fr.imt.nord.fisa.ti.gatcha.common.exception.DeadlineExceededException;
+import fr.imt.nord.fisa.ti.gatcha.common.exception.ServiceCommunicationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownstreamGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Counter bulkheadRejected = meterRegistry.counter("bulkhead_full");
+    private final Counter breakerRejected = meterRegistry.counter("circuit_open");
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private DownstreamGuard guard(int maxConcurrent, int failureThreshold) {
+        return new DownstreamGuard("monster", new Bulkhead(maxConcurrent, Duration.ZERO),
+                new CircuitBreaker("monster", failureThreshold, Duration.ofMinutes(1)),
+                bulkheadRejected, breakerRejected);
+    }
+
+    private String succeed() {
+        calls.incrementAndGet();
+        return "ok";
+    }
+
+    private String fail(RuntimeException error) {
+        calls.incrementAndGet();
+        throw error;
+    }
+
+    private static ServiceCommunicationException status(int statusCode) {
+        return new ServiceCommunicationException("monster answered " + statusCode, statusCode);
+    }
+
+    @Test
+    void execute_WhenBulkheadFull_ShouldReject503WithoutReleasingOtherCalls() {
+        DownstreamGuard guard = guard(1, 5);
+        assertTrue(guard.getBulkhead().tryAcquire());
+
+        ServiceCommunicationException error = assertThrows(ServiceCommunicationException.class,
+                () -> guard.execute(this::succeed));
+
+        assertEquals(503, error.getStatusCode());
+        assertEquals(0, calls.get());
+        assertEquals(1, guard.getBulkhead().getActive());
+        assertEquals(1.0, bulkheadRejected.count());
+        assertEquals(0.0, breakerRejected.count());
+    }
+
+    @Test
+    void executeAsync_WhenBulkheadFull_ShouldReturnFailedFutureWithoutReleasingOtherCalls() {
+        DownstreamGuard guard = guard(1, 5);
+        assertTrue(guard.getBulkhead().tryAcquire());
+
+        CompletableFuture<String> future = guard.executeAsync(() -> CompletableFuture.completedFuture(succeed()));
+
+        ExecutionException error = assertThrows(ExecutionException.class, future::get);
+        assertEquals(503, assertInstanceOf(ServiceCommunicationException.class, error.getCause()).getStatusCode());
+        assertEquals(0, calls.get());
+        assertEquals(1, guard.getBulkhead().getActive());
+        assertEquals(1.0, bulkheadRejected.count());
+    }
+
+    @Test
+    void execute_ShouldReleasePlaceAfterSuccessAndFailure() {
+        DownstreamGuard guard = guard(1, 5);
+
+        assertEquals("ok", guard.execute(this::succeed));
+        assertEquals(0, guard.getBulkhead().getActive());
+
+        assertThrows(ServiceCommunicationException.class, () -> guard.execute(() -> fail(status(500))));
+        assertEquals(0, guard.getBulkhead().getActive());
+        assertEquals("ok", guard.execute(this::succeed));
+    }
+
+    @Test
+    void executeAsync_ShouldHoldPlaceUntilFutureCompletes() {
+        DownstreamGuard guard = guard(1, 5);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> future = guard.executeAsync(() -> pending);
+        assertEquals(1, guard.getBulkhead().getActive());
+
+        pending.complete("ok");
+        assertEquals("ok", future.join());
+        assertEquals(0, guard.getBulkhead().getActive());
+    }
+
+    @Test
+    void executeAsync_WhenFutureFails_ShouldReleasePlaceAndCountFailure() {
+        DownstreamGuard guard = guard(1, 1);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> future = guard.executeAsync(() -> pending);
+        pending.completeExceptionally(status(502));
+
+        assertThrows(ExecutionException.class, future::get);
+        assertEquals(0, guard.getBulkhead().getActive());
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void executeAsync_WhenFutureFailsWithCompletionException_ShouldCountUnwrappedCause() {
+        DownstreamGuard guard = guard(1, 1);
+
+        CompletableFuture<String> future = guard.executeAsync(() -> CompletableFuture.supplyAsync(
+                () -> fail(new ResourceAccessException("connection refused"))));
+
+        assertThrows(ExecutionException.class, future::get);
+        assertEquals(0, guard.getBulkhead().getActive());
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void executeAsync_WhenSupplierThrows_ShouldReleasePlaceAndReturnFailedFuture() {
+        DownstreamGuard guard = guard(1, 1);
+
+        CompletableFuture<String> future = guard.executeAsync(() -> {
+            throw new ResourceAccessException("connection refused");
+        });
+
+        ExecutionException error = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(ResourceAccessException.class, error.getCause());
+        assertEquals(0, guard.getBulkhead().getActive());
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void execute_With4xx_ShouldCountAsSuccessForBreaker() {
+        DownstreamGuard guard = guard(1, 2);
+
+        assertThrows(ServiceCommunicationException.class, () -> guard.execute(() -> fail(status(500))));
+        assertThrows(ServiceCommunicationException.class, () -> guard.execute(() -> fail(status(404))));
+        assertThrows(ServiceCommunicationException.class, () -> guard.execute(() -> fail(status(500))));
+
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void execute_WithCallNotAttempted_ShouldBeIgnoredByBreaker() {
+        DownstreamGuard guard = guard(1, 1);
+
+        assertThrows(DeadlineExceededException.class,
+                () -> guard.execute(() -> fail(new DeadlineExceededException("deadline exceeded"))));
+
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker().getState());
+        assertEquals(0, guard.getBulkhead().getActive());
+    }
+
+    @Test
+    void execute_WhenBreakerOpen_ShouldFailFastAndReleasePlace() {
+        DownstreamGuard guard = guard(1, 1);
+        assertThrows(ResourceAccessException.class,
+                () -> guard.execute(() -> fail(new ResourceAccessException("read timed out"))));
+        calls.set(0);
+
+        ServiceCommunicationException error = assertThrows(ServiceCommunicationException.class,
+                () -> guard.execute(this::succeed));
+
+        assertEquals(503, error.getStatusCode());
+        assertEquals(0, calls.get());
+        assertEquals(0, guard.getBulkhead().getActive());
+        assertEquals(1.0, breakerRejected.count());
+        assertEquals(0.0, bulkheadRejected.count());
+    }
+}
@@ -0,0 +1,70 @@
+package fr.imt.nord.fisa.ti.gatcha.common.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.ResourceAccessException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownstreamGuardsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private void failOnce(DownstreamGuard guard) {
+        assertThrows(ResourceAccessException.class, () -> guard.execute(() -> {
+            throw new ResourceAccessException("connection refused");
+        }));
+    }
+
+    @Test
+    void forService_WithoutProperties_ShouldUseDefaults() {
+        DownstreamGuard guard = new DownstreamGuards(meterRegistry, new MockEnvironment())
+                .forService("monster", "http://monster");
+
+        assertEquals(20, guard.getBulkhead().getMaxConcurrent());
+        for (int i = 0; i < 4; i++) {
+            failOnce(guard);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker().getState());
+        failOnce(guard);
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void forService_ShouldApplyServiceOverridesOverDefaultSection() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("downstream.default.max-concurrent", "8")
+                .withProperty("downstream.monster.max-concurrent", "2")
+                .withProperty("downstream.monster.failure-threshold", "1");
+        DownstreamGuards guards = new DownstreamGuards(meterRegistry, environment);
+
+        DownstreamGuard monster = guards.forService("monster", "http://monster");
+        DownstreamGuard player = guards.forService("player", "http://player");
+
+        assertEquals(2, monster.getBulkhead().getMaxConcurrent());
+        assertEquals(8, player.getBulkhead().getMaxConcurrent());
+        failOnce(monster);
+        failOnce(player);
+        assertEquals(CircuitBreaker.State.OPEN, monster.getCircuitBreaker().getState());
+        assertEquals(CircuitBreaker.State.CLOSED, player.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void forService_ShouldReuseGuardAndExposeMetrics() {
+        DownstreamGuards guards = new DownstreamGuards(meterRegistry,
+                new MockEnvironment().withProperty("downstream.monster.failure-threshold", "1"));
+
+        DownstreamGuard guard = guards.forService("monster", "http://monster");
+        assertSame(guard, guards.forService("monster", "http://monster"));
+        failOnce(guard);
+        assertThrows(RuntimeException.class, () -> guard.execute(() -> "ok"));
+
+        assertEquals(20.0, meterRegistry.get("downstream.bulkhead.max").tag("service", "monster").gauge().value());
+        assertEquals(2.0, meterRegistry.get("downstream.circuit-breaker.state").tag("service", "monster").gauge().value());
+        assertEquals(1.0, meterRegistry.get("downstream.rejected").tag("service", "monster")
+                .tag("reason", "circuit_open").counter().count());
+        assertEquals(1.0, meterRegistry.get("downstream.circuit-breaker.transitions").tag("service", "monster")
+                .tag("to", "OPEN").counter().count());
+    }
+}
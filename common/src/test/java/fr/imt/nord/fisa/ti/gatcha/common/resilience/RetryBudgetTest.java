@@ -0,0 +1,48 @@
+package fr.imt.nord.fisa.ti.gatcha.common.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBudgetTest {
+
+    @Test
+    void tryAcquireRetry_ShouldStartWithMaxTokens() {
+        RetryBudget budget = new RetryBudget(0.0, 2);
+
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+        assertEquals(0.0, budget.available());
+    }
+
+    @Test
+    void recordRequest_ShouldCreditRatioPerRequest() {
+        RetryBudget budget = new RetryBudget(0.2, 1);
+        assertTrue(budget.tryAcquireRetry());
+
+        for (int i = 0; i < 4; i++) {
+            budget.recordRequest();
+        }
+        assertFalse(budget.tryAcquireRetry());
+
+        budget.recordRequest();
+        assertTrue(budget.tryAcquireRetry());
+    }
+
+    @Test
+    void recordRequest_ShouldNotExceedMaxTokens() {
+        RetryBudget budget = new RetryBudget(1.0, 2);
+
+        for (int i = 0; i < 10; i++) {
+            budget.recordRequest();
+        }
+
+        assertEquals(2.0, budget.available());
+    }
+
+    @Test
+    void constructor_WithNegativeRatio_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(-0.1, 1));
+    }
+}
@@ -0,0 +1,51 @@
+package fr.imt.nord.fisa.ti.gatcha.common.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+
+    private final RetryPolicy policy = new RetryPolicy(5, Duration.ofMillis(50), Duration.ofMillis(300));
+
+    private long maxBackoffMillis(int retry) {
+        long max = 0;
+        for (int i = 0; i < 2000; i++) {
+            Duration backoff = policy.backoff(retry);
+            assertFalse(backoff.isNegative());
+            max = Math.max(max, backoff.toMillis());
+        }
+        return max;
+    }
+
+    @Test
+    void backoff_ShouldStayWithinExponentialCeiling() {
+        assertTrue(maxBackoffMillis(1) <= 50);
+        assertTrue(maxBackoffMillis(2) <= 100);
+        assertTrue(maxBackoffMillis(3) <= 200);
+    }
+
+    @Test
+    void backoff_ShouldBeCappedByMaxBackoff() {
+        assertTrue(maxBackoffMillis(4) <= 300);
+        assertTrue(maxBackoffMillis(60) <= 300);
+    }
+
+    @Test
+    void backoff_ShouldBeJittered() {
+        long distinct = IntStream.range(0, 50)
+                .mapToObj(i -> policy.backoff(3))
+                .distinct()
+                .count();
+
+        assertTrue(distinct > 1);
+    }
+
+    @Test
+    void constructor_WithoutAttempts_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(0, Duration.ZERO, Duration.ZERO));
+    }
+}
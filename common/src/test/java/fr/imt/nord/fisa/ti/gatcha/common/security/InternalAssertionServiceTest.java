@@ -0,0 +1,89 @@
+package fr.imt.nord.fisa.ti.gatcha.common.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InternalAssertionServiceTest {
+
+    private static final String SECRET = secret("internal-assertion-secret-for-tests");
+    private static final String OTHER_SECRET = secret("another-assertion-secret-for-tests");
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private static String secret(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static InternalAssertionService service(String secret, Instant now) {
+        return new InternalAssertionService(true, secret, TTL, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    void verify_WithAssertionForSameToken_ShouldReturnUsername() {
+        InternalAssertionService service = service(SECRET, NOW);
+
+        String assertion = service.issue("user-token", "john").orElseThrow();
+
+        assertEquals("john", service.verify(assertion, "user-token").orElseThrow());
+    }
+
+    @Test
+    void verify_WithOtherToken_ShouldReject() {
+        InternalAssertionService service = service(SECRET, NOW);
+
+        String assertion = service.issue("user-token", "john").orElseThrow();
+
+        assertTrue(service.verify(assertion, "stolen-token").isEmpty());
+    }
+
+    @Test
+    void verify_AfterTtl_ShouldReject() {
+        String assertion = service(SECRET, NOW).issue("user-token", "john").orElseThrow();
+
+        assertTrue(service(SECRET, NOW.plus(TTL).minusSeconds(1)).verify(assertion, "user-token").isPresent());
+        assertTrue(service(SECRET, NOW.plus(TTL)).verify(assertion, "user-token").isEmpty());
+    }
+
+    @Test
+    void verify_WithWrongSecret_ShouldReject() {
+        String assertion = service(OTHER_SECRET, NOW).issue("user-token", "john").orElseThrow();
+
+        assertTrue(service(SECRET, NOW).verify(assertion, "user-token").isEmpty());
+    }
+
+    @Test
+    void verify_WithTamperedPayload_ShouldReject() {
+        InternalAssertionService service = service(SECRET, NOW);
+        String assertion = service.issue("user-token", "john").orElseThrow();
+        String forged = service.issue("user-token", "admin").orElseThrow();
+        String tampered = forged.substring(0, forged.lastIndexOf('.'))
+                + assertion.substring(assertion.lastIndexOf('.'));
+
+        assertTrue(service.verify(tampered, "user-token").isEmpty());
+    }
+
+    @Test
+    void verify_WithUserTokenAsAssertion_ShouldReject() {
+        InternalAssertionService service = service(SECRET, NOW);
+
+        assertTrue(service.verify("user-token", "user-token").isEmpty());
+        assertTrue(service.verify(null, "user-token").isEmpty());
+    }
+
+    @Test
+    void issue_WhenDisabled_ShouldReturnEmpty() {
+        InternalAssertionService service = new InternalAssertionService(false, "", TTL, Clock.systemUTC());
+
+        assertFalse(service.isEnabled());
+        assertTrue(service.issue("user-token", "john").isEmpty());
+        assertTrue(service.verify("st1.x.y", "user-token").isEmpty());
+    }
+}
@@ -0,0 +1,117 @@
+package fr.imt.nord.fisa.ti.gatcha.common.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignedTokenCodecTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+    private static final SignedTokenClaims CLAIMS =
+            new SignedTokenClaims("token-id", "john", NOW.plusSeconds(60));
+
+    private static byte[] secret(char fill) {
+        byte[] secret = new byte[32];
+        Arrays.fill(secret, (byte) fill);
+        return secret;
+    }
+
+    private static KeyPair ed25519KeyPair() throws GeneralSecurityException {
+        return KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+    }
+
+    @Test
+    void verify_WithHmacSignedToken_ShouldReturnClaims() {
+        SignedTokenCodec codec = SignedTokenCodec.hmac(secret('a'));
+
+        String token = codec.sign(CLAIMS);
+
+        assertTrue(SignedTokenCodec.isSignedToken(token));
+        assertEquals(CLAIMS, codec.verify(token, NOW).orElseThrow());
+    }
+
+    @Test
+    void verify_WithWrongSecret_ShouldReject() {
+        String token = SignedTokenCodec.hmac(secret('a')).sign(CLAIMS);
+
+        assertTrue(SignedTokenCodec.hmac(secret('b')).verify(token, NOW).isEmpty());
+    }
+
+    @Test
+    void verify_WithTamperedPayload_ShouldReject() {
+        SignedTokenCodec codec = SignedTokenCodec.hmac(secret('a'));
+        String token = codec.sign(CLAIMS);
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("token-id\n" + NOW.plusSeconds(60).getEpochSecond() + "\nadmin").getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(codec.verify(SignedTokenCodec.PREFIX + forgedPayload + "." + signature, NOW).isEmpty());
+    }
+
+    @Test
+    void verify_WithTamperedSignature_ShouldReject() {
+        SignedTokenCodec codec = SignedTokenCodec.hmac(secret('a'));
+        String token = codec.sign(CLAIMS);
+        char last = token.charAt(token.length() - 1);
+        String tampered = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+
+        assertTrue(codec.verify(tampered, NOW).isEmpty());
+    }
+
+    @Test
+    void verify_WhenExpired_ShouldReject() {
+        SignedTokenCodec codec = SignedTokenCodec.hmac(secret('a'));
+        String token = codec.sign(CLAIMS);
+
+        assertTrue(codec.verify(token, NOW.plusSeconds(59)).isPresent());
+        assertTrue(codec.verify(token, NOW.plusSeconds(60)).isEmpty());
+    }
+
+    @Test
+    void verify_WithMalformedToken_ShouldReject() {
+        SignedTokenCodec codec = SignedTokenCodec.hmac(secret('a'));
+
+        assertTrue(codec.verify(null, NOW).isEmpty());
+        assertTrue(codec.verify("opaque-token", NOW).isEmpty());
+        assertTrue(codec.verify(SignedTokenCodec.PREFIX, NOW).isEmpty());
+        assertTrue(codec.verify(SignedTokenCodec.PREFIX + "!!!.???", NOW).isEmpty());
+    }
+
+    @Test
+    void verify_WithEd25519PublicKeyOnly_ShouldAcceptTokensSignedWithPrivateKey() throws Exception {
+        KeyPair keys = ed25519KeyPair();
+        String token = SignedTokenCodec.ed25519(keys.getPrivate(), keys.getPublic()).sign(CLAIMS);
+        SignedTokenCodec verifier = SignedTokenCodec.ed25519(null, keys.getPublic());
+
+        assertFalse(verifier.canSign());
+        assertThrows(IllegalStateException.class, () -> verifier.sign(CLAIMS));
+        assertEquals(CLAIMS, verifier.verify(token, NOW).orElseThrow());
+    }
+
+    @Test
+    void verify_WithOtherEd25519Key_ShouldReject() throws Exception {
+        KeyPair keys = ed25519KeyPair();
+        String token = SignedTokenCodec.ed25519(keys.getPrivate(), keys.getPublic()).sign(CLAIMS);
+
+        assertTrue(SignedTokenCodec.ed25519(null, ed25519KeyPair().getPublic()).verify(token, NOW).isEmpty());
+    }
+
+    @Test
+    void hmac_WithShortSecret_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> SignedTokenCodec.hmac(new byte[16]));
+    }
+
+    @Test
+    void fromConfig_WithUnknownAlgorithm_ShouldFail() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SignedTokenCodec.fromConfig("RSA", "", null, ""));
+    }
+}
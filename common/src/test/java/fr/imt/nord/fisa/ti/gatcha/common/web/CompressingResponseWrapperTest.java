@@ -0,0 +1,214 @@
+package fr.imt.nord.fisa.ti.gatcha.common.web;
+
+import jakarta.servlet.ServletOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressingResponseWrapperTest {
+
+    private static final int THRESHOLD = 256;
+
+    private MockHttpServletResponse response;
+    private CompressingResponseWrapper wrapper;
+
+    @BeforeEach
+    void setUp() {
+        response = new MockHttpServletResponse();
+        wrapper = new CompressingResponseWrapper(response, THRESHOLD,
+                type -> type != null && type.startsWith(MediaType.APPLICATION_JSON_VALUE));
+        wrapper.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    static byte[] body(int size) {
+        byte[] body = new byte[size];
+        for (int i = 0; i < size; i++) {
+            body[i] = (byte) ('a' + i % 26);
+        }
+        return body;
+    }
+
+    static byte[] gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void finish_BelowThreshold_ShouldSendBodyUncompressedWithLength() throws IOException {
+        byte[] body = body(THRESHOLD);
+
+        wrapper.getOutputStream().write(body);
+        assertEquals(0, response.getContentAsByteArray().length);
+        wrapper.finish();
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, response.getContentAsByteArray());
+        assertEquals(THRESHOLD, response.getContentLength());
+        assertFalse(wrapper.isCompressed());
+        assertEquals(THRESHOLD, wrapper.getBytesSent());
+    }
+
+    @Test
+    void write_AboveThreshold_ShouldSwitchToGzip() throws IOException {
+        byte[] body = body(4 * THRESHOLD);
+        ServletOutputStream out = wrapper.getOutputStream();
+
+        out.write(body, 0, THRESHOLD);
+        assertFalse(wrapper.isCompressed());
+        out.write(body, THRESHOLD, body.length - THRESHOLD);
+        wrapper.finish();
+
+        assertTrue(wrapper.isCompressed());
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertArrayEquals(body, gunzip(response.getContentAsByteArray()));
+        assertEquals(body.length, wrapper.getBytesWritten());
+        assertEquals(response.getContentAsByteArray().length, wrapper.getBytesSent());
+    }
+
+    @Test
+    void setContentLength_WhenCompressed_ShouldNotBeSent() throws IOException {
+        byte[] body = body(4 * THRESHOLD);
+
+        wrapper.setContentLength(body.length);
+        wrapper.setHeader(HttpHeaders.CONTENT_LENGTH, Integer.toString(body.length));
+        wrapper.getOutputStream().write(body);
+        wrapper.finish();
+
+        assertTrue(wrapper.isCompressed());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+    }
+
+    @Test
+    void setContentLength_WhenNotCompressible_ShouldBeSentBeforeBody() throws IOException {
+        byte[] body = body(4 * THRESHOLD);
+        wrapper.setContentType(MediaType.IMAGE_PNG_VALUE);
+
+        wrapper.addHeader(HttpHeaders.CONTENT_LENGTH, Integer.toString(body.length));
+        wrapper.getOutputStream().write(body);
+
+        assertEquals(body.length, response.getContentLength());
+        assertArrayEquals(body, response.getContentAsByteArray());
+        wrapper.finish();
+        assertFalse(wrapper.isCompressed());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void setContentLength_AfterPassthroughStarted_ShouldBeForwarded() throws IOException {
+        wrapper.setContentType(MediaType.IMAGE_PNG_VALUE);
+        wrapper.getOutputStream().write(body(10));
+
+        wrapper.setIntHeader(HttpHeaders.CONTENT_LENGTH, 10);
+
+        assertEquals(10, response.getContentLength());
+    }
+
+    @Test
+    void setContentLength_WithoutBody_ShouldBeSentOnFinish() throws IOException {
+        wrapper.setContentLength(0);
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+
+        wrapper.finish();
+
+        assertEquals("0", response.getHeader(HttpHeaders.CONTENT_LENGTH));
+    }
+
+    @Test
+    void write_WithNonCompressibleType_ShouldPassThrough() throws IOException {
+        byte[] body = body(4 * THRESHOLD);
+        wrapper.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+        wrapper.getOutputStream().write(body);
+        wrapper.finish();
+
+        assertFalse(wrapper.isCompressed());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    void write_WithExistingContentEncoding_ShouldPassThrough() throws IOException {
+        wrapper.setHeader(HttpHeaders.CONTENT_ENCODING, "br");
+        byte[] body = body(4 * THRESHOLD);
+
+        wrapper.getOutputStream().write(body);
+        wrapper.finish();
+
+        assertFalse(wrapper.isCompressed());
+        assertEquals("br", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    void resetBuffer_WhileBuffering_ShouldDiscardPendingBody() throws IOException {
+        ServletOutputStream out = wrapper.getOutputStream();
+        out.write(body(100));
+
+        wrapper.resetBuffer();
+        out.write("{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+        wrapper.finish();
+
+        assertEquals("{\"ok\":true}", response.getContentAsString());
+        assertEquals(11, wrapper.getBytesWritten());
+    }
+
+    @Test
+    void reset_WhileBuffering_ShouldDiscardBodyAndDeclaredLength() throws IOException {
+        wrapper.setContentLength(5000);
+        wrapper.getOutputStream().write(body(100));
+
+        wrapper.reset();
+        wrapper.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        wrapper.getOutputStream().write(body(20));
+        wrapper.finish();
+
+        assertArrayEquals(body(20), response.getContentAsByteArray());
+        assertEquals(20, response.getContentLength());
+    }
+
+    @Test
+    void getWriter_AboveThreshold_ShouldCompressWithCharacterEncoding() throws IOException {
+        wrapper.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        String text = "é".repeat(2 * THRESHOLD);
+
+        PrintWriter writer = wrapper.getWriter();
+        writer.write(text);
+        wrapper.finish();
+
+        assertTrue(wrapper.isCompressed());
+        assertEquals(text, new String(gunzip(response.getContentAsByteArray()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getOutputStream_AfterGetWriter_ShouldFail() throws IOException {
+        wrapper.getWriter();
+
+        assertThrows(IllegalStateException.class, wrapper::getOutputStream);
+    }
+
+    @Test
+    void finish_CalledTwice_ShouldWriteGzipTrailerOnce() throws IOException {
+        byte[] body = body(4 * THRESHOLD);
+        wrapper.getOutputStream().write(body);
+
+        wrapper.finish();
+        int length = response.getContentAsByteArray().length;
+        wrapper.getOutputStream().close();
+
+        assertEquals(length, response.getContentAsByteArray().length);
+        assertArrayEquals(body, gunzip(response.getContentAsByteArray()));
+    }
+}
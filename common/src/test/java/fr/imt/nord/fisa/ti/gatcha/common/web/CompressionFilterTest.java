@@ -0,0 +1,111 @@
+package fr.imt.nord.fisa.ti.gatcha.common.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CompressionFilterTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private SimpleMeterRegistry meterRegistry;
+    private MockMvc mockMvc;
+
+    record Item(int id, String name) {
+    }
+
+    @RestController
+    static class ItemController {
+
+        private final JsonArrayStreamer streamer;
+
+        ItemController(JsonArrayStreamer streamer) {
+            this.streamer = streamer;
+        }
+
+        @GetMapping("/items")
+        ResponseEntity<StreamingResponseBody> items(@RequestParam int count) {
+            return streamer.stream(() -> IntStream.range(0, count).mapToObj(i -> new Item(i, "item-" + i)));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        CompressionFilter filter = new CompressionFilter(meterRegistry, true, DataSize.ofBytes(256),
+                MediaType.APPLICATION_JSON_VALUE);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ItemController(new JsonArrayStreamer(jsonMapper, 10)))
+                .addFilters(filter)
+                .build();
+    }
+
+    private MvcResult streamItems(int count, String acceptEncoding) throws Exception {
+        MvcResult started = mockMvc.perform(get("/items")
+                        .param("count", Integer.toString(count))
+                        .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(0.0, responses("compressed") + responses("not_compressed"));
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private double responses(String outcome) {
+        return meterRegistry.get("http.server.compression.responses").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void asyncDispatch_WithStreamedBody_ShouldFinishGzipOnFinalDispatch() throws Exception {
+        MvcResult result = streamItems(500, "gzip, deflate");
+
+        assertEquals("gzip", result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        Item[] items = jsonMapper.readValue(
+                CompressingResponseWrapperTest.gunzip(result.getResponse().getContentAsByteArray()), Item[].class);
+        assertEquals(500, items.length);
+        assertEquals(new Item(499, "item-499"), items[499]);
+        assertEquals(1.0, responses("compressed"));
+        double before = meterRegistry.get("http.server.compression.bytes").tag("stage", "before").counter().count();
+        double after = meterRegistry.get("http.server.compression.bytes").tag("stage", "after").counter().count();
+        assertEquals(result.getResponse().getContentAsByteArray().length, after);
+        assertTrue(after < before);
+    }
+
+    @Test
+    void asyncDispatch_WithSmallStreamedBody_ShouldSendItUncompressed() throws Exception {
+        MvcResult result = streamItems(2, "gzip");
+
+        assertNull(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        Item[] items = jsonMapper.readValue(result.getResponse().getContentAsByteArray(), Item[].class);
+        assertEquals(2, items.length);
+        assertEquals(1.0, responses("not_compressed"));
+    }
+
+    @Test
+    void request_WithoutGzipInAcceptEncoding_ShouldNotBeWrapped() throws Exception {
+        MvcResult result = streamItems(500, "gzip;q=0, identity");
+
+        assertNull(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(500, jsonMapper.readValue(result.getResponse().getContentAsByteArray(), Item[].class).length);
+        assertEquals(0.0, responses("compressed") + responses("not_compressed"));
+    }
+}
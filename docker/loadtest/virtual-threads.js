@@ -0,0 +1,78 @@
+// Charge de comparaison threads virtuels / threads plateforme (k6).
+// Usage : voir docker/loadtest/README.md
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8000';
+const USERS = parseInt(__ENV.USERS || '50', 10);
+const PASSWORD = 'loadtest-password';
+const RUN_ID = __ENV.RUN_ID || `${Date.now()}`;
+
+export const options = {
+    scenarios: {
+        ramp: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: __ENV.RAMP_UP || '1m', target: parseInt(__ENV.VUS || '200', 10) },
+                { duration: __ENV.STEADY || '3m', target: parseInt(__ENV.VUS || '200', 10) },
+                { duration: '30s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        checks: ['rate>0.95'],
+        // Seuils toujours vrais : ils font apparaître les latences par endpoint dans --summary-export
+        'http_req_duration{name:POST /invocations}': ['p(99)>=0'],
+        'http_req_duration{name:GET /players/{username}}': ['p(95)>=0'],
+    },
+};
+
+function jsonHeaders(token) {
+    const headers = { 'Content-Type': 'application/json' };
+    if (token) {
+        headers.Authorization = `Bearer ${token}`;
+    }
+    return { headers };
+}
+
+// Crée les comptes de test une seule fois, hors de la mesure.
+export function setup() {
+    const accounts = [];
+    for (let i = 0; i < USERS; i++) {
+        const username = `loadtest-${RUN_ID}-${i}`;
+        const body = JSON.stringify({ username, password: PASSWORD });
+        const response = http.post(`${BASE_URL}/api/auth/users/register`, body, jsonHeaders());
+        check(response, { 'register 200': (r) => r.status === 200 });
+        if (response.status === 200) {
+            accounts.push({ username, token: response.json('token') });
+        }
+    }
+    return { accounts };
+}
+
+export default function (data) {
+    const account = data.accounts[(__VU + __ITER) % data.accounts.length];
+    const auth = jsonHeaders(account.token);
+
+    const player = http.get(`${BASE_URL}/api/player/players/${account.username}`,
+        Object.assign({ tags: { name: 'GET /players/{username}' } }, auth));
+    check(player, { 'player 200': (r) => r.status === 200 });
+
+    const monsters = http.get(`${BASE_URL}/api/monster/monsters`,
+        Object.assign({ tags: { name: 'GET /monsters' } }, auth));
+    check(monsters, { 'monsters 200': (r) => r.status === 200 });
+
+    const invocation = http.post(`${BASE_URL}/api/invocation/invocations`, null,
+        Object.assign({ tags: { name: 'POST /invocations' } }, auth));
+    check(invocation, { 'invocation 201': (r) => r.status === 201 });
+
+    const login = http.post(`${BASE_URL}/api/auth/users/login`,
+        JSON.stringify({ username: account.username, password: PASSWORD }),
+        Object.assign({ tags: { name: 'POST /users/login' } }, jsonHeaders()));
+    check(login, { 'login 200': (r) => r.status === 200 || r.status === 503 });
+
+    sleep(parseFloat(__ENV.THINK_TIME || '0.5'));
+}
@@ -1,9 +1,9 @@
 package fr.imt.nord.fisa.ti.gatcha.invocation.service;
 
 import fr.imt.nord.fisa.ti.gatcha.common.context.SecurityContext;
+import fr.imt.nord.fisa.ti.gatcha.common.dto.PlayerResponse;
 import fr.imt.nord.fisa.ti.gatcha.invocation.dto.InvocationDTO;
 import fr.imt.nord.fisa.ti.gatcha.invocation.dto.MonsterResponse;
-import fr.imt.nord.fisa.ti.gatcha.invocation.dto.PlayerResponse;
 import fr.imt.nord.fisa.ti.gatcha.invocation.exception.InventoryFullException;
 import fr.imt.nord.fisa.ti.gatcha.invocation.exception.InvocationFailedException;
 import fr.imt.nord.fisa.ti.gatcha.invocation.exception.NoTemplateAvailableException;
@@ -20,6 +20,8 @@ import org.springframework.stereotype.Service;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -37,15 +39,18 @@ public class InvocationService {
      * Effectue une invocation pour un joueur
      */
     public InvocationDTO invoke() {
+        // Récupérer le joueur pendant la sélection du monstre (appels indépendants)
+        CompletableFuture<PlayerResponse> playerFuture = playerClientService.getPlayerAsync(SecurityContext.getUsername());
+
+        // Sélectionner un monstre aléatoirement basé sur les taux de loot
+        MonsterTemplate selectedTemplate = selectRandomMonster();
+
         // Vérifier la place dans l'inventaire
-        PlayerResponse player = playerClientService.getPlayer(SecurityContext.getUsername());
+        PlayerResponse player = awaitPlayer(playerFuture);
         if (player.getMonsters().size() >= player.getMaxMonsters()) {
             throw new InventoryFullException("Player inventory is full");
         }
 
-        // Sélectionner un monstre aléatoirement basé sur les taux de loot
-        MonsterTemplate selectedTemplate = selectRandomMonster();
-
         // Créer l'invocation dans la base tampon
         Invocation invocation = Invocation.create(SecurityContext.getUsername(), selectedTemplate.getId());
         invocation = invocationRepository.save(invocation);
@@ -55,7 +60,8 @@ public class InvocationService {
         try {
             // Étape 1: Créer le monstre via l'API Monster
             // L'API Monster gère aussi l'ajout du monstre au joueur
-            MonsterResponse monsterResponse = monsterClientService.createMonster(selectedTemplate, SecurityContext.getUsername());
+            MonsterResponse monsterResponse = monsterClientService.createMonster(
+                    selectedTemplate, SecurityContext.getUsername(), invocation.getId().toString());
             invocation.markMonsterCreated(monsterResponse.getId());
             invocation.markPlayerUpdated(); // Le player est mis à jour par Monster
             invocationRepository.save(invocation);
@@ -76,6 +82,17 @@ public class InvocationService {
         }
     }
 
+    private PlayerResponse awaitPlayer(CompletableFuture<PlayerResponse> playerFuture) {
+        try {
+            return playerFuture.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Crée un nouveau template de monstre
      */
@@ -203,7 +220,8 @@ public class InvocationService {
                 case FAILED:
                     // Recommencer depuis le début - Monster gère l'ajout au joueur
                     if (invocation.getMonsterId() == null) {
-                        MonsterResponse response = monsterClientService.createMonster(template, invocation.getUsername());
+                        MonsterResponse response = monsterClientService.createMonster(
+                                template, invocation.getUsername(), invocation.getId().toString());
                         invocation.markMonsterCreated(response.getId());
                     }
                     invocation.markPlayerUpdated();
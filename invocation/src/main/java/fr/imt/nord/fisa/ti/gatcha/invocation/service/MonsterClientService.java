@@ -3,6 +3,7 @@ package fr.imt.nord.fisa.ti.gatcha.invocation.service;
 import fr.imt.nord.fisa.ti.gatcha.common.client.HttpClient;
 import fr.imt.nord.fisa.ti.gatcha.common.dto.CreateMonsterRequest;
 import fr.imt.nord.fisa.ti.gatcha.common.model.ElementType;
+import fr.imt.nord.fisa.ti.gatcha.common.resilience.DownstreamGuards;
 import fr.imt.nord.fisa.ti.gatcha.common.service.BaseClientService;
 import fr.imt.nord.fisa.ti.gatcha.invocation.dto.MonsterResponse;
 import fr.imt.nord.fisa.ti.gatcha.invocation.model.MonsterTemplate;
@@ -22,11 +23,16 @@ public class MonsterClientService extends BaseClientService {
 
     public MonsterClientService(
             HttpClient httpClient,
+            DownstreamGuards downstreamGuards,
             @Value("${monster.service.url:http://localhost:8083}") String monsterServiceUrl) {
-        super(httpClient, monsterServiceUrl);
+        super(httpClient, downstreamGuards, "monster", monsterServiceUrl);
     }
 
-    public MonsterResponse createMonster(MonsterTemplate template, String ownerUsername) {
+    /**
+     * Crée un monstre à partir d'un template. La clé d'idempotence (l'identifiant de l'invocation)
+     * permet de rejouer l'appel en cas d'erreur transitoire sans créer le monstre deux fois.
+     */
+    public MonsterResponse createMonster(MonsterTemplate template, String ownerUsername, String idempotencyKey) {
         CreateMonsterRequest request = CreateMonsterRequest.builder()
                 .templateId(template.getId())
                 .element(ElementType.fromValue(template.getElement().getValue()))
@@ -41,12 +47,13 @@ public class MonsterClientService extends BaseClientService {
 
         log.debug("Creating monster from template {} for user {}", template.getId(), ownerUsername);
 
-        MonsterResponse response = httpClient.post(
+        MonsterResponse response = call(() -> httpClient.post(
                 serviceUrl,
                 "/monsters",
                 request,
-                MonsterResponse.class
-        );
+                MonsterResponse.class,
+                idempotencyKey
+        ));
 
         log.info("Monster created with ID {} for user {}", response.getId(), ownerUsername);
         return response;
@@ -1,28 +1,40 @@
 package fr.imt.nord.fisa.ti.gatcha.invocation.service;
 
 import fr.imt.nord.fisa.ti.gatcha.common.client.HttpClient;
+import fr.imt.nord.fisa.ti.gatcha.common.dto.PlayerResponse;
+import fr.imt.nord.fisa.ti.gatcha.common.resilience.DownstreamGuards;
 import fr.imt.nord.fisa.ti.gatcha.common.service.BaseClientService;
-import fr.imt.nord.fisa.ti.gatcha.invocation.dto.PlayerResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Service
 public class PlayerClientService extends BaseClientService {
 
     public PlayerClientService(
             HttpClient httpClient,
+            DownstreamGuards downstreamGuards,
             @Value("${player.service.url:http://localhost:8081}") String playerServiceUrl) {
-        super(httpClient, playerServiceUrl);
+        super(httpClient, downstreamGuards, "player", playerServiceUrl);
     }
 
     public PlayerResponse getPlayer(String username) {
-        return httpClient.get(
+        return call(() -> httpClient.getHedged(
+                serviceUrl,
+                "/players/" + username,
+                PlayerResponse.class
+        ));
+    }
+
+    public CompletableFuture<PlayerResponse> getPlayerAsync(String username) {
+        return callAsync(() -> httpClient.getHedgedAsync(
                 serviceUrl,
                 "/players/" + username,
                 PlayerResponse.class
-        );
+        ));
     }
 }
 
@@ -2,6 +2,7 @@ package fr.imt.nord.fisa.ti.gatcha.monster.controller;
 
 import fr.imt.nord.fisa.ti.gatcha.common.context.SecurityContext;
 import fr.imt.nord.fisa.ti.gatcha.common.dto.CreateMonsterRequest;
+import fr.imt.nord.fisa.ti.gatcha.common.web.JsonArrayStreamer;
 import fr.imt.nord.fisa.ti.gatcha.monster.dto.MonsterDTO;
 import fr.imt.nord.fisa.ti.gatcha.monster.dto.RenameMonsterDTO;
 import fr.imt.nord.fisa.ti.gatcha.monster.service.MonsterService;
@@ -18,6 +19,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -29,6 +31,7 @@ import java.util.UUID;
 public class MonsterController {
 
     private final MonsterService monsterService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     @GetMapping
     @Operation(summary = "Mes monstres", description = "Retourne la liste complète des monstres possédés par le joueur connecté.")
@@ -36,9 +39,10 @@ public class MonsterController {
             @ApiResponse(responseCode = "200", description = "Liste de monstres récupérée",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = MonsterDTO.class))))
     })
-    public ResponseEntity<List<MonsterDTO>> getMyMonsters() {
+    public ResponseEntity<StreamingResponseBody> getMyMonsters() {
+        // Capturé ici : le corps est écrit hors du thread de la requête
         String username = SecurityContext.getUsername();
-        return ResponseEntity.ok(monsterService.getMonstersByOwner(username));
+        return jsonArrayStreamer.stream(() -> monsterService.getMonstersByOwner(username));
     }
 
     @GetMapping("/{id}")
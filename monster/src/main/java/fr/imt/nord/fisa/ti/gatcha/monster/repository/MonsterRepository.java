@@ -7,10 +7,11 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface MonsterRepository extends MongoRepository<Monster, UUID> {
-    List<Monster> findByOwnerUsername(String ownerUsername);
+    Stream<Monster> streamByOwnerUsername(String ownerUsername);
 
     Optional<Monster> findByIdAndOwnerUsername(UUID id, String ownerUsername);
 
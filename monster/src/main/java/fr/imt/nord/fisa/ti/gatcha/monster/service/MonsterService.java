@@ -20,6 +20,7 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -29,11 +30,12 @@ public class MonsterService {
     private final MonsterRepository monsterRepository;
     private final PlayerClientService playerClientService;
 
-    public List<MonsterDTO> getMonstersByOwner(String ownerUsername) {
-        return monsterRepository.findByOwnerUsername(ownerUsername)
-                .stream()
-                .map(MonsterDTO::fromEntity)
-                .collect(Collectors.toList());
+    /**
+     * Monstres du joueur, lus au fil d'un curseur MongoDB. Le flux retourné doit être fermé par l'appelant.
+     */
+    public Stream<MonsterDTO> getMonstersByOwner(String ownerUsername) {
+        return monsterRepository.streamByOwnerUsername(ownerUsername)
+                .map(MonsterDTO::fromEntity);
     }
 
     public MonsterDTO getMonsterById(UUID id, String ownerUsername) {
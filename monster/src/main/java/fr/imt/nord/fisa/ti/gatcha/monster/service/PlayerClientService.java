@@ -1,6 +1,7 @@
 package fr.imt.nord.fisa.ti.gatcha.monster.service;
 
 import fr.imt.nord.fisa.ti.gatcha.common.client.HttpClient;
+import fr.imt.nord.fisa.ti.gatcha.common.resilience.DownstreamGuards;
 import fr.imt.nord.fisa.ti.gatcha.common.service.BaseClientService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,8 +19,9 @@ public class PlayerClientService extends BaseClientService {
 
     public PlayerClientService(
             HttpClient httpClient,
+            DownstreamGuards downstreamGuards,
             @Value("${player.service.url:http://localhost:8082}") String playerServiceUrl) {
-        super(httpClient, playerServiceUrl);
+        super(httpClient, downstreamGuards, "player", playerServiceUrl);
     }
 
     /**
@@ -33,12 +35,12 @@ public class PlayerClientService extends BaseClientService {
                     .encode()
                     .toUriString();
 
-            httpClient.post(
+            call(() -> httpClient.post(
                     serviceUrl,
                     path,
                     null,
                     Void.class
-            );
+            ));
             log.info("Added monster {} to player {}", monsterId, username);
         } catch (Exception e) {
             log.error("Failed to add monster {} to player {}: {}", monsterId, username, e.getMessage());
@@ -56,11 +58,11 @@ public class PlayerClientService extends BaseClientService {
                     .encode()
                     .toUriString();
 
-            httpClient.delete(
+            call(() -> httpClient.delete(
                     serviceUrl,
                     path,
                     Void.class
-            );
+            ));
             log.info("Removed monster {} from player {}", monsterId, username);
         } catch (Exception e) {
             log.error("Failed to remove monster {} from player {}: {}", monsterId, username, e.getMessage());
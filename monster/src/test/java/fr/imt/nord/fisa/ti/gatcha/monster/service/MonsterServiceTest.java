@@ -22,6 +22,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -100,23 +101,27 @@ class MonsterServiceTest {
     @DisplayName("getMonstersByOwner - Doit retourner les monstres d'un joueur")
     void getMonstersByOwner_Success() {
         Monster monster2 = Monster.createFromTemplate(2, ownerUsername, ElementType.WATER, 1500, 400, 500, 70, createDefaultSkills());
-        when(monsterRepository.findByOwnerUsername(ownerUsername)).thenReturn(Arrays.asList(testMonster, monster2));
+        when(monsterRepository.streamByOwnerUsername(ownerUsername)).thenReturn(Stream.of(testMonster, monster2));
 
-        List<MonsterDTO> result = monsterService.getMonstersByOwner(ownerUsername);
+        List<MonsterDTO> result;
+        try (Stream<MonsterDTO> monsters = monsterService.getMonstersByOwner(ownerUsername)) {
+            result = monsters.toList();
+        }
 
-        assertNotNull(result);
         assertEquals(2, result.size());
-        verify(monsterRepository).findByOwnerUsername(ownerUsername);
+        verify(monsterRepository).streamByOwnerUsername(ownerUsername);
     }
 
     @Test
     @DisplayName("getMonstersByOwner - Doit retourner une liste vide si aucun monstre")
     void getMonstersByOwner_Empty() {
-        when(monsterRepository.findByOwnerUsername("NoMonsterUser")).thenReturn(Collections.emptyList());
+        when(monsterRepository.streamByOwnerUsername("NoMonsterUser")).thenReturn(Stream.empty());
 
-        List<MonsterDTO> result = monsterService.getMonstersByOwner("NoMonsterUser");
+        List<MonsterDTO> result;
+        try (Stream<MonsterDTO> monsters = monsterService.getMonstersByOwner("NoMonsterUser")) {
+            result = monsters.toList();
+        }
 
-        assertNotNull(result);
         assertTrue(result.isEmpty());
     }
 
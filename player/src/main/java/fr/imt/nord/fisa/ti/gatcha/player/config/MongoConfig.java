@@ -1,20 +1,39 @@
 package fr.imt.nord.fisa.ti.gatcha.player.config;
 
 import org.bson.UuidRepresentation;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Configuration MongoDB pour supporter les UUID avec Spring Boot 4.
  * Configure le UuidRepresentation en STANDARD pour éviter les erreurs de codec.
+ * <p>
+ * Dimensionne aussi le pool de connexions : avec les threads virtuels, les requêtes simultanées
+ * ne sont plus bornées par les threads Tomcat et c'est le pool qui limite l'accès à MongoDB.
+ * L'attente d'une connexion est bornée ({@code mongo.pool.max-wait}) pour échouer vite plutôt
+ * que d'accumuler des threads en attente.
  */
 @Configuration
 public class MongoConfig {
 
     @Bean
-    public MongoClientSettingsBuilderCustomizer customizer() {
-        return builder -> builder.uuidRepresentation(UuidRepresentation.STANDARD);
+    public MongoClientSettingsBuilderCustomizer customizer(
+            @Value("${mongo.pool.max-size:200}") int maxSize,
+            @Value("${mongo.pool.min-size:10}") int minSize,
+            @Value("${mongo.pool.max-connecting:4}") int maxConnecting,
+            @Value("${mongo.pool.max-wait:2s}") Duration maxWait) {
+        return builder -> builder
+                .uuidRepresentation(UuidRepresentation.STANDARD)
+                .applyToConnectionPoolSettings(pool -> pool
+                        .maxSize(maxSize)
+                        .minSize(minSize)
+                        .maxConnecting(maxConnecting)
+                        .maxWaitTime(maxWait.toMillis(), TimeUnit.MILLISECONDS));
     }
 }
 
@@ -2,6 +2,7 @@ package fr.imt.nord.fisa.ti.gatcha.player.controller;
 
 
 import fr.imt.nord.fisa.ti.gatcha.common.context.SecurityContext;
+import fr.imt.nord.fisa.ti.gatcha.common.web.JsonArrayStreamer;
 import fr.imt.nord.fisa.ti.gatcha.player.dto.entity.PlayerDTO;
 import fr.imt.nord.fisa.ti.gatcha.player.service.PlayerService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,6 +16,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -24,9 +26,11 @@ import java.util.UUID;
 @Tag(name = "Players", description = "API de gestion des joueurs et de leurs statistiques")
 public class PlayerController {
     private final PlayerService playerService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
-    public PlayerController(PlayerService playerService) {
+    public PlayerController(PlayerService playerService, JsonArrayStreamer jsonArrayStreamer) {
         this.playerService = playerService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     @GetMapping
@@ -35,8 +39,8 @@ public class PlayerController {
             @ApiResponse(responseCode = "200", description = "Liste récupérée",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = PlayerDTO.class))))
     })
-    public ResponseEntity<List<PlayerDTO>> getAllPlayers() {
-        return ResponseEntity.ok(playerService.getAllPlayers());
+    public ResponseEntity<StreamingResponseBody> getAllPlayers() {
+        return jsonArrayStreamer.stream(playerService::getAllPlayers);
     }
 
     @PostMapping
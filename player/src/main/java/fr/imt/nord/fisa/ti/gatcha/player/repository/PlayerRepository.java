@@ -6,10 +6,13 @@ import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface PlayerRepository extends MongoRepository<Player, UUID> {
     Optional<Player> findByUsername(String username);
 
     boolean existsByUsername(String username);
+
+    Stream<Player> streamAllBy();
 }
@@ -11,6 +11,7 @@ import org.springframework.web.server.ResponseStatusException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 public class PlayerService {
@@ -43,8 +44,11 @@ public class PlayerService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Player not found"));
     }
 
-    public List<PlayerDTO> getAllPlayers() {
-        return playerRepository.findAll().stream().map(PlayerDTO::new).toList();
+    /**
+     * Tous les joueurs, lus au fil d'un curseur MongoDB. Le flux retourné doit être fermé par l'appelant.
+     */
+    public Stream<PlayerDTO> getAllPlayers() {
+        return playerRepository.streamAllBy().map(PlayerDTO::new);
     }
 
     public PlayerDTO getPlayerByUsername(String username, boolean createIfNotFound) {
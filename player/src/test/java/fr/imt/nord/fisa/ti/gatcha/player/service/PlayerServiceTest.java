@@ -12,10 +12,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -133,13 +133,15 @@ class PlayerServiceTest {
     void getAllPlayers_Success() {
         // Arrange
         Player player2 = new Player("Player2");
-        when(playerRepository.findAll()).thenReturn(Arrays.asList(testPlayer, player2));
+        when(playerRepository.streamAllBy()).thenReturn(Stream.of(testPlayer, player2));
 
         // Act
-        List<PlayerDTO> result = playerService.getAllPlayers();
+        List<PlayerDTO> result;
+        try (Stream<PlayerDTO> players = playerService.getAllPlayers()) {
+            result = players.toList();
+        }
 
         // Assert
-        assertNotNull(result);
         assertEquals(2, result.size());
     }
 